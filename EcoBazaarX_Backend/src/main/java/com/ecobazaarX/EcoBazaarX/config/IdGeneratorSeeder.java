@@ -0,0 +1,53 @@
+package com.ecobazaarX.EcoBazaarX.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Keeps the id_generator table ahead of the ids already in use.
+ * Orders and order items used to take AUTO_INCREMENT ids; before the first table-generated id is handed out,
+ * each generator's next_val is raised to at least MAX(id) + 1 of its table, so existing rows keep their ids
+ * and new ones never collide with them. Never lowers a value, so it is safe to run on every start and on
+ * several instances at once.
+ */
+@Slf4j
+@Component
+public class IdGeneratorSeeder implements SmartInitializingSingleton {
+
+    private record Generator(String name, String table, String idColumn) {
+    }
+
+    private static final List<Generator> GENERATORS = List.of(
+            new Generator("orders", "orders", "order_id"),
+            new Generator("order_items", "order_items", "order_item_id"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public IdGeneratorSeeder(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> GENERATORS.forEach(this::seed));
+    }
+
+    private void seed(Generator generator) {
+        Long next = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(" + generator.idColumn() + "), 0) + 1 FROM " + generator.table(), Long.class);
+        int updated = jdbcTemplate.update(
+                "UPDATE id_generator SET next_val = GREATEST(next_val, ?) WHERE sequence_name = ?", next, generator.name());
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO id_generator (sequence_name, next_val) VALUES (?, ?)", generator.name(), next);
+            log.info("Seeded id generator '{}' at {}", generator.name(), next);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecobazaarX.EcoBazaarX.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background jobs such as the stock ledger's write-behind flush
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,60 @@
+package com.ecobazaarX.EcoBazaarX.controller;
+
+import com.ecobazaarX.EcoBazaarX.dto.admindto.CarbonRecomputeJobDto;
+import com.ecobazaarX.EcoBazaarX.dto.admindto.EmissionFactorUpdateDto;
+import com.ecobazaarX.EcoBazaarX.dto.admindto.EmissionFactorUpdateResultDto;
+import com.ecobazaarX.EcoBazaarX.model.EmissionFactor;
+import com.ecobazaarX.EcoBazaarX.service.AdminEmissionFactorService;
+import com.ecobazaarX.EcoBazaarX.service.CarbonRecomputeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/emission-factors")
+public class AdminEmissionFactorController {
+
+    @Autowired
+    private AdminEmissionFactorService adminEmissionFactorService;
+
+    @Autowired
+    private CarbonRecomputeService carbonRecomputeService;
+
+    @GetMapping
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<List<EmissionFactor>> getAllFactors() {
+        return ResponseEntity.ok(adminEmissionFactorService.getAllFactors());
+    }
+
+    // Answers once the new value is committed; affected products are recalculated by the job it names
+    @PutMapping("/{factorId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<?> updateFactor(@PathVariable Long factorId, @RequestBody EmissionFactorUpdateDto updateDto) {
+        try {
+            EmissionFactorUpdateResultDto result = adminEmissionFactorService.updateFactor(factorId, updateDto.getValue());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/recompute-jobs")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<List<CarbonRecomputeJobDto>> getRecomputeJobs() {
+        return ResponseEntity.ok(carbonRecomputeService.getRecentJobs());
+    }
+
+    @GetMapping("/recompute-jobs/{jobId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<CarbonRecomputeJobDto> getRecomputeJob(@PathVariable Long jobId) {
+        return carbonRecomputeService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
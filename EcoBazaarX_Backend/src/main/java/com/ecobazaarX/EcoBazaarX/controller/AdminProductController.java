@@ -1,12 +1,12 @@
 package com.ecobazaarX.EcoBazaarX.controller;
 
-import com.ecobazaarX.EcoBazaarX.dto.admindto.ProductAdminViewDto;
 import com.ecobazaarX.EcoBazaarX.service.AdminProductService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/admin/products") // Correct base path for products
@@ -17,8 +17,10 @@ public class AdminProductController {
 
     @GetMapping
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<List<ProductAdminViewDto>> getAllProducts() {
-        return ResponseEntity.ok(adminProductService.getAllProducts());
+    public ResponseEntity<StreamingResponseBody> getAllProducts() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(adminProductService.streamAllProducts());
     }
 
     @DeleteMapping("/{productId}")
@@ -1,15 +1,14 @@
 package com.ecobazaarX.EcoBazaarX.controller;
 
-import com.ecobazaarX.EcoBazaarX.dto.admindto.ProductAdminViewDto;
-import com.ecobazaarX.EcoBazaarX.dto.admindto.SellerAdminViewDto;
 import com.ecobazaarX.EcoBazaarX.dto.admindto.UpdateSellerStatusDto;
 import com.ecobazaarX.EcoBazaarX.service.AdminProductService;
 import com.ecobazaarX.EcoBazaarX.service.AdminSellerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 @RestController
@@ -27,8 +26,10 @@ public class AdminSellerController {
 
     @GetMapping
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<List<SellerAdminViewDto>> getAllSellers() {
-        return ResponseEntity.ok(adminSellerService.getAllSellers());
+    public ResponseEntity<StreamingResponseBody> getAllSellers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(adminSellerService.streamAllSellers());
     }
 
     @PutMapping("/{sellerId}/status")
@@ -57,8 +58,10 @@ public class AdminSellerController {
 
     @GetMapping("/products")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<List<ProductAdminViewDto>> getAllProducts() {
-        return ResponseEntity.ok(adminProductService.getAllProducts());
+    public ResponseEntity<StreamingResponseBody> getAllProducts() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(adminProductService.streamAllProducts());
     }
 
     @DeleteMapping("/products/{productId}")
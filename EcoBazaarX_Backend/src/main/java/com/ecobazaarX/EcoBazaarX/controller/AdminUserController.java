@@ -1,12 +1,11 @@
 package com.ecobazaarX.EcoBazaarX.controller;
 
-import com.ecobazaarX.EcoBazaarX.model.User;
 import com.ecobazaarX.EcoBazaarX.service.AdminUserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/admin/users")
@@ -16,9 +15,10 @@ public class AdminUserController {
     private final AdminUserService adminUserService;
 
     @GetMapping
-    public ResponseEntity<List<User>> listAllUsers() {
-        List<User> users = adminUserService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<StreamingResponseBody> listAllUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(adminUserService.streamAllUsers());
     }
 
     @DeleteMapping("/{userId}")
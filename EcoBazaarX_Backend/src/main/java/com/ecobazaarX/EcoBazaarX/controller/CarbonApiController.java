@@ -3,10 +3,17 @@ package com.ecobazaarX.EcoBazaarX.controller;
 
 import com.ecobazaarX.EcoBazaarX.dto.sellerdto.CarbonCalculationRequest;
 import com.ecobazaarX.EcoBazaarX.dto.sellerdto.CarbonCalculationResponse;
-import com.ecobazaarX.EcoBazaarX.service.CarbonCalculatorService;
+import com.ecobazaarX.EcoBazaarX.service.CarbonBatchCalculator;
+import com.ecobazaarX.EcoBazaarX.service.CarbonCalculationCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/api/carbon")
@@ -14,13 +21,32 @@ import org.springframework.web.bind.annotation.*;
 public class CarbonApiController {
 
     @Autowired
-    private CarbonCalculatorService carbonCalculatorService;
+    private CarbonCalculationCache carbonCalculationCache;
+
+    @Autowired
+    private CarbonBatchCalculator carbonBatchCalculator;
 
     @PostMapping("/calculate")
     public ResponseEntity<CarbonCalculationResponse> calculateCarbonFootprint(
             @RequestBody CarbonCalculationRequest request
     ) {
-        double footprint = carbonCalculatorService.calculateFootprint(request);
+        double footprint = carbonCalculationCache.calculateFootprint(request);
         return ResponseEntity.ok(new CarbonCalculationResponse(footprint));
     }
-}
\ No newline at end of file
+
+    // Newline-delimited JSON in and out: one request per line, answered line by line in the same order.
+    // Signed-in users only; 413 for too many or over-long lines, 400 for an empty batch
+    @PostMapping(value = "/calculate/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> calculateCarbonFootprints(InputStream requests) throws IOException {
+        try {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(carbonBatchCalculator.calculate(requests));
+        } catch (CarbonBatchCalculator.BatchTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        } catch (CarbonBatchCalculator.EmptyBatchException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.ecobazaarX.EcoBazaarX.controller;
 
+import com.ecobazaarX.EcoBazaarX.dto.CursorPage;
 import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderDTO;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderIntakeStatusDTO;
 import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderRequest;
+import com.ecobazaarX.EcoBazaarX.service.OrderIdempotencyService;
+import com.ecobazaarX.EcoBazaarX.service.OrderIntakeService;
 import com.ecobazaarX.EcoBazaarX.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -18,17 +25,83 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    /**
+     * Places an order. With an Idempotency-Key header, a retry of the same request returns the
+     * original order (marked with Idempotent-Replayed: true) instead of placing it again.
+     * Answers 422 when the key was used for a different request, and 400 for a blank or over-long key.
+     */
     @PostMapping
     public ResponseEntity<OrderDTO> createOrder(
             @RequestBody OrderRequest orderRequest,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @AuthenticationPrincipal UserDetails userDetails
     ) {
         if (userDetails == null) {
             return ResponseEntity.status(401).build(); // Unauthorized
         }
 
-        OrderDTO createdOrder = orderService.createOrder(orderRequest, userDetails.getUsername());
-        return ResponseEntity.ok(createdOrder);
+        if (idempotencyKey == null) {
+            OrderDTO createdOrder = orderService.createOrder(orderRequest, userDetails.getUsername());
+            return ResponseEntity.ok(createdOrder);
+        }
+        try {
+            OrderIdempotencyService.Result result =
+                    orderIdempotencyService.createOrder(orderRequest, userDetails.getUsername(), idempotencyKey);
+            return ResponseEntity.ok()
+                    .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                    .body(result.order());
+        } catch (OrderIdempotencyService.KeyReusedException e) {
+            return ResponseEntity.unprocessableEntity().build();
+        } catch (IllegalArgumentException e) {
+            // E.g. a blank or over-long Idempotency-Key
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Queues an order for placement and answers immediately with 202 and a handle to poll.
+     * Answers 503 with Retry-After when the intake queue is full.
+     */
+    @PostMapping("/async")
+    public ResponseEntity<OrderIntakeStatusDTO> submitOrder(
+            @RequestBody OrderRequest orderRequest,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        try {
+            OrderIntakeStatusDTO status = orderIntakeService.submit(orderRequest, userDetails.getUsername());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/orders/async/" + status.getHandle()))
+                    .body(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (OrderIntakeService.IntakeFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+    }
+
+    // Poll the state of an order submitted to /async: QUEUED, then PLACED (with the order) or FAILED (with the reason)
+    @GetMapping("/async/{handle}")
+    public ResponseEntity<OrderIntakeStatusDTO> getSubmittedOrder(
+            @PathVariable String handle,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        return orderIntakeService.getStatus(handle, userDetails.getUsername())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping("/my-orders")
@@ -43,6 +116,27 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * One page of the buyer's orders, newest first.
+     * Pass the previous page's nextCursor to continue; answers 400 for a malformed cursor.
+     */
+    @GetMapping("/my-orders/page")
+    public ResponseEntity<CursorPage<OrderDTO>> getMyOrderPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        try {
+            return ResponseEntity.ok(orderService.getOrderPageForUser(userDetails.getUsername(), cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // ✅ ADD THIS NEW ENDPOINT FOR CANCELLING AN ORDER
     @PatchMapping("/{orderId}/cancel")
     public ResponseEntity<OrderDTO> cancelOrder(
@@ -1,37 +1,255 @@
 package com.ecobazaarX.EcoBazaarX.controller;
 
-import com.ecobazaarX.EcoBazaarX.model.Product;
+import com.ecobazaarX.EcoBazaarX.service.CatalogPayloadCache;
+import com.ecobazaarX.EcoBazaarX.service.CatalogSnapshot;
+import com.ecobazaarX.EcoBazaarX.service.CatalogSnapshotService;
+import com.ecobazaarX.EcoBazaarX.service.GreenerAlternativesService;
+import com.ecobazaarX.EcoBazaarX.service.ProductDetailService;
+import com.ecobazaarX.EcoBazaarX.service.ProductFacetService;
+import com.ecobazaarX.EcoBazaarX.service.ProductSearchService;
 import com.ecobazaarX.EcoBazaarX.service.PublicProductService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
 
 /**
  * Controller for public-facing product routes.
  * This controller does not require authentication, allowing any user
  * to view the product catalog.
+ * Catalog responses carry the catalog version as a strong ETag (one per content coding) plus Last-Modified,
+ * and conditional requests for an unchanged catalog are answered with 304 before any work is done.
  */
 @RestController
 @RequestMapping("/api/products")
 public class PublicProductController {
 
+    // Caches may store catalog responses but must revalidate them on every use
+    private static final CacheControl CATALOG_CACHE_CONTROL = CacheControl.noCache().cachePublic();
+
     @Autowired
     private PublicProductService publicProductService;
 
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private ProductFacetService productFacetService;
+
+    @Autowired
+    private ProductDetailService productDetailService;
+
+    @Autowired
+    private GreenerAlternativesService greenerAlternativesService;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private CatalogPayloadCache catalogPayloadCache;
+
     /**
      * Handles GET requests to /api/products.
      * Fetches and returns a list of all products available in the store.
      * @return A ResponseEntity containing the list of all products.
      */
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = publicProductService.getAllProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<?> getAllProducts(WebRequest request) {
+        return conditional(request, "all", publicProductService::getAllProducts);
+    }
+
+    /**
+     * Handles GET requests to /api/products/page.
+     * Returns one keyset-paginated page of the catalog, newest first.
+     * @param cursor The nextCursor value of the previous page; omit for the first page.
+     * @param size Page size (default 24, max 100).
+     * @param category Optional category filter.
+     * @param zeroWaste Optional zero-waste filter.
+     * @return A page of products plus the cursor for the next page, or 400 for a malformed cursor.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<?> getProductPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Boolean zeroWaste,
+            WebRequest request) {
+        try {
+            return conditional(request, "page", () -> publicProductService.getProductPage(cursor, size, category, zeroWaste));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
-}
 
+    /**
+     * Handles GET requests to /api/products/search.
+     * Full-text search over product name, category and description, best match first.
+     * @param q The search text.
+     * @param limit Maximum number of results (default 20, max 100).
+     * @return The ranked matches and the total number of matching products.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchProducts(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        return conditional(request, "search", () -> productSearchService.search(q, limit));
+    }
+
+    /**
+     * Handles GET requests to /api/products/facets.
+     * Filters by any combination of facets (values within one facet are OR-ed) and returns
+     * the matching products newest first together with per-value counts for every facet.
+     * @param category Categories to include; repeat the parameter to select several.
+     * @param zeroWaste Optional zero-waste filter.
+     * @param priceBand Price band labels such as "250-500" or "2500+".
+     * @param carbonBand Carbon band labels (kg CO2) such as "0-1" or "10+".
+     * @param after The nextAfter value of the previous page; omit for the first page.
+     * @param limit Page size (default 24, max 100).
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<?> filterProducts(
+            @RequestParam(required = false) Set<String> category,
+            @RequestParam(required = false) Boolean zeroWaste,
+            @RequestParam(required = false) Set<String> priceBand,
+            @RequestParam(required = false) Set<String> carbonBand,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        return conditional(request, "facets", () -> productFacetService.filter(category, zeroWaste, priceBand, carbonBand, after, limit));
+    }
+
+    /**
+     * Handles GET requests to /api/products/{id}.
+     * Returns a single active product with its detail-page data.
+     * @param id The ID of the product.
+     * @return The product, or 404 if it does not exist or is no longer listed.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getProduct(@PathVariable Long id) {
+        return productDetailService.getProduct(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Handles GET requests to /api/products/{id}/greener-alternatives.
+     * Returns products in the same category with a lower carbon footprint at a similar price, lowest emission first.
+     * @param id The product to find alternatives for.
+     * @param limit Maximum number of alternatives (default 5, max 50).
+     * @param priceTolerancePct Allowed price difference in percent of the product's price (default 25).
+     * @return The alternatives, or 404 if the product is not in the active catalog.
+     */
+    @GetMapping("/{id}/greener-alternatives")
+    public ResponseEntity<?> getGreenerAlternatives(
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer priceTolerancePct,
+            WebRequest request) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot != null && snapshot.get(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return conditional(request, "greener-alternatives/" + id,
+                () -> greenerAlternativesService.findAlternatives(id, limit, priceTolerancePct).orElse(List.of()));
+    }
+
+    /**
+     * Answers 304 when the client already holds the current catalog version; otherwise serves the
+     * serialized (and, if accepted, gzip-precompressed) body from the payload cache, building it on a miss.
+     * The tag is read before the body, so a body can only be newer than its tag, never older.
+     * Clients accepting gzip get their own tag, so a strong tag never stands for two different byte sequences.
+     */
+    private ResponseEntity<?> conditional(WebRequest request, String endpoint, Supplier<Object> body) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot == null) {
+            return ResponseEntity.ok(body.get());
+        }
+
+        boolean gzipAccepted = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = etag(catalogSnapshotService.etag(snapshot), gzipAccepted);
+        long lastModified = snapshot.getBuiltAt().toEpochMilli();
+        if (request.checkNotModified(etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .lastModified(lastModified)
+                    .cacheControl(CATALOG_CACHE_CONTROL)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        CatalogPayloadCache.Payload payload = catalogPayloadCache.get(snapshot.getVersion(), cacheKey(endpoint, request), body);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(CATALOG_CACHE_CONTROL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if (payload.gzip() != null && gzipAccepted) {
+            catalogPayloadCache.recordGzipSent(payload);
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.gzip());
+        }
+        return response.body(payload.json());
+    }
+
+    static String etag(String catalogTag, boolean gzip) {
+        return gzip ? catalogTag.substring(0, catalogTag.length() - 1) + "-gzip\"" : catalogTag;
+    }
+
+    // True when gzip (or any coding, via "*") is listed with a non-zero q-value, as in "gzip;q=0.8, br"
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        Double gzip = null;
+        Double any = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            double q = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.length() > 2 && param.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = q;
+            } else if (coding.equals("*")) {
+                any = q;
+            }
+        }
+        // An explicit gzip entry wins over the wildcard
+        Double q = gzip != null ? gzip : any;
+        return q != null && q > 0;
+    }
+
+    // Endpoint plus its parameters in a canonical order, so equivalent requests share a cache entry.
+    // The content coding is not part of it: one entry holds both variants.
+    static String cacheKey(String endpoint, WebRequest request) {
+        StringBuilder key = new StringBuilder(endpoint);
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) -> {
+            String[] sorted = values.clone();
+            Arrays.sort(sorted);
+            key.append('&').append(name).append('=').append(String.join(",", sorted));
+        });
+        return key.toString();
+    }
+}
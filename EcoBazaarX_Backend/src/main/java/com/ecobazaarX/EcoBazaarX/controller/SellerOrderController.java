@@ -1,12 +1,21 @@
 package com.ecobazaarX.EcoBazaarX.controller;
 
+import com.ecobazaarX.EcoBazaarX.dto.CursorPage;
+import com.ecobazaarX.EcoBazaarX.dto.sellerdto.BulkOrderStatusUpdateRequest;
 import com.ecobazaarX.EcoBazaarX.dto.sellerdto.OrderStatusUpdateRequest;
+import com.ecobazaarX.EcoBazaarX.dto.sellerdto.OrderStatusUpdateResultDTO;
 import com.ecobazaarX.EcoBazaarX.dto.sellerdto.SellerOrderDTO;
 import com.ecobazaarX.EcoBazaarX.service.OrderService;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -19,24 +28,74 @@ public class SellerOrderController {
     private OrderService orderService;
 
     @GetMapping
-    public ResponseEntity<List<SellerOrderDTO>> getAllOrders() {
-        List<SellerOrderDTO> orders = orderService.getAllOrdersForSeller();
+    public ResponseEntity<List<SellerOrderDTO>> getAllOrders(@AuthenticationPrincipal User seller) {
+        List<SellerOrderDTO> orders = orderService.getAllOrdersForSeller(seller.getUsername());
         return ResponseEntity.ok(orders);
     }
 
     @GetMapping("/history")
-    public ResponseEntity<List<SellerOrderDTO>> getOrderHistory() {
-        List<SellerOrderDTO> orderHistory = orderService.getOrderHistoryForSeller();
-        return ResponseEntity.ok(orderHistory);
+    public ResponseEntity<StreamingResponseBody> getOrderHistory(@AuthenticationPrincipal User seller) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(orderService.streamOrderHistoryForSeller(seller.getUsername()));
     }
 
+    // One page of the order history, newest first; pass the previous page's nextCursor to continue
+    @GetMapping("/history/page")
+    public ResponseEntity<CursorPage<SellerOrderDTO>> getOrderHistoryPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @AuthenticationPrincipal User seller
+    ) {
+        try {
+            return ResponseEntity.ok(orderService.getOrderHistoryPageForSeller(seller.getUsername(), cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Moves several orders to the same status, e.g. approving or shipping a day's orders at once.
+     * Answers 200 with one result per order (updated, or the reason it was not);
+     * 400 for an unknown status or too many orders.
+     */
+    @PatchMapping("/status")
+    public ResponseEntity<List<OrderStatusUpdateResultDTO>> updateOrderStatuses(
+            @RequestBody BulkOrderStatusUpdateRequest request,
+            @AuthenticationPrincipal User seller
+    ) {
+        if (request.getOrderIds() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(orderService.updateOrderStatuses(
+                    request.getOrderIds(), request.getNewStatus(), seller.getUsername()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Moves one of the seller's orders to a new status.
+     * Answers 404 for an order holding none of the seller's products, 400 for an unknown status
+     * and 409 for a transition the order's current status does not allow.
+     */
     @PatchMapping("/{orderId}/status")
     public ResponseEntity<SellerOrderDTO> updateOrderStatus(
             @PathVariable Long orderId,
-            @RequestBody OrderStatusUpdateRequest request
+            @RequestBody OrderStatusUpdateRequest request,
+            @AuthenticationPrincipal User seller
     ) {
-        SellerOrderDTO updatedOrder = orderService.updateOrderStatus(orderId, request.getNewStatus());
-        return ResponseEntity.ok(updatedOrder);
+        try {
+            SellerOrderDTO updatedOrder = orderService.updateOrderStatus(orderId, request.getNewStatus(), seller.getUsername());
+            return ResponseEntity.ok(updatedOrder);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 }
 
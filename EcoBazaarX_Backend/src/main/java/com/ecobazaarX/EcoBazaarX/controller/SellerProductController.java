@@ -1,5 +1,6 @@
 package com.ecobazaarX.EcoBazaarX.controller;
 
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductSummaryDTO;
 import com.ecobazaarX.EcoBazaarX.model.Product;
 import com.ecobazaarX.EcoBazaarX.service.SellerProductService;
 import org.springframework.http.ResponseEntity;
@@ -23,7 +24,7 @@ public class SellerProductController {
     }
 
     @GetMapping("/my-products")
-    public ResponseEntity<List<Product>> getMyProducts(@AuthenticationPrincipal User seller) {
+    public ResponseEntity<List<ProductSummaryDTO>> getMyProducts(@AuthenticationPrincipal User seller) {
         return ResponseEntity.ok(productService.getAllProductsBySellerEmail(seller.getUsername()));
     }
 
@@ -36,11 +37,10 @@ public class SellerProductController {
      * @return A list of top-selling products.
      */
     @GetMapping("/top-selling")
-    public ResponseEntity<List<Product>> getTopSellingProducts(
+    public ResponseEntity<List<ProductSummaryDTO>> getTopSellingProducts(
             @AuthenticationPrincipal User seller,
             @RequestParam(defaultValue = "5", required = false) int limit) {
-        // This will call a new method in your service layer to fetch the top products
-        List<Product> topProducts = productService.getTopSellingProducts(seller.getUsername(), limit);
+        List<ProductSummaryDTO> topProducts = productService.getTopSellingProducts(seller.getUsername(), limit);
         return ResponseEntity.ok(topProducts);
     }
 
@@ -50,6 +50,10 @@ public class SellerProductController {
             @RequestParam Double price,
             @RequestParam Integer stock,
             @RequestParam Double carbonEmission,
+            @RequestParam(required = false) Double weightGrams,
+            @RequestParam(required = false) String material,
+            @RequestParam(required = false) String packaging,
+            @RequestParam(required = false) String origin,
             @RequestParam String description,
             @RequestParam String category,
             @RequestParam MultipartFile image,
@@ -61,6 +65,10 @@ public class SellerProductController {
                 BigDecimal.valueOf(price),
                 stock,
                 carbonEmission,
+                weightGrams,
+                material,
+                packaging,
+                origin,
                 description,
                 category,
                 image,
@@ -77,6 +85,10 @@ public class SellerProductController {
             @RequestParam(required = false) Double price,
             @RequestParam(required = false) Integer stock,
             @RequestParam(required = false) Double carbonEmission,
+            @RequestParam(required = false) Double weightGrams,
+            @RequestParam(required = false) String material,
+            @RequestParam(required = false) String packaging,
+            @RequestParam(required = false) String origin,
             @RequestParam(required = false) String description,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) MultipartFile image,
@@ -85,7 +97,7 @@ public class SellerProductController {
     ) throws IOException {
         Product updated = productService.updateProduct(id, name,
                         price != null ? BigDecimal.valueOf(price) : null,
-                        stock, carbonEmission, description, category, image, seller.getUsername(), isZeroWasteProduct)
+                        stock, carbonEmission, weightGrams, material, packaging, origin, description, category, image, seller.getUsername(), isZeroWasteProduct)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
         return ResponseEntity.ok(updated);
     }
@@ -0,0 +1,15 @@
+package com.ecobazaarX.EcoBazaarX.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+// One page of a keyset-paginated listing; nextCursor is null on the last page
+@Data
+@Builder
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,27 @@
+package com.ecobazaarX.EcoBazaarX.dto.admindto;
+
+import com.ecobazaarX.EcoBazaarX.model.CarbonRecomputeJob;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarbonRecomputeJobDto {
+    private Long jobId;
+    private String factorType;
+    private String factorName;
+    private CarbonRecomputeJob.Status status;
+    private long processed; // products recalculated so far
+    private long updated;   // of which the stored value changed
+    private long failed;    // of which a factor was missing
+    private long lastProductId;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long rowsPerSecond;
+}
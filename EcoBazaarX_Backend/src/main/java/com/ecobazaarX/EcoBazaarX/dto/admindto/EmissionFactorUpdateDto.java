@@ -0,0 +1,8 @@
+package com.ecobazaarX.EcoBazaarX.dto.admindto;
+
+import lombok.Data;
+
+@Data
+public class EmissionFactorUpdateDto {
+    private Double value;
+}
@@ -0,0 +1,14 @@
+package com.ecobazaarX.EcoBazaarX.dto.admindto;
+
+import com.ecobazaarX.EcoBazaarX.model.EmissionFactor;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmissionFactorUpdateResultDto {
+    private EmissionFactor factor;
+    private Long recomputeJobId; // null when no stored footprint depends on the factor
+}
@@ -1,10 +1,14 @@
 package com.ecobazaarX.EcoBazaarX.dto.admindto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class ProductAdminViewDto {
     private Long id;
     private String name;
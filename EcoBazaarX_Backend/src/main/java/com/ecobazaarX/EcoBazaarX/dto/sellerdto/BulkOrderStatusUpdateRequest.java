@@ -0,0 +1,13 @@
+package com.ecobazaarX.EcoBazaarX.dto.sellerdto;
+
+import lombok.Data;
+
+import java.util.List;
+
+// Request body for moving several orders to the same status at once
+@Data
+public class BulkOrderStatusUpdateRequest {
+    private List<Long> orderIds;
+    // The new status, e.g., "APPROVED", "SHIPPED"
+    private String newStatus;
+}
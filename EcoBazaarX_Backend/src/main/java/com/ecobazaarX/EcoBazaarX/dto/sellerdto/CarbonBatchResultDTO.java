@@ -0,0 +1,17 @@
+package com.ecobazaarX.EcoBazaarX.dto.sellerdto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One line of a batch calculation response: the footprint of the item at that index, or why it has none
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CarbonBatchResultDTO {
+    private int index;
+    private Double carbonEmission;
+    private String error;
+}
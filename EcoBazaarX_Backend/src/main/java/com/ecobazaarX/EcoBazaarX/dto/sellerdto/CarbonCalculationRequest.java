@@ -9,5 +9,6 @@ public class CarbonCalculationRequest {
     private double weight; // in grams
     private String origin;
     private String packaging;
+    private String destination; // optional: region shipped to, adds the transport leg from origin
 }
 
@@ -0,0 +1,18 @@
+package com.ecobazaarX.EcoBazaarX.dto.sellerdto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome for one order of a bulk status update; 'order' is set when updated, 'error' when not
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusUpdateResultDTO {
+    private Long orderId;
+    private boolean updated;
+    private SellerOrderDTO order;
+    private String error;
+}
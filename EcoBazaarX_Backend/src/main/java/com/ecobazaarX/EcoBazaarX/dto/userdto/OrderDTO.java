@@ -1,8 +1,10 @@
 package com.ecobazaarX.EcoBazaarX.dto.userdto;
 
 import com.ecobazaarX.EcoBazaarX.model.Address;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -10,11 +12,14 @@ import java.util.List;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class OrderDTO {
     private Long orderId;
     private String buyerName; // ✅ ADD THIS FIELD
     private Address shippingAddress;
     private BigDecimal totalPrice;
+    private Double transportEmission;
     private String status;
     private LocalDateTime createdAt;
     private List<OrderItemDTO> orderItems;
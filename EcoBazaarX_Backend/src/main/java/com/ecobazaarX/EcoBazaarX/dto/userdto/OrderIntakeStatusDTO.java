@@ -0,0 +1,23 @@
+package com.ecobazaarX.EcoBazaarX.dto.userdto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// State of an order submitted through the asynchronous intake; 'order' is set once PLACED, 'error' once FAILED
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntakeStatusDTO {
+
+    public enum Status {
+        QUEUED, PLACED, FAILED
+    }
+
+    private String handle;
+    private Status status;
+    private OrderDTO order;
+    private String error;
+}
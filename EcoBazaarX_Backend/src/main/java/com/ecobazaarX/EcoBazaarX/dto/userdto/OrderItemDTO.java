@@ -1,12 +1,16 @@
 package com.ecobazaarX.EcoBazaarX.dto.userdto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class OrderItemDTO {
     private Long productId;
     private String productName;
@@ -0,0 +1,39 @@
+package com.ecobazaarX.EcoBazaarX.dto.userdto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Public product page: the listing fields (flattened into the same JSON shape) plus data only the detail view shows.
+@Value
+@AllArgsConstructor
+public class ProductDetailDTO {
+
+    @JsonUnwrapped
+    ProductSummaryDTO product;
+
+    long unitsSold;
+
+    // Flat form used by the "SELECT new ...ProductDetailDTO(...)" query
+    public ProductDetailDTO(Long productId, String name, String description, Integer stock, String category,
+                            String imagePath, Double carbonEmission, BigDecimal price, LocalDateTime createdAt,
+                            boolean isZeroWasteProduct, boolean active, Long sellerId, String sellerBusinessName,
+                            Long unitsSold) {
+        this(new ProductSummaryDTO(productId, name, description, stock, category, imagePath, carbonEmission, price,
+                createdAt, isZeroWasteProduct, active, sellerId, sellerBusinessName), unitsSold);
+    }
+
+    // Rough retained size in bytes, used to bound the detail cache by memory rather than entry count
+    public int estimatedSize() {
+        return 256 + 2 * (length(product.getName()) + length(product.getDescription()) + length(product.getCategory())
+                + length(product.getImagePath())
+                + (product.getSeller() != null ? length(product.getSeller().getBusinessName()) : 0));
+    }
+
+    private static int length(String s) {
+        return s == null ? 0 : s.length();
+    }
+}
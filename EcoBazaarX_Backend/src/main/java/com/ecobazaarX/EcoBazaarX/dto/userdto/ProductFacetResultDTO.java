@@ -0,0 +1,16 @@
+package com.ecobazaarX.EcoBazaarX.dto.userdto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class ProductFacetResultDTO {
+    private int total; // products matching every selected filter
+    private List<ProductSummaryDTO> items; // newest first
+    private Long nextAfter; // pass as 'after' to get the next page; null on the last page
+    private Map<String, Map<String, Integer>> facets; // facet -> value -> count under the other filters
+}
@@ -0,0 +1,14 @@
+package com.ecobazaarX.EcoBazaarX.dto.userdto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ProductSearchResultDTO {
+    private String query;
+    private int totalHits; // all matching products, not just the returned ones
+    private List<ProductSummaryDTO> items; // best match first
+}
@@ -0,0 +1,49 @@
+package com.ecobazaarX.EcoBazaarX.dto.userdto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import lombok.With;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Immutable, detached view of a product as shown in catalog listings.
+// Keeps the JSON shape of the Product entity that the storefront already consumes.
+// Built either from an entity (ProductMapper) or directly by a JPQL constructor expression (ProductRepository).
+@Value
+@Builder
+@AllArgsConstructor
+public class ProductSummaryDTO {
+    Long productId;
+    String name;
+    String description;
+    @With
+    Integer stock;
+    String category;
+    String imagePath;
+    Double carbonEmission;
+    BigDecimal price;
+    LocalDateTime createdAt;
+
+    @JsonProperty("isZeroWasteProduct")
+    boolean isZeroWasteProduct;
+
+    boolean active;
+    SellerSummary seller;
+
+    // Flat form used by "SELECT new ...ProductSummaryDTO(...)" queries
+    public ProductSummaryDTO(Long productId, String name, String description, Integer stock, String category,
+                             String imagePath, Double carbonEmission, BigDecimal price, LocalDateTime createdAt,
+                             boolean isZeroWasteProduct, boolean active, Long sellerId, String sellerBusinessName) {
+        this(productId, name, description, stock, category, imagePath, carbonEmission, price, createdAt,
+                isZeroWasteProduct, active, new SellerSummary(sellerId, sellerBusinessName));
+    }
+
+    @Value
+    public static class SellerSummary {
+        Long sellerId;
+        String businessName;
+    }
+}
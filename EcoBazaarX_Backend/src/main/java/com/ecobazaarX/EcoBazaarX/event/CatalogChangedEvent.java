@@ -0,0 +1,31 @@
+package com.ecobazaarX.EcoBazaarX.event;
+
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductSummaryDTO;
+import com.ecobazaarX.EcoBazaarX.service.CatalogSnapshot;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published by CatalogSnapshotService right after a new snapshot has been swapped in.
+ * Secondary in-memory indexes update themselves from it instead of going back to the database.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CatalogChangedEvent {
+
+    private final CatalogSnapshot snapshot;
+
+    // Null for a full reload; otherwise the single product that changed
+    private final Long productId;
+
+    // State before and after the change; either may be null (added, removed or not active)
+    private final ProductSummaryDTO previous;
+    private final ProductSummaryDTO current;
+
+    // Only stock levels moved, for any number of products; nothing that indexes are built from changed
+    private final boolean stockOnly;
+
+    public boolean isFullReload() {
+        return productId == null && !stockOnly;
+    }
+}
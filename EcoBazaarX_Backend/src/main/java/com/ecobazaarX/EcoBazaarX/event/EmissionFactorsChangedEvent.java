@@ -0,0 +1,20 @@
+package com.ecobazaarX.EcoBazaarX.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Published by AdminEmissionFactorService inside the transaction that corrects a factor.
+ * Once that transaction has committed, EmissionFactorService reloads its in-memory table, and only then
+ * CarbonRecomputeService resumes recalculating the stored product footprints.
+ * Factors edited directly in the database publish nothing; the periodic refresh picks them up.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class EmissionFactorsChangedEvent {
+
+    private final String factorType;
+    private final String name;
+}
@@ -0,0 +1,38 @@
+package com.ecobazaarX.EcoBazaarX.event;
+
+import com.ecobazaarX.EcoBazaarX.model.Order;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * An order was placed or changed status. Dispatched by OrderEventRelay from the order outbox, after the change
+ * has committed: in order for any one order, at least once, so listeners must tolerate seeing an event again
+ * (eventId identifies it).
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class OrderLifecycleEvent {
+
+    public record Line(Long productId, int quantity, BigDecimal price) {
+    }
+
+    private final long eventId;
+    private final Long orderId;
+    private final String buyerEmail;
+    // Null when the order was just placed
+    private final Order.OrderStatus previousStatus;
+    private final Order.OrderStatus status;
+    private final BigDecimal totalPrice;
+    private final List<Line> lines;
+    private final LocalDateTime occurredAt;
+
+    public boolean isPlacement() {
+        return previousStatus == null;
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecobazaarX.EcoBazaarX.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Published by the product write paths (seller and admin) inside their transaction,
+ * and with {@link ChangeType#STOCK} wherever stock moves (checkouts, cancellations, stock ledger flushes).
+ * Listeners that keep in-memory views of the catalog react to it after commit.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class ProductChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        // Only the stock changed
+        STOCK,
+        DELETED
+    }
+
+    private final Long productId;
+    private final ChangeType changeType;
+}
@@ -31,6 +31,7 @@ public class OrderMapper {
                 .buyerName(buyerName) // Populate the new buyerName field
                 .shippingAddress(order.getShippingAddress())
                 .totalPrice(order.getTotalPrice())
+                .transportEmission(order.getTransportEmission())
                 .status(order.getStatus().name())
                 .createdAt(order.getCreatedAt())
                 .orderItems(items)
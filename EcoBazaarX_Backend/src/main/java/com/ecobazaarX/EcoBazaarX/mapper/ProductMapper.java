@@ -0,0 +1,27 @@
+package com.ecobazaarX.EcoBazaarX.mapper;
+
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductSummaryDTO;
+import com.ecobazaarX.EcoBazaarX.model.Product;
+import com.ecobazaarX.EcoBazaarX.model.Seller;
+
+public class ProductMapper {
+
+    public static ProductSummaryDTO toSummary(Product product) {
+        Seller seller = product.getSeller();
+
+        return ProductSummaryDTO.builder()
+                .productId(product.getProductId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .stock(product.getStock())
+                .category(product.getCategory())
+                .imagePath(product.getImagePath())
+                .carbonEmission(product.getCarbonEmission())
+                .price(product.getPrice())
+                .createdAt(product.getCreatedAt())
+                .isZeroWasteProduct(product.isZeroWasteProduct())
+                .active(product.isActive())
+                .seller(seller != null ? new ProductSummaryDTO.SellerSummary(seller.getSellerId(), seller.getBusinessName()) : null)
+                .build();
+    }
+}
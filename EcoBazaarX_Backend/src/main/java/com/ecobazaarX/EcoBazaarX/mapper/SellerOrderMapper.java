@@ -7,6 +7,7 @@ import com.ecobazaarX.EcoBazaarX.model.OrderItem;
 import com.ecobazaarX.EcoBazaarX.model.Product;
 import com.ecobazaarX.EcoBazaarX.model.User;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -16,7 +17,25 @@ public class SellerOrderMapper {
         List<OrderItemDTO> items = order.getOrderItems().stream()
                 .map(SellerOrderMapper::toItemDTO)
                 .collect(Collectors.toList());
+        return builder(order, items).totalPrice(order.getTotalPrice()).build();
+    }
+
+    // The order as one of its sellers sees it: only that seller's items, and their total.
+    // An order can hold several sellers' products, and none of them should see the others' lines.
+    public static SellerOrderDTO toSellerDTO(Order order, String sellerEmail) {
+        List<OrderItem> own = order.getOrderItems().stream()
+                .filter(item -> sellerEmail.equals(item.getProduct().getSeller().getEmail()))
+                .toList();
+        BigDecimal total = own.stream()
+                .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        List<OrderItemDTO> items = own.stream()
+                .map(SellerOrderMapper::toItemDTO)
+                .collect(Collectors.toList());
+        return builder(order, items).totalPrice(total).build();
+    }
 
+    private static SellerOrderDTO.SellerOrderDTOBuilder builder(Order order, List<OrderItemDTO> items) {
         User buyer = order.getUser();
 
         return SellerOrderDTO.builder()
@@ -24,11 +43,9 @@ public class SellerOrderMapper {
                 .buyerName(buyer != null ? buyer.getUsername() : "N/A") // Assuming User has getFullName()
                 .buyerEmail(buyer != null ? buyer.getEmail() : "N/A")
                 .shippingAddress(order.getShippingAddress())
-                .totalPrice(order.getTotalPrice())
                 .status(order.getStatus().name())
                 .createdAt(order.getCreatedAt())
-                .orderItems(items)
-                .build();
+                .orderItems(items);
     }
 
     private static OrderItemDTO toItemDTO(OrderItem item) {
@@ -0,0 +1,57 @@
+package com.ecobazaarX.EcoBazaarX.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Recalculation of Product.carbonEmission for the products using one emission factor.
+// Doubles as the job's checkpoint: progress is written in the same transaction as each chunk of products,
+// so a job resumed after a restart continues after lastProductId without redoing or skipping any.
+@Data
+@Entity
+@Table(name = "carbon_recompute_jobs", indexes = {
+        @Index(name = "idx_carbon_recompute_jobs_status", columnList = "status, id")
+})
+public class CarbonRecomputeJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String factorType; // MATERIAL or PACKAGING
+
+    @Column(nullable = false)
+    private String factorName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.RUNNING;
+
+    @Column(nullable = false)
+    private long lastProductId;
+
+    @Column(nullable = false)
+    private long processed;
+
+    @Column(nullable = false)
+    private long updated;
+
+    @Column(nullable = false)
+    private long failed;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        SUPERSEDED // a later change to the same factor started a fresh job
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
@@ -13,11 +14,19 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_status_created", columnList = "status, created_at"),
+        @Index(name = "idx_orders_created", columnList = "created_at, order_id"),
+        @Index(name = "idx_orders_user_created", columnList = "user_id, created_at, order_id")
+})
 public class Order {
 
+    // Ids come from the id_generator table in blocks of 50, so the order and its items are inserted in JDBC batches
+    // (IDENTITY would need one round trip per row to learn each id); see IdGeneratorSeeder
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_id_generator")
+    @TableGenerator(name = "order_id_generator", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "orders", allocationSize = 50)
     @Column(name = "order_id")
     private Long orderId;
 
@@ -36,10 +45,22 @@ public class Order {
     @Column(name = "total_amount", nullable = false)
     private BigDecimal totalPrice;
 
+    // kg CO2e for shipping the items from their sellers' regions; null when it could not be estimated
+    @Column(name = "transport_emission")
+    private Double transportEmission;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     private OrderStatus status;
 
+    // Bumped on every update, so a bulk status change that read an order before someone else changed it
+    // fails at commit instead of acting on the stale status; see OrderService#updateOrderStatuses.
+    // The default covers rows that existed before the column did, or are inserted outside the application
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
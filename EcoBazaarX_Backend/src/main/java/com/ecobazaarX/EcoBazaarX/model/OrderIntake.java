@@ -0,0 +1,46 @@
+package com.ecobazaarX.EcoBazaarX.model;
+
+import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderIntakeStatusDTO;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// An order submitted through the asynchronous intake. Written before the submission is acknowledged, so an
+// accepted order survives a restart, and its outcome is recorded in the transaction that places it.
+@Data
+@Entity
+@Table(name = "order_intakes", indexes = @Index(name = "idx_order_intakes_status", columnList = "status, created_at"))
+public class OrderIntake {
+
+    @Id
+    @Column(length = 36)
+    private String handle;
+
+    @Column(name = "user_email", nullable = false)
+    private String userEmail;
+
+    // The submitted OrderRequest as JSON
+    @Lob
+    @Column(name = "request_json", nullable = false)
+    private String requestJson;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OrderIntakeStatusDTO.Status status;
+
+    // Set once PLACED
+    @Column(name = "order_id")
+    private Long orderId;
+
+    // Set once FAILED
+    @Column(length = 500)
+    private String error;
+
+    // The instance working on a QUEUED intake holds it until then; afterwards any instance may take it over
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
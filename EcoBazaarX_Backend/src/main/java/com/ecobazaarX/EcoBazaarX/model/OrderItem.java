@@ -7,11 +7,14 @@ import java.math.BigDecimal;
 
 @Data
 @Entity
-@Table(name = "order_items")
+// (product_id, order_id) answers "which orders hold this seller's products" from the index alone
+@Table(name = "order_items", indexes = @Index(name = "idx_order_items_product_order", columnList = "product_id, order_id"))
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_item_id_generator")
+    @TableGenerator(name = "order_item_id_generator", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "order_items", allocationSize = 50)
     @Column(name = "order_item_id")
     private Long orderItemId;
 
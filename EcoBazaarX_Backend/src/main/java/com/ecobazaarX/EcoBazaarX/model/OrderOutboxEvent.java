@@ -0,0 +1,49 @@
+package com.ecobazaarX.EcoBazaarX.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// An order lifecycle change waiting to be dispatched to in-process subscribers (see OrderEventRelay).
+// Written in the same transaction as the change itself, so an event exists exactly when its change committed.
+@Data
+@Entity
+@Table(name = "order_outbox", indexes = @Index(name = "idx_order_outbox_order", columnList = "order_id, id"))
+public class OrderOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "buyer_email", nullable = false)
+    private String buyerEmail;
+
+    // Null when the order was just placed
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status")
+    private Order.OrderStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Order.OrderStatus status;
+
+    @Column(name = "total_amount", nullable = false)
+    private BigDecimal totalPrice;
+
+    // The order's lines as JSON
+    @Lob
+    @Column(name = "lines_json", nullable = false)
+    private String linesJson;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    // Set while a relay is dispatching the event; once it passes, the event is up for grabs again
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+}
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,7 +13,14 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "products")
+// Write only changed columns, so editing a product never writes back a stock value read before a concurrent checkout
+@DynamicUpdate
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_active_created", columnList = "is_active, created_at, product_id"),
+        @Index(name = "idx_products_active_category", columnList = "is_active, category, created_at, product_id"),
+        @Index(name = "idx_products_material", columnList = "material, product_id"),
+        @Index(name = "idx_products_packaging", columnList = "packaging, product_id")
+})
 public class Product {
 
     @Id
@@ -25,6 +33,12 @@ public class Product {
     private String category;
     private String imagePath;
     private Double carbonEmission;
+    private Double weightGrams; // shipping weight of one unit, for the transport part of an order's footprint
+
+    // Inputs carbonEmission was calculated from, named as in emission factors; kept so it can be recalculated
+    private String material;
+    private String packaging;
+    private String origin;
 
     @Column(precision = 10, scale = 2)
     private BigDecimal price;
@@ -30,6 +30,7 @@ public class Seller {
 
     private String businessName;
     private String gstNumber;
+    private String region; // e.g., "India"; where products ship from, named as in emission factors
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
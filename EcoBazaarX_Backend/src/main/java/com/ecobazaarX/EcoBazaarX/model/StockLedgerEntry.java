@@ -0,0 +1,30 @@
+package com.ecobazaarX.EcoBazaarX.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A stock change taken by the in-memory StockLedger that has not reached the products table yet.
+// Written in the transaction of the order that caused it, so an entry exists exactly when that order's change committed.
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "stock_ledger_entries", indexes = @Index(name = "idx_stock_ledger_product", columnList = "product_id"))
+public class StockLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // Negative for a reservation, positive for stock handed back
+    @Column(nullable = false)
+    private int delta;
+
+    public StockLedgerEntry(Long productId, int delta) {
+        this.productId = productId;
+        this.delta = delta;
+    }
+}
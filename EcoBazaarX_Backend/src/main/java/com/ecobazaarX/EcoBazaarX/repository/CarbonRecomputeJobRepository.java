@@ -0,0 +1,22 @@
+package com.ecobazaarX.EcoBazaarX.repository;
+
+import com.ecobazaarX.EcoBazaarX.model.CarbonRecomputeJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface CarbonRecomputeJobRepository extends JpaRepository<CarbonRecomputeJob, Long> {
+
+    List<CarbonRecomputeJob> findByStatusOrderByIdAsc(CarbonRecomputeJob.Status status);
+
+    List<CarbonRecomputeJob> findTop20ByOrderByIdDesc();
+
+    @Modifying
+    @Query("UPDATE CarbonRecomputeJob j SET j.status = com.ecobazaarX.EcoBazaarX.model.CarbonRecomputeJob.Status.SUPERSEDED " +
+            "WHERE j.status = com.ecobazaarX.EcoBazaarX.model.CarbonRecomputeJob.Status.RUNNING " +
+            "AND j.factorType = :factorType AND j.factorName = :factorName")
+    int supersedeRunning(@Param("factorType") String factorType, @Param("factorName") String factorName);
+}
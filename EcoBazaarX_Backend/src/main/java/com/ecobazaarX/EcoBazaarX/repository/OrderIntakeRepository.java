@@ -0,0 +1,41 @@
+package com.ecobazaarX.EcoBazaarX.repository;
+
+import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderIntakeStatusDTO;
+import com.ecobazaarX.EcoBazaarX.model.OrderIntake;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderIntakeRepository extends JpaRepository<OrderIntake, String> {
+
+    // Locks the intakes about to be placed; one that is no longer QUEUED was placed elsewhere and is skipped
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM OrderIntake i WHERE i.handle IN :handles AND i.status = :status")
+    List<OrderIntake> findByHandleInAndStatusForUpdate(@Param("handles") Collection<String> handles,
+                                                       @Param("status") OrderIntakeStatusDTO.Status status);
+
+    // Queued intakes nobody holds any more, e.g. because the instance that accepted them went down
+    @Query("SELECT i FROM OrderIntake i WHERE i.status = :status AND i.claimedUntil < :now ORDER BY i.createdAt ASC")
+    List<OrderIntake> findAbandoned(@Param("status") OrderIntakeStatusDTO.Status status,
+                                    @Param("now") LocalDateTime now, Pageable pageable);
+
+    // Returns 1 if the caller now holds the intake, 0 if someone else took it first
+    @Modifying
+    @Query("UPDATE OrderIntake i SET i.claimedUntil = :until " +
+            "WHERE i.handle = :handle AND i.status = :status AND i.claimedUntil < :now")
+    int claim(@Param("handle") String handle, @Param("status") OrderIntakeStatusDTO.Status status,
+              @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    // Placed and failed intakes whose status nobody is expected to poll any more
+    @Modifying
+    @Query("DELETE FROM OrderIntake i WHERE i.status <> :queued AND i.createdAt < :before")
+    int deleteFinishedBefore(@Param("queued") OrderIntakeStatusDTO.Status queued, @Param("before") LocalDateTime before);
+}
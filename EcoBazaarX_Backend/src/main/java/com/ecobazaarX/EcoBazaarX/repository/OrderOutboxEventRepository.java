@@ -0,0 +1,36 @@
+package com.ecobazaarX.EcoBazaarX.repository;
+
+import com.ecobazaarX.EcoBazaarX.model.OrderOutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface OrderOutboxEventRepository extends JpaRepository<OrderOutboxEvent, Long> {
+
+    // Unclaimed events, oldest first, and only the oldest one still waiting per order, so one order's events never
+    // overtake each other even across instances. SKIP LOCKED (lock timeout -2): relays take disjoint rows without
+    // waiting on each other, and without range locks that would hold up checkouts inserting new events.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OrderOutboxEvent e WHERE (e.claimedUntil IS NULL OR e.claimedUntil < :now) " +
+            "AND NOT EXISTS (SELECT o.id FROM OrderOutboxEvent o WHERE o.orderId = e.orderId AND o.id < e.id) " +
+            "ORDER BY e.id ASC")
+    List<OrderOutboxEvent> findClaimable(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OrderOutboxEvent e SET e.claimedUntil = NULL WHERE e.id IN :ids")
+    int releaseClaims(@Param("ids") Collection<Long> ids);
+
+    Optional<OrderOutboxEvent> findFirstByOrderByIdAsc();
+}
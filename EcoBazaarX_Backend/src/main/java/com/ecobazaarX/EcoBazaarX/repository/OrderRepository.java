@@ -1,15 +1,22 @@
 package com.ecobazaarX.EcoBazaarX.repository;
 
 import com.ecobazaarX.EcoBazaarX.model.Order;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+    String SOLD_BY_SELLER = "EXISTS (SELECT 1 FROM OrderItem si " +
+            "WHERE si.order = o AND si.product.seller.email = :sellerEmail) ";
+
     // --- For Buyers ---
     @Query("SELECT o FROM Order o " +
             "JOIN FETCH o.user " +
@@ -18,22 +25,64 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
             "WHERE o.user.email = :email ORDER BY o.createdAt DESC")
     List<Order> findDetailedOrdersByUserEmail(@Param("email") String email);
 
-    // --- For Sellers (Incoming Orders) ---
-    @Query("SELECT o FROM Order o " +
+    // Paged history: ids by keyset on (createdAt, orderId), newest first; details via findDetailedOrdersByIdIn
+    @Query("SELECT o.orderId FROM Order o WHERE o.user.email = :email " +
+            "ORDER BY o.createdAt DESC, o.orderId DESC")
+    List<Long> findOrderIdsByUserEmail(@Param("email") String email, Pageable pageable);
+
+    @Query("SELECT o.orderId FROM Order o WHERE o.user.email = :email " +
+            "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.orderId < :orderId)) " +
+            "ORDER BY o.createdAt DESC, o.orderId DESC")
+    List<Long> findOrderIdsByUserEmailAfter(@Param("email") String email,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("orderId") Long orderId,
+                                            Pageable pageable);
+
+    // --- For Sellers ---
+    // Only orders holding at least one of the seller's products; the EXISTS is answered from
+    // sellers(email) -> products(seller_id) -> order_items(product_id, order_id), so the work follows the
+    // seller's own volume instead of the platform's
+
+    // Incoming (not yet delivered or cancelled) orders. Orders come back whole, with every seller's items;
+    // SellerOrderMapper.toSellerDTO(order, sellerEmail) narrows them to the seller's own
+    @Query("SELECT DISTINCT o FROM Order o " +
             "JOIN FETCH o.user " +
             "JOIN FETCH o.orderItems oi " +
-            "JOIN FETCH oi.product " +
+            "JOIN FETCH oi.product p " +
+            "JOIN FETCH p.seller " +
             "WHERE o.status NOT IN ('DELIVERED', 'CANCELLED') " +
+            "AND " + SOLD_BY_SELLER +
             "ORDER BY o.createdAt ASC")
-    List<Order> findAllActiveDetailedOrders();
+    List<Order> findActiveDetailedOrdersForSeller(@Param("sellerEmail") String sellerEmail);
 
-    // --- For Sellers (Order History) ---
-    @Query("SELECT o FROM Order o " +
+    // Order history, chunked: page ids by keyset on (createdAt, orderId), then fetch just that chunk with its items
+    @Query("SELECT o.orderId FROM Order o " +
+            "WHERE " + SOLD_BY_SELLER +
+            "ORDER BY o.createdAt DESC, o.orderId DESC")
+    List<Long> findHistoryOrderIdsForSeller(@Param("sellerEmail") String sellerEmail, Pageable pageable);
+
+    @Query("SELECT o.orderId FROM Order o " +
+            "WHERE (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.orderId < :orderId)) " +
+            "AND " + SOLD_BY_SELLER +
+            "ORDER BY o.createdAt DESC, o.orderId DESC")
+    List<Long> findHistoryOrderIdsForSellerAfter(@Param("sellerEmail") String sellerEmail,
+                                                 @Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("orderId") Long orderId,
+                                                 Pageable pageable);
+
+    @Query("SELECT DISTINCT o FROM Order o " +
             "JOIN FETCH o.user " +
-            "JOIN FETCH o.orderItems oi " +
-            "JOIN FETCH oi.product " +
-            "ORDER BY o.createdAt DESC")
-    List<Order> findAllOrdersForHistory();
+            "LEFT JOIN FETCH o.orderItems oi " +
+            "LEFT JOIN FETCH oi.product p " +
+            // Product.seller is eager; fetched here so it does not cost a follow-up select
+            "LEFT JOIN FETCH p.seller " +
+            "WHERE o.orderId IN :orderIds")
+    List<Order> findDetailedOrdersByIdIn(@Param("orderIds") List<Long> orderIds);
+
+    // Status changes of a single order lock it first, so a concurrent change waits and then sees the new status
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.orderId = :orderId")
+    Optional<Order> findByIdForUpdate(@Param("orderId") Long orderId);
 
     long countByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
 }
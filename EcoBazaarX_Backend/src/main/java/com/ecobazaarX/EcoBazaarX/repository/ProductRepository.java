@@ -1,17 +1,75 @@
 package com.ecobazaarX.EcoBazaarX.repository;
 
+import com.ecobazaarX.EcoBazaarX.dto.admindto.ProductAdminViewDto;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductDetailDTO;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductSummaryDTO;
 import com.ecobazaarX.EcoBazaarX.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    String SUMMARY_COLUMNS = "p.productId, p.name, p.description, p.stock, p.category, p.imagePath, " +
+            "p.carbonEmission, p.price, p.createdAt, p.isZeroWasteProduct, p.isActive, s.sellerId, s.businessName";
+
+    // --- Listing projections: one SELECT with the seller joined, no entity or orderItems loading ---
+    @Query("SELECT new com.ecobazaarX.EcoBazaarX.dto.userdto.ProductSummaryDTO(" + SUMMARY_COLUMNS + ") " +
+            "FROM Product p JOIN p.seller s WHERE p.isActive = true")
+    List<ProductSummaryDTO> findActiveSummaries();
+
+    @Query("SELECT new com.ecobazaarX.EcoBazaarX.dto.userdto.ProductSummaryDTO(" + SUMMARY_COLUMNS + ") " +
+            "FROM Product p JOIN p.seller s WHERE s.email = :sellerEmail")
+    List<ProductSummaryDTO> findSummariesBySellerEmail(@Param("sellerEmail") String sellerEmail);
+
+    // Top-selling products for a seller, ranked by units sold; 'pageable' limits the result size
+    @Query("SELECT new com.ecobazaarX.EcoBazaarX.dto.userdto.ProductSummaryDTO(" + SUMMARY_COLUMNS + ") " +
+            "FROM Product p JOIN p.seller s JOIN p.orderItems oi WHERE s.email = :sellerEmail " +
+            "GROUP BY " + SUMMARY_COLUMNS + " ORDER BY SUM(oi.quantity) DESC")
+    List<ProductSummaryDTO> findTopSellingSummariesBySellerEmail(@Param("sellerEmail") String sellerEmail, Pageable pageable);
+
+    // Public product page: one active product with its units sold, in a single SELECT
+    @Query("SELECT new com.ecobazaarX.EcoBazaarX.dto.userdto.ProductDetailDTO(" + SUMMARY_COLUMNS + ", " +
+            "COALESCE(SUM(oi.quantity), 0L)) " +
+            "FROM Product p JOIN p.seller s LEFT JOIN p.orderItems oi WHERE p.productId = :productId AND p.isActive = true " +
+            "GROUP BY " + SUMMARY_COLUMNS)
+    Optional<ProductDetailDTO> findActiveDetail(@Param("productId") Long productId);
+
+    // Stock changes are single conditional statements, so concurrent checkouts and cancellations can neither
+    // oversell nor overwrite each other. Returns the number of rows changed: 0 means not enough stock (or no such product).
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity WHERE p.productId = :productId AND p.stock >= :quantity")
+    int decrementStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + :quantity WHERE p.productId = :productId")
+    int incrementStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Query("SELECT p.stock FROM Product p WHERE p.productId = :productId")
+    Optional<Integer> findStockById(@Param("productId") Long productId);
+
+    // Stock of a product without loading the entity
+    interface StockLevel {
+        Long getProductId();
+
+        Integer getStock();
+    }
+
+    @Query("SELECT p.productId AS productId, p.stock AS stock FROM Product p WHERE p.productId IN :productIds")
+    List<StockLevel> findStockByIdIn(@Param("productIds") Collection<Long> productIds);
+
     List<Product> findBySeller_Email(String sellerEmail);
 
     List<Product> findBySellerEmailAndCreatedAtBetween(String sellerEmail, LocalDateTime start, LocalDateTime end);
@@ -21,17 +79,32 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     List<Product> findByIsActiveTrue();
 
-    /**
-     * Finds the top-selling products for a specific seller.
-     * This query now correctly assumes you will add an 'orderItems' field
-     * to your Product entity.
-     *
-     * @param sellerEmail The email of the seller.
-     * @param pageable    A Pageable object to limit the number of results.
-     * @return A list of the top-selling products.
-     */
-    @Query("SELECT p FROM Product p JOIN p.orderItems oi WHERE p.seller.email = :sellerEmail GROUP BY p.id ORDER BY SUM(oi.quantity) DESC")
-    List<Product> findTopSellingProductsBySellerEmail(@Param("sellerEmail") String sellerEmail, Pageable pageable);
+    // Admin listing, streamed row by row (fetch size MIN_VALUE makes MySQL stream instead of buffering the result)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new com.ecobazaarX.EcoBazaarX.dto.admindto.ProductAdminViewDto(" +
+            "p.productId, p.name, p.category, p.price, p.stock, p.carbonEmission, s.businessName) " +
+            "FROM Product p LEFT JOIN p.seller s ORDER BY p.productId")
+    Stream<ProductAdminViewDto> streamAdminView();
+
+    // Keyset pages over the public catalog, newest first. Backed by idx_products_active_created / idx_products_active_category.
+    @Query("SELECT p FROM Product p WHERE p.isActive = true " +
+            "AND (:category IS NULL OR p.category = :category) " +
+            "AND (:zeroWaste IS NULL OR p.isZeroWasteProduct = :zeroWaste) " +
+            "ORDER BY p.createdAt DESC, p.productId DESC")
+    List<Product> findActivePage(@Param("category") String category,
+                                 @Param("zeroWaste") Boolean zeroWaste,
+                                 Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE p.isActive = true " +
+            "AND (:category IS NULL OR p.category = :category) " +
+            "AND (:zeroWaste IS NULL OR p.isZeroWasteProduct = :zeroWaste) " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.productId < :productId)) " +
+            "ORDER BY p.createdAt DESC, p.productId DESC")
+    List<Product> findActivePageAfter(@Param("category") String category,
+                                      @Param("zeroWaste") Boolean zeroWaste,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("productId") Long productId,
+                                      Pageable pageable);
 
     // Methods for AdminOverviewService and SellerStatsService
     long countByIsZeroWasteProductIsTrue();
@@ -2,16 +2,25 @@ package com.ecobazaarX.EcoBazaarX.repository;
 
 import com.ecobazaarX.EcoBazaarX.dto.admindto.SellerLeaderboardDTO;
 import com.ecobazaarX.EcoBazaarX.model.Seller;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface SellerRepository extends JpaRepository<Seller, Long> {
     Optional<Seller> findByEmail(String email);
     boolean existsByEmail(String email);
 
+    // Fetch size MIN_VALUE makes MySQL stream the rows instead of buffering the whole result
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT s FROM Seller s ORDER BY s.sellerId")
+    Stream<Seller> streamAll();
+
     // ✅ NEW: Query to generate the eco-seller leaderboard
     @Query("SELECT new com.ecobazaarX.EcoBazaarX.dto.admindto.SellerLeaderboardDTO(" +
             "s.businessName, " +
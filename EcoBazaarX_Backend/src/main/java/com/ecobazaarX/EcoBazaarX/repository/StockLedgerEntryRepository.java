@@ -0,0 +1,21 @@
+package com.ecobazaarX.EcoBazaarX.repository;
+
+import com.ecobazaarX.EcoBazaarX.model.StockLedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface StockLedgerEntryRepository extends JpaRepository<StockLedgerEntry, Long> {
+
+    List<StockLedgerEntry> findByOrderByIdAsc(Pageable pageable);
+
+    // The table's stock plus every committed entry not yet applied to it, read in one statement
+    // so a flush moving entries into the table can never be seen half done
+    @Query("SELECT p.stock + COALESCE((SELECT SUM(e.delta) FROM StockLedgerEntry e WHERE e.productId = p.productId), 0) " +
+           "FROM Product p WHERE p.productId = :productId")
+    Optional<Long> findLedgerStockById(@Param("productId") Long productId);
+}
@@ -1,14 +1,24 @@
 package com.ecobazaarX.EcoBazaarX.repository;
 
 import com.ecobazaarX.EcoBazaarX.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User,Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
 
     long countByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+
+    // Fetch size MIN_VALUE makes MySQL stream the rows instead of buffering the whole result
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT u FROM User u ORDER BY u.userId")
+    Stream<User> streamAll();
 }
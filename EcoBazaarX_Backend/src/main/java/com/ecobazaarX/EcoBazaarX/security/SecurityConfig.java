@@ -45,10 +45,11 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // Public endpoints
                         .requestMatchers("/auth/**").permitAll()
-                        .requestMatchers(HttpMethod.GET, "/api/products").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/products", "/api/products/**").permitAll()
                         .requestMatchers("/uploads/**").permitAll()
 
-                        // ✅ Allow public access to carbon calculator
+                        // ✅ Allow public access to carbon calculator; batches are costly, so only for signed-in users
+                        .requestMatchers("/api/carbon/calculate/batch").authenticated()
                         .requestMatchers("/api/carbon/**").permitAll()
 
                         // Role-based endpoints
@@ -84,7 +85,9 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000", "http://localhost:5173"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Accept"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Accept",
+                "If-None-Match", "If-Modified-Since", "Idempotency-Key"));
+        configuration.setExposedHeaders(Arrays.asList("ETag", "Last-Modified", "Idempotent-Replayed"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,49 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.admindto.EmissionFactorUpdateResultDto;
+import com.ecobazaarX.EcoBazaarX.event.EmissionFactorsChangedEvent;
+import com.ecobazaarX.EcoBazaarX.model.CarbonRecomputeJob;
+import com.ecobazaarX.EcoBazaarX.model.EmissionFactor;
+import com.ecobazaarX.EcoBazaarX.repository.EmissionFactorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class AdminEmissionFactorService {
+
+    @Autowired
+    private EmissionFactorRepository emissionFactorRepository;
+
+    @Autowired
+    private CarbonRecomputeService carbonRecomputeService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public List<EmissionFactor> getAllFactors() {
+        return emissionFactorRepository.findAll();
+    }
+
+    /**
+     * Corrects a factor's value. The products whose stored footprint used it are recalculated in the background,
+     * by a job recorded in the same transaction.
+     */
+    @Transactional
+    public EmissionFactorUpdateResultDto updateFactor(Long factorId, Double value) {
+        if (value == null || value < 0) {
+            throw new IllegalArgumentException("Emission factor value must be zero or more");
+        }
+        EmissionFactor factor = emissionFactorRepository.findById(factorId)
+                .orElseThrow(() -> new RuntimeException("Emission factor not found with id: " + factorId));
+
+        factor.setValue(value);
+        emissionFactorRepository.save(factor);
+        CarbonRecomputeJob job = carbonRecomputeService.schedule(factor.getFactorType(), factor.getName());
+        eventPublisher.publishEvent(new EmissionFactorsChangedEvent(factor.getFactorType(), factor.getName()));
+        return new EmissionFactorUpdateResultDto(factor, job != null ? job.getId() : null);
+    }
+}
@@ -1,14 +1,14 @@
 package com.ecobazaarX.EcoBazaarX.service;
 
-import com.ecobazaarX.EcoBazaarX.dto.admindto.ProductAdminViewDto;
-import com.ecobazaarX.EcoBazaarX.model.Product;
+import com.ecobazaarX.EcoBazaarX.event.ProductChangedEvent;
 import com.ecobazaarX.EcoBazaarX.repository.ProductRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 public class AdminProductService {
@@ -16,10 +16,17 @@ public class AdminProductService {
     @Autowired
     private ProductRepository productRepository;
 
-    public List<ProductAdminViewDto> getAllProducts() {
-        return productRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JsonArrayStreamer jsonArrayStreamer;
+
+    /**
+     * Streams every product as a JSON array of ProductAdminViewDto, projected straight from the query.
+     */
+    public StreamingResponseBody streamAllProducts() {
+        return jsonArrayStreamer.stream(productRepository::streamAdminView, Function.identity());
     }
 
     @Transactional
@@ -28,19 +35,6 @@ public class AdminProductService {
             throw new RuntimeException("Product not found with id: " + productId);
         }
         productRepository.deleteById(productId);
-    }
-
-    private ProductAdminViewDto convertToDto(Product product) {
-        ProductAdminViewDto dto = new ProductAdminViewDto();
-        dto.setId(product.getProductId());
-        dto.setName(product.getName());
-        dto.setCategory(product.getCategory());
-        dto.setPrice(product.getPrice());
-        dto.setStock(product.getStock());
-        dto.setCarbonEmission(product.getCarbonEmission());
-        if (product.getSeller() != null) {
-            dto.setSellerBusinessName(product.getSeller().getBusinessName());
-        }
-        return dto;
+        eventPublisher.publishEvent(new ProductChangedEvent(productId, ProductChangedEvent.ChangeType.DELETED));
     }
 }
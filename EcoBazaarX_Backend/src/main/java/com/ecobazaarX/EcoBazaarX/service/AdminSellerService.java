@@ -7,9 +7,7 @@ import com.ecobazaarX.EcoBazaarX.repository.SellerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
-import java.util.List;
-import java.util.stream.Collectors;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Service
 public class AdminSellerService {
@@ -17,11 +15,12 @@ public class AdminSellerService {
     @Autowired
     private SellerRepository sellerRepository;
 
-    public List<SellerAdminViewDto> getAllSellers() {
-        return sellerRepository.findAll()
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Autowired
+    private JsonArrayStreamer jsonArrayStreamer;
+
+    // Streams all sellers as a JSON array of SellerAdminViewDto, converting each row as it is read
+    public StreamingResponseBody streamAllSellers() {
+        return jsonArrayStreamer.stream(sellerRepository::streamAll, this::convertToDto);
     }
 
     @Transactional
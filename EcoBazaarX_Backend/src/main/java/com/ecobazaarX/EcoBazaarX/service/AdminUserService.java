@@ -1,24 +1,25 @@
 package com.ecobazaarX.EcoBazaarX.service;
 
-import com.ecobazaarX.EcoBazaarX.model.User;
 import com.ecobazaarX.EcoBazaarX.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 public class AdminUserService {
 
     private final UserRepository userRepository;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     /**
-     * Retrieves a list of all registered users.
-     * @return A list of User entities.
+     * Streams all registered users as a JSON array, writing each row as it is read.
+     * @return The response body that writes the User entities.
      */
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public StreamingResponseBody streamAllUsers() {
+        return jsonArrayStreamer.stream(userRepository::streamAll, Function.identity());
     }
 
     /**
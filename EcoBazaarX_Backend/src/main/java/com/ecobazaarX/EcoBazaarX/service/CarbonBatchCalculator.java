@@ -0,0 +1,274 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.sellerdto.CarbonBatchResultDTO;
+import com.ecobazaarX.EcoBazaarX.dto.sellerdto.CarbonCalculationRequest;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Calculates footprints for newline-delimited JSON requests, one {@link CarbonCalculationRequest} per line.
+ * Lines are read in chunks; each chunk is parsed and calculated in slices on a small dedicated pool,
+ * then written back in input order as one {@link CarbonBatchResultDTO} per line. Every line of a batch is
+ * calculated against the same emission factor table, and a bad line only fails its own result.
+ * A batch is limited to max-items lines of at most max-line-length characters each.
+ */
+@Service
+public class CarbonBatchCalculator {
+
+    static final int CHUNK_SIZE = 4096;
+
+    // Thrown when a batch has too many lines or an over-long line
+    public static class BatchTooLargeException extends RuntimeException {
+        public BatchTooLargeException(String message) {
+            super(message);
+        }
+    }
+
+    // Thrown when a batch holds no requests at all
+    public static class EmptyBatchException extends RuntimeException {
+        public EmptyBatchException() {
+            super("Batch holds no requests.");
+        }
+    }
+
+    private final CarbonCalculatorService carbonCalculatorService;
+    private final EmissionFactorService emissionFactorService;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader requestReader;
+    private final int maxItems;
+    private final int maxLineLength;
+    private final int threads;
+    // Shared by all batches, so concurrent batches cannot take more than these threads between them;
+    // once its queue is full, a batch calculates its slices on its own request thread
+    private final ThreadPoolExecutor pool;
+
+    public CarbonBatchCalculator(CarbonCalculatorService carbonCalculatorService,
+                                 EmissionFactorService emissionFactorService,
+                                 ObjectMapper objectMapper,
+                                 @Value("${ecobazaarx.carbon-batch.max-items:100000}") int maxItems,
+                                 @Value("${ecobazaarx.carbon-batch.max-line-length:4096}") int maxLineLength,
+                                 @Value("${ecobazaarx.carbon-batch.threads:4}") int threads) {
+        this.carbonCalculatorService = carbonCalculatorService;
+        this.emissionFactorService = emissionFactorService;
+        this.objectMapper = objectMapper;
+        this.requestReader = objectMapper.readerFor(CarbonCalculationRequest.class);
+        this.maxItems = maxItems;
+        this.maxLineLength = maxLineLength;
+        this.threads = threads;
+        AtomicInteger created = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4), runnable -> {
+            Thread thread = new Thread(runnable, "carbon-batch-" + created.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Reads the first chunk right away, so a batch that is empty or breaks a limit there is refused before
+     * any result is written. A limit broken further on ends the results with one line saying so.
+     *
+     * @throws BatchTooLargeException if the first chunk breaks a limit.
+     * @throws EmptyBatchException    if the batch holds no requests.
+     */
+    public StreamingResponseBody calculate(InputStream requests) throws IOException {
+        EmissionFactorTable factors = emissionFactorService.current();
+        LineReader reader = new LineReader(new InputStreamReader(requests, StandardCharsets.UTF_8), maxLineLength);
+        List<String> first = readChunk(reader, 0);
+        if (first.isEmpty()) {
+            throw new EmptyBatchException();
+        }
+        if (first.size() == maxItems && hasMore(reader)) {
+            throw tooManyItems();
+        }
+        return out -> write(first, reader, factors, out);
+    }
+
+    void calculate(InputStream requests, OutputStream out) throws IOException {
+        calculate(requests).writeTo(out);
+    }
+
+    private void write(List<String> first, LineReader reader, EmissionFactorTable factors, OutputStream out)
+            throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            int offset = 0;
+            List<String> lines = first;
+            while (!lines.isEmpty()) {
+                for (CarbonBatchResultDTO result : calculateChunk(lines, offset, factors)) {
+                    generator.writeObject(result);
+                    generator.writeRaw('\n');
+                }
+                // Lets the client consume results while the next chunk is being read
+                generator.flush();
+                offset += lines.size();
+                try {
+                    if (offset == maxItems) {
+                        if (hasMore(reader)) {
+                            throw tooManyItems();
+                        }
+                        return;
+                    }
+                    if (lines.size() < CHUNK_SIZE) {
+                        return;
+                    }
+                    lines = readChunk(reader, offset);
+                } catch (BatchTooLargeException e) {
+                    generator.writeObject(new CarbonBatchResultDTO(offset, null, e.getMessage()));
+                    generator.writeRaw('\n');
+                    return;
+                }
+            }
+        }
+    }
+
+    // Up to CHUNK_SIZE non-blank lines; fewer only at the end of the input or at max-items
+    private List<String> readChunk(LineReader reader, int offset) throws IOException {
+        int size = Math.min(CHUNK_SIZE, maxItems - offset);
+        List<String> lines = new ArrayList<>(size);
+        String line;
+        while (lines.size() < size && (line = reader.readLine()) != null) {
+            if (!line.isBlank()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static boolean hasMore(LineReader reader) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.isBlank()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private BatchTooLargeException tooManyItems() {
+        return new BatchTooLargeException("A batch holds at most " + maxItems + " requests.");
+    }
+
+    private CarbonBatchResultDTO[] calculateChunk(List<String> lines, int offset, EmissionFactorTable factors)
+            throws IOException {
+        CarbonBatchResultDTO[] results = new CarbonBatchResultDTO[lines.size()];
+        int sliceSize = Math.max(1, (lines.size() + threads - 1) / threads);
+        List<Future<?>> slices = new ArrayList<>(threads);
+        for (int from = 0; from < lines.size(); from += sliceSize) {
+            int start = from;
+            int end = Math.min(from + sliceSize, lines.size());
+            slices.add(pool.submit(() -> {
+                for (int i = start; i < end; i++) {
+                    results[i] = calculateLine(lines.get(i), offset + i, factors);
+                }
+            }));
+        }
+        try {
+            for (Future<?> slice : slices) {
+                slice.get();
+            }
+        } catch (InterruptedException e) {
+            slices.forEach(slice -> slice.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Batch calculation interrupted");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch calculation failed", e.getCause());
+        }
+        return results;
+    }
+
+    private CarbonBatchResultDTO calculateLine(String line, int index, EmissionFactorTable factors) {
+        CarbonCalculationRequest request;
+        try {
+            request = requestReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            return new CarbonBatchResultDTO(index, null, "Malformed request: " + e.getOriginalMessage());
+        }
+        try {
+            return new CarbonBatchResultDTO(index, carbonCalculatorService.calculateFootprint(request, factors), null);
+        } catch (RuntimeException e) {
+            return new CarbonBatchResultDTO(index, null, e.getMessage());
+        }
+    }
+
+    // Like BufferedReader.readLine, but refuses a line before buffering more than maxLength characters of it
+    private static final class LineReader {
+        private final Reader reader;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+
+        LineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        String readLine() throws IOException {
+            StringBuilder line = null;
+            while (true) {
+                if (position == limit) {
+                    limit = reader.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return line == null ? null : line.toString();
+                    }
+                }
+                if (line == null) {
+                    line = new StringBuilder();
+                }
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                line.append(buffer, start, position - start);
+                if (position < limit) {
+                    position++;
+                    int length = line.length();
+                    if (length > 0 && line.charAt(length - 1) == '\r') {
+                        line.setLength(length - 1);
+                    }
+                    checkLength(line);
+                    return line.toString();
+                }
+                checkLength(line);
+            }
+        }
+
+        private void checkLength(StringBuilder line) {
+            // One extra character for a '\r' that may still be followed by the '\n'
+            if (line.length() > maxLength + 1 || (line.length() == maxLength + 1 && line.charAt(maxLength) != '\r')) {
+                throw new BatchTooLargeException("A request line holds at most " + maxLength + " characters.");
+            }
+        }
+    }
+}
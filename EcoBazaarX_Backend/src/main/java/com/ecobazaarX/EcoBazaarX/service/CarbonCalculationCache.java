@@ -0,0 +1,75 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.sellerdto.CarbonCalculationRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memoizes single carbon calculations in a size-bounded Caffeine cache. Calculator traffic repeats the same few
+ * materials, packagings, origins and weights, so a hit skips factor lookup and arithmetic altogether.
+ * Keys carry the version of the factor table they were calculated from: once the factors change, no request
+ * can hit an old result, and the old entries are dropped in one go.
+ */
+@Service
+public class CarbonCalculationCache {
+
+    private record Key(long factorsVersion, String material, String packaging, String origin, String destination,
+                       double weight) {
+
+        static Key of(long factorsVersion, CarbonCalculationRequest request) {
+            return new Key(factorsVersion, normalize(request.getMaterial()), normalize(request.getPackaging()),
+                    normalize(request.getOrigin()), normalize(request.getDestination()), request.getWeight());
+        }
+    }
+
+    private final CarbonCalculatorService carbonCalculatorService;
+    private final EmissionFactorService emissionFactorService;
+    private final Cache<Key, Double> cache;
+    // Factor table version the cached entries belong to
+    private final AtomicLong cachedVersion = new AtomicLong(-1);
+
+    public CarbonCalculationCache(CarbonCalculatorService carbonCalculatorService,
+                                  EmissionFactorService emissionFactorService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${ecobazaarx.carbon-calculation-cache.max-size:100000}") long maxSize,
+                                  @Value("${ecobazaarx.carbon-calculation-cache.ttl:1h}") Duration ttl) {
+        this.carbonCalculatorService = carbonCalculatorService;
+        this.emissionFactorService = emissionFactorService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "carbon.calculation");
+    }
+
+    /**
+     * Same result as {@link CarbonCalculatorService#calculateFootprint(CarbonCalculationRequest)}.
+     * Failed calculations are not cached.
+     */
+    public double calculateFootprint(CarbonCalculationRequest request) {
+        EmissionFactorTable factors = emissionFactorService.current();
+        // Only ever moves forward: a caller still holding an older table must not drop the newer entries
+        long previous;
+        while ((previous = cachedVersion.get()) < factors.getVersion()) {
+            if (cachedVersion.compareAndSet(previous, factors.getVersion())) {
+                cache.invalidateAll();
+                break;
+            }
+        }
+        return cache.get(Key.of(factors.getVersion(), request),
+                key -> carbonCalculatorService.calculateFootprint(request, factors));
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -2,36 +2,94 @@ package com.ecobazaarX.EcoBazaarX.service;
 
 
 import com.ecobazaarX.EcoBazaarX.dto.sellerdto.CarbonCalculationRequest;
-import com.ecobazaarX.EcoBazaarX.repository.EmissionFactorRepository;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.ecobazaarX.EcoBazaarX.model.Address;
+import com.ecobazaarX.EcoBazaarX.model.Order;
+import com.ecobazaarX.EcoBazaarX.model.OrderItem;
+import com.ecobazaarX.EcoBazaarX.model.Product;
+import com.ecobazaarX.EcoBazaarX.model.Seller;
 import org.springframework.stereotype.Service;
 
+import java.util.OptionalDouble;
+
 @Service
 public class CarbonCalculatorService {
 
-    @Autowired
-    private EmissionFactorRepository emissionFactorRepository;
+    // TRANSPORT factors are named after the mode and given in kg CO2 per tonne-km
+    static final String FREIGHT = "Freight";
+
+    private final EmissionFactorService emissionFactorService;
+    private final RegionDistanceMatrix regionDistanceMatrix;
+
+    public CarbonCalculatorService(EmissionFactorService emissionFactorService, RegionDistanceMatrix regionDistanceMatrix) {
+        this.emissionFactorService = emissionFactorService;
+        this.regionDistanceMatrix = regionDistanceMatrix;
+    }
 
     public double calculateFootprint(CarbonCalculationRequest request) {
-        // Fetch material emission factor from DB
-        double materialEmission = emissionFactorRepository
-                .findByFactorTypeAndNameAndRegion("MATERIAL", request.getMaterial(), request.getOrigin())
-                .orElseGet(() -> emissionFactorRepository
-                        .findByFactorTypeAndNameAndRegion("MATERIAL", request.getMaterial(), "Global")
-                        .orElseThrow(() -> new RuntimeException("Emission factor not found for material: " + request.getMaterial()))
-                )
-                .getValue();
-
-        // Fetch packaging emission factor from DB
-        double packagingEmission = emissionFactorRepository
-                .findByFactorTypeAndNameAndRegion("PACKAGING", request.getPackaging(), "Global")
-                .orElseThrow(() -> new RuntimeException("Emission factor not found for packaging: " + request.getPackaging()))
-                .getValue();
+        // One table for the whole calculation, so a concurrent refresh cannot mix old and new factors
+        return calculateFootprint(request, emissionFactorService.current());
+    }
+
+    /**
+     * Calculates against the given table; pure, so batches can run it on many threads at once.
+     */
+    public double calculateFootprint(CarbonCalculationRequest request, EmissionFactorTable factors) {
+        // Material emission factor for the origin region, falling back to the Global one
+        double materialEmission = factors
+                .find("MATERIAL", request.getMaterial(), request.getOrigin())
+                .orElseThrow(() -> new RuntimeException("Emission factor not found for material: " + request.getMaterial()));
+
+        // Packaging emission factor
+        double packagingEmission = factors
+                .find("PACKAGING", request.getPackaging(), EmissionFactorTable.GLOBAL_REGION)
+                .orElseThrow(() -> new RuntimeException("Emission factor not found for packaging: " + request.getPackaging()));
 
         // Calculate total emission based on product weight (in kg)
         double totalEmission = (materialEmission + packagingEmission) * (request.getWeight() / 1000);
 
+        // Shipping from origin to destination, when the destination is known
+        if (request.getDestination() != null && !request.getDestination().isBlank()) {
+            int from = regionDistanceMatrix.indexOf(request.getOrigin());
+            int to = regionDistanceMatrix.indexOf(request.getDestination());
+            if (from < 0 || to < 0) {
+                throw new RuntimeException("No distance known from " + request.getOrigin() + " to " + request.getDestination());
+            }
+            double freight = factors
+                    .find("TRANSPORT", FREIGHT, request.getOrigin())
+                    .orElseThrow(() -> new RuntimeException("Emission factor not found for transport: " + FREIGHT));
+            totalEmission += freight * (request.getWeight() / 1_000_000) * regionDistanceMatrix.distanceKm(from, to);
+        }
+
         // Round to 2 decimal places
         return Math.round(totalEmission * 100.0) / 100.0;
     }
+
+    /**
+     * Estimates the emission of shipping an order's items from their sellers' regions to its shipping country.
+     * Items whose weight, seller region or freight factor is unknown are left out.
+     *
+     * @return kg CO2, or null when no item could be estimated.
+     */
+    public Double estimateTransportEmission(Order order) {
+        Address address = order.getShippingAddress();
+        int to = address == null ? -1 : regionDistanceMatrix.indexOf(address.getCountry());
+        if (to < 0) {
+            return null;
+        }
+        EmissionFactorTable factors = emissionFactorService.current();
+        double total = 0;
+        boolean estimated = false;
+        for (OrderItem item : order.getOrderItems()) {
+            Product product = item.getProduct();
+            Seller seller = product.getSeller();
+            if (product.getWeightGrams() == null || seller == null) continue;
+            int from = regionDistanceMatrix.indexOf(seller.getRegion());
+            OptionalDouble freight = factors.find("TRANSPORT", FREIGHT, seller.getRegion());
+            if (from < 0 || freight.isEmpty()) continue;
+            double tonnes = product.getWeightGrams() * item.getQuantity() / 1_000_000;
+            total += freight.getAsDouble() * tonnes * regionDistanceMatrix.distanceKm(from, to);
+            estimated = true;
+        }
+        return estimated ? Math.round(total * 100.0) / 100.0 : null;
+    }
 }
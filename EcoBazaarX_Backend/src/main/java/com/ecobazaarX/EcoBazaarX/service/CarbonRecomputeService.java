@@ -0,0 +1,310 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.admindto.CarbonRecomputeJobDto;
+import com.ecobazaarX.EcoBazaarX.dto.sellerdto.CarbonCalculationRequest;
+import com.ecobazaarX.EcoBazaarX.event.EmissionFactorsChangedEvent;
+import com.ecobazaarX.EcoBazaarX.model.CarbonRecomputeJob;
+import com.ecobazaarX.EcoBazaarX.repository.CarbonRecomputeJobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recalculates the stored Product.carbonEmission of every product that uses a changed emission factor.
+ * Jobs run one at a time on a single background thread. Each chunk of products is read by id, recalculated
+ * and written back with one JDBC batch, in the same transaction as the job's checkpoint. The read takes no locks,
+ * so a write only lands on products whose inputs have not changed since; between chunks the
+ * job sleeps as needed to stay under the configured rows per second, leaving the database to checkout traffic.
+ * A job interrupted by a restart or a database error is picked up again from its checkpoint.
+ */
+@Slf4j
+@Service
+public class CarbonRecomputeService {
+
+    private static final String RECOMPUTABLE_PRODUCTS =
+            "SELECT product_id, material, packaging, origin, weight_grams, carbon_emission FROM products " +
+            "WHERE %s = ? AND product_id > ? AND weight_grams IS NOT NULL ORDER BY product_id LIMIT ?";
+    // Only while the inputs are still the ones the value was calculated from: a seller editing the product
+    // between the read and the write has stored a footprint of their own, which must not be overwritten
+    private static final String UPDATE_EMISSION =
+            "UPDATE products SET carbon_emission = ? WHERE product_id = ? AND COALESCE(material, '') = COALESCE(?, '') " +
+            "AND COALESCE(packaging, '') = COALESCE(?, '') AND COALESCE(origin, '') = COALESCE(?, '') AND weight_grams = ?";
+
+    private final CarbonRecomputeJobRepository jobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CarbonCalculatorService carbonCalculatorService;
+    private final EmissionFactorService emissionFactorService;
+    private final ProductDetailService productDetailService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final int chunkSize;
+    private final double maxRowsPerSecond;
+    private final Counter recomputed;
+    // Jobs handed to the worker and not yet finished with, so a resume sweep does not queue them twice
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "carbon-recompute");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record ProductRow(long productId, String material, String packaging, String origin,
+                              double weightGrams, Double carbonEmission) {
+    }
+
+    private record ChunkResult(int processed, long lastProductId, List<Long> updatedIds) {
+    }
+
+    public CarbonRecomputeService(CarbonRecomputeJobRepository jobRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  CarbonCalculatorService carbonCalculatorService,
+                                  EmissionFactorService emissionFactorService,
+                                  ProductDetailService productDetailService,
+                                  CatalogSnapshotService catalogSnapshotService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${ecobazaarx.carbon-recompute.chunk-size:500}") int chunkSize,
+                                  @Value("${ecobazaarx.carbon-recompute.max-rows-per-second:2000}") double maxRowsPerSecond) {
+        this.jobRepository = jobRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.carbonCalculatorService = carbonCalculatorService;
+        this.emissionFactorService = emissionFactorService;
+        this.productDetailService = productDetailService;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.chunkSize = chunkSize;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+        this.recomputed = Counter.builder("carbon.recompute.rows")
+                .description("Products whose carbon emission was recalculated")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        // Interrupts the throttling sleep; the job stays RUNNING and resumes from its checkpoint
+        worker.shutdownNow();
+    }
+
+    /**
+     * Records a job for the products using the given factor, replacing any job for the same factor that is
+     * still running. Joins the transaction that changes the factor, so the two commit together;
+     * the job starts once that transaction has committed.
+     *
+     * @return The new job, or null for factor types that stored footprints do not depend on.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public CarbonRecomputeJob schedule(String factorType, String factorName) {
+        if (column(factorType) == null) {
+            return null;
+        }
+        jobRepository.supersedeRunning(factorType, factorName);
+        CarbonRecomputeJob job = new CarbonRecomputeJob();
+        job.setFactorType(factorType);
+        job.setFactorName(factorName);
+        job.setStartedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getStartedAt());
+        return jobRepository.save(job);
+    }
+
+    // After EmissionFactorService has loaded the new factors
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFactorsChanged(EmissionFactorsChangedEvent event) {
+        resume();
+    }
+
+    /**
+     * Queues every job that is still running and not already queued: new ones, and those cut short by a restart or an error.
+     */
+    @Scheduled(fixedDelayString = "${ecobazaarx.carbon-recompute.resume-interval-ms:60000}")
+    public void resume() {
+        for (CarbonRecomputeJob job : jobRepository.findByStatusOrderByIdAsc(CarbonRecomputeJob.Status.RUNNING)) {
+            Long jobId = job.getId();
+            if (queued.add(jobId)) {
+                worker.execute(() -> {
+                    try {
+                        run(jobId);
+                    } catch (RuntimeException e) {
+                        log.error("Carbon recompute job {} failed; it will resume from its checkpoint", jobId, e);
+                    } finally {
+                        queued.remove(jobId);
+                    }
+                });
+            }
+        }
+    }
+
+    public Optional<CarbonRecomputeJobDto> getJob(Long jobId) {
+        return jobRepository.findById(jobId).map(CarbonRecomputeService::toDto);
+    }
+
+    public List<CarbonRecomputeJobDto> getRecentJobs() {
+        return jobRepository.findTop20ByOrderByIdDesc().stream().map(CarbonRecomputeService::toDto).toList();
+    }
+
+    /**
+     * Works through the job's products from its checkpoint until none are left, the job is superseded,
+     * or the thread is interrupted.
+     */
+    void run(Long jobId) {
+        CarbonRecomputeJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != CarbonRecomputeJob.Status.RUNNING) {
+            return;
+        }
+        String sql = RECOMPUTABLE_PRODUCTS.formatted(column(job.getFactorType()));
+        long afterId = job.getLastProductId();
+        long rows = 0;
+        long started = System.nanoTime();
+        while (true) {
+            long after = afterId;
+            ChunkResult chunk = transactionTemplate.execute(status -> {
+                ChunkResult result = recomputeChunk(job, sql, after);
+                if (result == null) {
+                    status.setRollbackOnly();
+                }
+                return result;
+            });
+            if (chunk == null) {
+                log.info("Carbon recompute job {} was superseded", jobId);
+                return;
+            }
+            productDetailService.invalidate(chunk.updatedIds());
+            recomputed.increment(chunk.processed());
+            rows += chunk.processed();
+            if (chunk.processed() < chunkSize) {
+                break;
+            }
+            afterId = chunk.lastProductId();
+            if (!throttle(rows, started)) {
+                return;
+            }
+        }
+
+        int finished = jdbcTemplate.update("UPDATE carbon_recompute_jobs SET status = ?, finished_at = ?, updated_at = ? " +
+                        "WHERE id = ? AND status = ?", CarbonRecomputeJob.Status.COMPLETED.name(),
+                LocalDateTime.now(), LocalDateTime.now(), jobId, CarbonRecomputeJob.Status.RUNNING.name());
+        // Summaries carry carbonEmission too; one rebuild for the whole job
+        catalogSnapshotService.reload();
+        double seconds = Math.max((System.nanoTime() - started) / 1e9, 1e-3);
+        log.info("Carbon recompute job {} for {} {} {}: {} products in {} s ({} rows/s)", jobId, job.getFactorType(),
+                job.getFactorName(), finished == 1 ? "completed" : "was superseded", rows,
+                String.format("%.1f", seconds), Math.round(rows / seconds));
+    }
+
+    /**
+     * @return What the chunk did, or null if the job is no longer running, in which case nothing may be written.
+     */
+    private ChunkResult recomputeChunk(CarbonRecomputeJob job, String sql, long afterId) {
+        List<ProductRow> products = jdbcTemplate.query(sql, (rs, i) -> new ProductRow(
+                rs.getLong("product_id"), rs.getString("material"), rs.getString("packaging"), rs.getString("origin"),
+                rs.getDouble("weight_grams"), (Double) rs.getObject("carbon_emission", Double.class)),
+                job.getFactorName(), afterId, chunkSize);
+
+        // One table per chunk, so every product of the chunk is calculated against the same factors
+        EmissionFactorTable factors = emissionFactorService.current();
+        List<Object[]> updates = new ArrayList<>();
+        List<Long> updatedIds = new ArrayList<>();
+        int failed = 0;
+        for (ProductRow product : products) {
+            CarbonCalculationRequest request = new CarbonCalculationRequest();
+            request.setMaterial(product.material());
+            request.setPackaging(product.packaging());
+            request.setOrigin(product.origin());
+            request.setWeight(product.weightGrams());
+            try {
+                double emission = carbonCalculatorService.calculateFootprint(request, factors);
+                if (!Objects.equals(emission, product.carbonEmission())) {
+                    updates.add(new Object[]{emission, product.productId(), product.material(), product.packaging(),
+                            product.origin(), product.weightGrams()});
+                }
+            } catch (RuntimeException e) {
+                // A factor the product needs is missing; its stored value is left as it is
+                failed++;
+            }
+        }
+        if (!updates.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(UPDATE_EMISSION, updates);
+            for (int i = 0; i < counts.length; i++) {
+                // Statement.SUCCESS_NO_INFO from drivers that rewrite the batch counts as written
+                if (counts[i] != 0) {
+                    updatedIds.add((Long) updates.get(i)[1]);
+                }
+            }
+        }
+
+        long lastId = products.isEmpty() ? afterId : products.get(products.size() - 1).productId();
+        int progressed = jdbcTemplate.update("UPDATE carbon_recompute_jobs SET last_product_id = ?, processed = processed + ?, " +
+                        "updated = updated + ?, failed = failed + ?, updated_at = ? WHERE id = ? AND status = ?",
+                lastId, products.size(), updatedIds.size(), failed, LocalDateTime.now(),
+                job.getId(), CarbonRecomputeJob.Status.RUNNING.name());
+        return progressed == 1 ? new ChunkResult(products.size(), lastId, updatedIds) : null;
+    }
+
+    // Sleeps until the job is back under its rows-per-second budget; false if interrupted
+    private boolean throttle(long rows, long started) {
+        long dueNanos = (long) (rows / maxRowsPerSecond * 1e9);
+        long aheadNanos = dueNanos - (System.nanoTime() - started);
+        if (aheadNanos <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(aheadNanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Products store material and packaging; transport is not part of their footprint
+    private static String column(String factorType) {
+        return switch (factorType == null ? "" : factorType.toUpperCase()) {
+            case "MATERIAL" -> "material";
+            case "PACKAGING" -> "packaging";
+            default -> null;
+        };
+    }
+
+    private static CarbonRecomputeJobDto toDto(CarbonRecomputeJob job) {
+        LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : job.getUpdatedAt();
+        double seconds = Duration.between(job.getStartedAt(), end).toMillis() / 1000.0;
+        return CarbonRecomputeJobDto.builder()
+                .jobId(job.getId())
+                .factorType(job.getFactorType())
+                .factorName(job.getFactorName())
+                .status(job.getStatus())
+                .processed(job.getProcessed())
+                .updated(job.getUpdated())
+                .failed(job.getFailed())
+                .lastProductId(job.getLastProductId())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .rowsPerSecond(seconds > 0 ? Math.round(job.getProcessed() / seconds) : 0)
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.event.CatalogChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of fully serialized catalog responses, keyed by catalog version and request.
+ * Each entry holds the JSON bytes and, when it is smaller, a gzip variant compressed once at fill time,
+ * so a hot page is served as a single buffer write with no serialization or compression on the request thread.
+ * Entries are weighed by their byte size; the whole cache is dropped whenever the catalog changes.
+ */
+@Service
+public class CatalogPayloadCache {
+
+    public record Payload(byte[] json, byte[] gzip) {
+
+        public int weight() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    private record Key(long version, String request) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Key, Payload> cache;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter bytesSaved;
+
+    public CatalogPayloadCache(ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${ecobazaarx.catalog.payload-cache.max-bytes:67108864}") long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Payload payload) -> payload.weight())
+                .build();
+        this.hits = Counter.builder("catalog.payload.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("catalog.payload.cache").tag("result", "miss").register(meterRegistry);
+        this.bytesSaved = Counter.builder("catalog.payload.bytes.saved")
+                .description("Response bytes avoided by sending the precompressed variant")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached payload for this catalog version and request, serializing and compressing it on a miss.
+     *
+     * @param request Canonical description of the request (endpoint plus sorted parameters).
+     */
+    public Payload get(long version, String request, Supplier<Object> body) {
+        Key key = new Key(version, request);
+        Payload payload = cache.getIfPresent(key);
+        if (payload != null) {
+            hits.increment();
+            return payload;
+        }
+        misses.increment();
+        return cache.get(key, k -> serialize(body.get()));
+    }
+
+    // Records the wire bytes saved when the gzip variant is sent instead of the plain JSON
+    public void recordGzipSent(Payload payload) {
+        bytesSaved.increment(payload.json().length - payload.gzip().length);
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        // Older versions can never be requested again; free their memory now rather than waiting for eviction
+        cache.invalidateAll();
+    }
+
+    private Payload serialize(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            byte[] gzip = gzip(json);
+            return new Payload(json, gzip.length < json.length ? gzip : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,112 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductSummaryDTO;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of every active product, ordered newest first (createdAt DESC, productId DESC).
+ * A snapshot is never modified after construction; writers derive a new one and swap it in.
+ */
+public final class CatalogSnapshot {
+
+    public static final Comparator<ProductSummaryDTO> NEWEST_FIRST = Comparator
+            .comparing(ProductSummaryDTO::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(ProductSummaryDTO::getProductId, Comparator.reverseOrder());
+
+    private final long version;
+    private final Instant builtAt;
+    private final List<ProductSummaryDTO> products;
+    private final Map<Long, ProductSummaryDTO> byId;
+
+    private CatalogSnapshot(long version, List<ProductSummaryDTO> sortedProducts, Map<Long, ProductSummaryDTO> byId) {
+        this.version = version;
+        this.builtAt = Instant.now();
+        this.products = Collections.unmodifiableList(sortedProducts);
+        this.byId = Collections.unmodifiableMap(byId);
+    }
+
+    static CatalogSnapshot of(long version, List<ProductSummaryDTO> activeProducts) {
+        List<ProductSummaryDTO> sorted = new ArrayList<>(activeProducts);
+        sorted.sort(NEWEST_FIRST);
+        Map<Long, ProductSummaryDTO> byId = new HashMap<>(sorted.size() * 2);
+        for (ProductSummaryDTO p : sorted) {
+            byId.put(p.getProductId(), p);
+        }
+        return new CatalogSnapshot(version, sorted, byId);
+    }
+
+    /**
+     * Returns a new snapshot with the given product replaced, added or (when {@code replacement} is null) removed.
+     * Costs one array copy; the receiver is left untouched.
+     */
+    CatalogSnapshot with(long newVersion, Long productId, ProductSummaryDTO replacement) {
+        List<ProductSummaryDTO> sorted = new ArrayList<>(products);
+        Map<Long, ProductSummaryDTO> index = new HashMap<>(byId);
+
+        ProductSummaryDTO previous = index.remove(productId);
+        if (previous != null) {
+            sorted.remove(Collections.binarySearch(sorted, previous, NEWEST_FIRST));
+        }
+        if (replacement != null) {
+            int pos = Collections.binarySearch(sorted, replacement, NEWEST_FIRST);
+            sorted.add(pos < 0 ? -pos - 1 : pos, replacement);
+            index.put(productId, replacement);
+        }
+        return new CatalogSnapshot(newVersion, sorted, index);
+    }
+
+    /**
+     * Returns a new snapshot with the stock of the given products replaced. Stock is not part of the ordering,
+     * so every product keeps its position; costs one array copy however many products moved.
+     */
+    CatalogSnapshot withStock(long newVersion, Map<Long, Integer> stock) {
+        List<ProductSummaryDTO> sorted = new ArrayList<>(products);
+        Map<Long, ProductSummaryDTO> index = new HashMap<>(byId);
+        stock.forEach((productId, level) -> {
+            ProductSummaryDTO listed = index.get(productId);
+            if (listed != null) {
+                ProductSummaryDTO updated = listed.withStock(level);
+                sorted.set(Collections.binarySearch(sorted, listed, NEWEST_FIRST), updated);
+                index.put(productId, updated);
+            }
+        });
+        return new CatalogSnapshot(newVersion, sorted, index);
+    }
+
+    /**
+     * Position of the first product that sorts strictly after the given keyset position.
+     */
+    int indexAfter(LocalDateTime createdAt, Long productId) {
+        ProductSummaryDTO probe = ProductSummaryDTO.builder().createdAt(createdAt).productId(productId).build();
+        int pos = Collections.binarySearch(products, probe, NEWEST_FIRST);
+        return pos >= 0 ? pos + 1 : -pos - 1;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+
+    public List<ProductSummaryDTO> getProducts() {
+        return products;
+    }
+
+    public ProductSummaryDTO get(Long productId) {
+        return byId.get(productId);
+    }
+
+    public int size() {
+        return products.size();
+    }
+}
@@ -0,0 +1,168 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductSummaryDTO;
+import com.ecobazaarX.EcoBazaarX.event.CatalogChangedEvent;
+import com.ecobazaarX.EcoBazaarX.event.ProductChangedEvent;
+import com.ecobazaarX.EcoBazaarX.mapper.ProductMapper;
+import com.ecobazaarX.EcoBazaarX.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the in-process read model of the public catalog.
+ * Readers grab the current {@link CatalogSnapshot} without locking; product writes
+ * produce a new snapshot after their transaction commits and swap it in atomically.
+ * Every swap is announced with a {@link CatalogChangedEvent} so secondary indexes can follow.
+ * Stock moves with every checkout, so stock changes are collected and applied together on a short interval:
+ * a burst of orders costs one new snapshot (and one new ETag) per interval rather than one per order.
+ */
+@Slf4j
+@Service
+public class CatalogSnapshotService {
+
+    // Products per stock query, keeping the IN list bounded
+    private static final int STOCK_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    private final AtomicLong version = new AtomicLong();
+    // Distinguishes versions of this process from those of earlier runs, whose counters also started at 1
+    private final long epoch = System.currentTimeMillis();
+    private final Timer rebuildTimer;
+    // Products whose stock changed since the last applyStockChanges
+    private final Set<Long> pendingStock = ConcurrentHashMap.newKeySet();
+
+    public CatalogSnapshotService(ProductRepository productRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.rebuildTimer = Timer.builder("catalog.snapshot.rebuild")
+                .description("Time spent producing a new catalog snapshot")
+                .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.version", version, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("catalog.snapshot.size", current, ref -> ref.get() == null ? 0 : ref.get().size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return The current snapshot, or null until the initial load has finished.
+     */
+    public CatalogSnapshot current() {
+        return current.get();
+    }
+
+    /**
+     * Strong entity tag for everything derived from the given snapshot.
+     * The version moves on every product mutation, so equal tags mean identical catalog content.
+     */
+    public String etag(CatalogSnapshot snapshot) {
+        return "\"catalog-" + epoch + "-" + snapshot.getVersion() + "\"";
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        CatalogSnapshot snapshot = rebuildTimer.record(() -> {
+            List<ProductSummaryDTO> active = productRepository.findActiveSummaries();
+            return CatalogSnapshot.of(version.incrementAndGet(), active);
+        });
+        current.set(snapshot);
+        log.info("Catalog snapshot v{} loaded with {} active products", snapshot.getVersion(), snapshot.size());
+        eventPublisher.publishEvent(new CatalogChangedEvent(snapshot, null, null, null, false));
+    }
+
+    /**
+     * Applies a single product change once the writing transaction has committed.
+     * Writers are serialized here; readers keep using the previous snapshot until the swap.
+     * Stock changes only take note of the product, without waiting for the writers' lock.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getChangeType() == ProductChangedEvent.ChangeType.STOCK) {
+            pendingStock.add(event.getProductId());
+            return;
+        }
+        applyChange(event);
+    }
+
+    /**
+     * Reads the current stock of every product noted since the last run and swaps in one snapshot carrying it.
+     * Nothing is swapped, and the ETag stays, when no listed stock level actually differs.
+     */
+    @Scheduled(fixedDelayString = "${ecobazaarx.catalog.stock-refresh-interval-ms:2000}")
+    public synchronized void applyStockChanges() {
+        CatalogSnapshot base = current.get();
+        if (base == null || pendingStock.isEmpty()) {
+            return;
+        }
+        // Removed before the read, so a change committed meanwhile is either in the read or noted again
+        List<Long> productIds = new ArrayList<>(pendingStock);
+        pendingStock.removeAll(productIds);
+
+        Map<Long, Integer> changed = new HashMap<>();
+        try {
+            for (int from = 0; from < productIds.size(); from += STOCK_BATCH_SIZE) {
+                List<Long> batch = productIds.subList(from, Math.min(from + STOCK_BATCH_SIZE, productIds.size()));
+                for (ProductRepository.StockLevel level : productRepository.findStockByIdIn(batch)) {
+                    ProductSummaryDTO listed = base.get(level.getProductId());
+                    if (listed != null && !Objects.equals(listed.getStock(), level.getStock())) {
+                        changed.put(level.getProductId(), level.getStock());
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            pendingStock.addAll(productIds);
+            log.warn("Could not read stock for {} products; retrying on the next run", productIds.size(), e);
+            return;
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        CatalogSnapshot next = rebuildTimer.record(() -> base.withStock(version.incrementAndGet(), changed));
+        current.set(next);
+        eventPublisher.publishEvent(new CatalogChangedEvent(next, null, null, null, true));
+    }
+
+    private synchronized void applyChange(ProductChangedEvent event) {
+        CatalogSnapshot base = current.get();
+        if (base == null) {
+            // Initial load has not happened yet; it will pick the change up.
+            return;
+        }
+        CatalogSnapshot next = rebuildTimer.record(() -> {
+            ProductSummaryDTO replacement = null;
+            if (event.getChangeType() != ProductChangedEvent.ChangeType.DELETED) {
+                // Still bound to the committed transaction's persistence context, so this is usually not a query
+                replacement = productRepository.findById(event.getProductId())
+                        .filter(p -> p.isActive())
+                        .map(ProductMapper::toSummary)
+                        .orElse(null);
+            }
+            return base.with(version.incrementAndGet(), event.getProductId(), replacement);
+        });
+        current.set(next);
+        eventPublisher.publishEvent(new CatalogChangedEvent(next, event.getProductId(),
+                base.get(event.getProductId()), next.get(event.getProductId()), false));
+    }
+}
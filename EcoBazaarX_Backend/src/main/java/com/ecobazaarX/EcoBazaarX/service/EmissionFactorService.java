@@ -0,0 +1,78 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.event.EmissionFactorsChangedEvent;
+import com.ecobazaarX.EcoBazaarX.repository.EmissionFactorRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the in-memory {@link EmissionFactorTable} used by carbon calculations.
+ * Readers take the current table without locking; a reload builds a complete new table and swaps it in,
+ * so a calculation never sees half of an update.
+ */
+@Slf4j
+@Service
+public class EmissionFactorService {
+
+    private final EmissionFactorRepository emissionFactorRepository;
+    private final AtomicReference<EmissionFactorTable> current = new AtomicReference<>();
+    private final AtomicLong version = new AtomicLong();
+
+    public EmissionFactorService(EmissionFactorRepository emissionFactorRepository, MeterRegistry meterRegistry) {
+        this.emissionFactorRepository = emissionFactorRepository;
+        Gauge.builder("emission.factors.version", version, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("emission.factors.size", current, ref -> ref.get() == null ? 0 : ref.get().size())
+                .register(meterRegistry);
+    }
+
+    public EmissionFactorTable current() {
+        EmissionFactorTable table = current.get();
+        return table != null ? table : reload();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    /**
+     * Loads the table from the database. The version only moves when the content differs from the current table.
+     */
+    public synchronized EmissionFactorTable reload() {
+        EmissionFactorTable previous = current.get();
+        EmissionFactorTable loaded = EmissionFactorTable.of(version.get() + 1, emissionFactorRepository.findAll());
+        if (previous != null && previous.sameFactorsAs(loaded)) {
+            return previous;
+        }
+        version.incrementAndGet();
+        current.set(loaded);
+        log.info("Emission factor table v{} loaded with {} entries", loaded.getVersion(), loaded.size());
+        return loaded;
+    }
+
+    // Ahead of other listeners, so they see the new factors
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFactorsChanged(EmissionFactorsChangedEvent event) {
+        reload();
+    }
+
+    // Picks up factors edited directly in the database
+    @Scheduled(fixedDelayString = "${ecobazaarx.emission-factors.refresh-interval-ms:300000}",
+            initialDelayString = "${ecobazaarx.emission-factors.refresh-interval-ms:300000}")
+    public void refresh() {
+        reload();
+    }
+}
@@ -0,0 +1,101 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.model.EmissionFactor;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Set;
+
+/**
+ * Immutable, hash-indexed copy of the emission_factors table, keyed on (factorType, name, region).
+ * The Global fallback is resolved while building: every region named anywhere in the table gets an entry
+ * for each Global factor it lacks, so a lookup is a single hash probe. Only a region the table has never
+ * heard of needs a second probe, for the Global entry itself.
+ * Keys are matched ignoring case and surrounding blanks, as the database's default collation did.
+ */
+public final class EmissionFactorTable {
+
+    public static final String GLOBAL_REGION = "Global";
+
+    private record Key(String factorType, String name, String region) {
+
+        static Key of(String factorType, String name, String region) {
+            return new Key(normalize(factorType), normalize(name), normalize(region));
+        }
+    }
+
+    private final long version;
+    private final Map<Key, Double> factors;
+
+    private EmissionFactorTable(long version, Map<Key, Double> factors) {
+        this.version = version;
+        this.factors = Map.copyOf(factors);
+    }
+
+    static EmissionFactorTable of(long version, Collection<EmissionFactor> rows) {
+        Map<Key, Double> factors = new HashMap<>(rows.size() * 2);
+        Set<String> regions = new HashSet<>();
+        // Should a key occur twice, the oldest row wins
+        List<EmissionFactor> byId = rows.stream()
+                .filter(row -> row.getValue() != null)
+                .sorted(Comparator.comparing(EmissionFactor::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        for (EmissionFactor row : byId) {
+            Key key = Key.of(row.getFactorType(), row.getName(), row.getRegion());
+            factors.putIfAbsent(key, row.getValue());
+            regions.add(key.region());
+        }
+
+        String global = normalize(GLOBAL_REGION);
+        Map<Key, Double> fallbacks = new HashMap<>();
+        for (Map.Entry<Key, Double> entry : factors.entrySet()) {
+            Key key = entry.getKey();
+            if (!key.region().equals(global)) continue;
+            for (String region : regions) {
+                Key regional = new Key(key.factorType(), key.name(), region);
+                if (!factors.containsKey(regional)) {
+                    fallbacks.put(regional, entry.getValue());
+                }
+            }
+        }
+        factors.putAll(fallbacks);
+        return new EmissionFactorTable(version, factors);
+    }
+
+    /**
+     * @return The factor for the region, or else the Global one; empty if neither exists.
+     */
+    public OptionalDouble find(String factorType, String name, String region) {
+        Double value = factors.get(Key.of(factorType, name, region));
+        if (value == null) {
+            value = factors.get(Key.of(factorType, name, GLOBAL_REGION));
+        }
+        return value == null ? OptionalDouble.empty() : OptionalDouble.of(value);
+    }
+
+    /**
+     * Increases with every change of the table's content, so results computed from one version stay valid
+     * exactly as long as that version is current.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return factors.size();
+    }
+
+    boolean sameFactorsAs(EmissionFactorTable other) {
+        return factors.equals(other.factors);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,182 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-category rankings of products by carbon emission, held in parallel primitive arrays.
+ * Each category's arrays are immutable and replaced as a whole on change, so lookups are lock-free
+ * and never see a half-applied update.
+ */
+public class GreenerAlternativesIndex {
+
+    // Sorted by carbon ascending, then product id; the three arrays are parallel
+    private record Ranking(double[] carbon, long[] productIds, double[] prices) {
+
+        static final Ranking EMPTY = new Ranking(new double[0], new long[0], new double[0]);
+
+        int size() {
+            return productIds.length;
+        }
+    }
+
+    private record Entry(String category, double carbon, double price) {
+    }
+
+    public record Item(long productId, String category, BigDecimal price, Double carbonEmission) {
+    }
+
+    private final Map<String, Ranking> byCategory = new ConcurrentHashMap<>();
+    // Writer-side bookkeeping: where each product currently sits
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    public synchronized void upsert(long productId, String category, BigDecimal price, Double carbonEmission) {
+        remove(productId);
+        if (category == null || carbonEmission == null || price == null) {
+            return;
+        }
+        Entry entry = new Entry(category, carbonEmission, price.doubleValue());
+        entries.put(productId, entry);
+
+        Ranking ranking = byCategory.getOrDefault(category, Ranking.EMPTY);
+        int pos = insertionPoint(ranking, carbonEmission, productId);
+        byCategory.put(category, new Ranking(
+                insertAt(ranking.carbon(), pos, carbonEmission),
+                insertAt(ranking.productIds(), pos, productId),
+                insertAt(ranking.prices(), pos, entry.price())));
+    }
+
+    public synchronized void remove(long productId) {
+        Entry entry = entries.remove(productId);
+        if (entry == null) return;
+
+        Ranking ranking = byCategory.get(entry.category());
+        int pos = insertionPoint(ranking, entry.carbon(), productId);
+        if (ranking.size() == 1) {
+            byCategory.remove(entry.category());
+            return;
+        }
+        byCategory.put(entry.category(), new Ranking(
+                removeAt(ranking.carbon(), pos),
+                removeAt(ranking.productIds(), pos),
+                removeAt(ranking.prices(), pos)));
+    }
+
+    /**
+     * Replaces the whole index, sorting each category once instead of inserting product by product.
+     */
+    public synchronized void rebuild(Collection<Item> items) {
+        clear();
+        Map<String, List<Long>> idsByCategory = new HashMap<>();
+        for (Item item : items) {
+            if (item.category() == null || item.price() == null || item.carbonEmission() == null) continue;
+            entries.put(item.productId(), new Entry(item.category(), item.carbonEmission(), item.price().doubleValue()));
+            idsByCategory.computeIfAbsent(item.category(), c -> new ArrayList<>()).add(item.productId());
+        }
+        idsByCategory.forEach((category, ids) -> {
+            ids.sort(Comparator.<Long>comparingDouble(id -> entries.get(id).carbon()).thenComparing(Comparator.naturalOrder()));
+            int n = ids.size();
+            double[] carbon = new double[n];
+            long[] productIds = new long[n];
+            double[] prices = new double[n];
+            for (int i = 0; i < n; i++) {
+                Entry entry = entries.get(ids.get(i));
+                carbon[i] = entry.carbon();
+                productIds[i] = ids.get(i);
+                prices[i] = entry.price();
+            }
+            byCategory.put(category, new Ranking(carbon, productIds, prices));
+        });
+    }
+
+    /**
+     * Products in the same category with strictly lower emission and a price within the tolerance, lowest emission first.
+     *
+     * @param priceTolerance Fraction of the reference price, e.g. 0.2 for ±20%.
+     */
+    public List<Long> greenerThan(long productId, String category, double carbonEmission, double price,
+                                  double priceTolerance, int limit) {
+        Ranking ranking = byCategory.get(category);
+        if (ranking == null || limit <= 0) return List.of();
+
+        double minPrice = price * (1 - priceTolerance);
+        double maxPrice = price * (1 + priceTolerance);
+        // Everything before this position emits less than the reference product
+        int end = lowerBound(ranking.carbon(), carbonEmission);
+
+        List<Long> result = new ArrayList<>(Math.min(limit, end));
+        double[] prices = ranking.prices();
+        long[] ids = ranking.productIds();
+        for (int i = 0; i < end && result.size() < limit; i++) {
+            if (prices[i] >= minPrice && prices[i] <= maxPrice && ids[i] != productId) {
+                result.add(ids[i]);
+            }
+        }
+        return result;
+    }
+
+    public synchronized void clear() {
+        byCategory.clear();
+        entries.clear();
+    }
+
+    private static int insertionPoint(Ranking ranking, double carbon, long productId) {
+        int lo = 0;
+        int hi = ranking.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = Double.compare(ranking.carbon()[mid], carbon);
+            if (cmp == 0) cmp = Long.compare(ranking.productIds()[mid], productId);
+            if (cmp < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int lowerBound(double[] sorted, double value) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < value) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static double[] insertAt(double[] array, int pos, double value) {
+        double[] copy = new double[array.length + 1];
+        System.arraycopy(array, 0, copy, 0, pos);
+        copy[pos] = value;
+        System.arraycopy(array, pos, copy, pos + 1, array.length - pos);
+        return copy;
+    }
+
+    private static long[] insertAt(long[] array, int pos, long value) {
+        long[] copy = new long[array.length + 1];
+        System.arraycopy(array, 0, copy, 0, pos);
+        copy[pos] = value;
+        System.arraycopy(array, pos, copy, pos + 1, array.length - pos);
+        return copy;
+    }
+
+    private static double[] removeAt(double[] array, int pos) {
+        double[] copy = new double[array.length - 1];
+        System.arraycopy(array, 0, copy, 0, pos);
+        System.arraycopy(array, pos + 1, copy, pos, array.length - pos - 1);
+        return copy;
+    }
+
+    private static long[] removeAt(long[] array, int pos) {
+        long[] copy = new long[array.length - 1];
+        System.arraycopy(array, 0, copy, 0, pos);
+        System.arraycopy(array, pos + 1, copy, pos, array.length - pos - 1);
+        return copy;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductSummaryDTO;
+import com.ecobazaarX.EcoBazaarX.event.CatalogChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lower-carbon substitutes for a product: same category, lower emission, similar price.
+ * Backed by {@link GreenerAlternativesIndex}, which follows the catalog snapshot product by product.
+ */
+@Service
+@RequiredArgsConstructor
+public class GreenerAlternativesService {
+
+    public static final int DEFAULT_LIMIT = 5;
+    public static final int MAX_LIMIT = 50;
+    public static final int DEFAULT_PRICE_TOLERANCE_PCT = 25;
+
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final GreenerAlternativesIndex index = new GreenerAlternativesIndex();
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.isStockOnly()) {
+            return;
+        }
+        if (event.isFullReload()) {
+            index.rebuild(event.getSnapshot().getProducts().stream()
+                    .map(p -> new GreenerAlternativesIndex.Item(p.getProductId(), p.getCategory(), p.getPrice(), p.getCarbonEmission()))
+                    .toList());
+        } else if (event.getCurrent() != null) {
+            ProductSummaryDTO p = event.getCurrent();
+            index.upsert(p.getProductId(), p.getCategory(), p.getPrice(), p.getCarbonEmission());
+        } else {
+            index.remove(event.getProductId());
+        }
+    }
+
+    /**
+     * @return The alternatives, lowest emission first, or empty if the product is not in the active catalog.
+     */
+    public Optional<List<ProductSummaryDTO>> findAlternatives(Long productId, Integer limit, Integer priceTolerancePct) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        ProductSummaryDTO product = snapshot == null ? null : snapshot.get(productId);
+        if (product == null) {
+            return Optional.empty();
+        }
+        if (product.getCategory() == null || product.getPrice() == null || product.getCarbonEmission() == null) {
+            return Optional.of(List.of());
+        }
+
+        int max = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        int pct = priceTolerancePct == null ? DEFAULT_PRICE_TOLERANCE_PCT : Math.max(0, Math.min(priceTolerancePct, 100));
+        List<Long> ids = index.greenerThan(productId, product.getCategory(), product.getCarbonEmission(),
+                product.getPrice().doubleValue(), pct / 100.0, max);
+
+        List<ProductSummaryDTO> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProductSummaryDTO alternative = snapshot.get(id);
+            if (alternative != null) items.add(alternative);
+        }
+        return Optional.of(items);
+    }
+}
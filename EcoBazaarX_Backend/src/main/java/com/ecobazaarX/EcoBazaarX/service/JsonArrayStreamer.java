@@ -0,0 +1,102 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes large listings as a JSON array while the rows are still being read,
+ * so neither the entities nor the DTOs of the whole result are ever held at once.
+ * The persistence context is cleared periodically, keeping heap use flat however many rows there are.
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonArrayStreamer {
+
+    static final int FLUSH_EVERY = 500;
+
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Streams a single query. The stream must not trigger further queries per row: with MySQL row streaming
+     * (fetch size Integer.MIN_VALUE) the connection cannot run another statement until the result is drained.
+     */
+    public <T> StreamingResponseBody stream(Supplier<Stream<T>> rows, Function<T, ?> mapper) {
+        return out -> inReadOnlyTransaction(out, generator -> {
+            try (Stream<T> stream = rows.get()) {
+                Iterator<T> it = stream.iterator();
+                int written = 0;
+                while (it.hasNext()) {
+                    generator.writeObject(mapper.apply(it.next()));
+                    if (++written % FLUSH_EVERY == 0) {
+                        release(generator);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Streams a listing that is fetched chunk by chunk, for rows that need joins a single row stream can't carry.
+     *
+     * @param nextChunk Given the previous chunk (null at the start), returns the next one; an empty list ends the stream.
+     */
+    public <T> StreamingResponseBody streamChunks(Function<List<T>, List<T>> nextChunk, Function<T, ?> mapper) {
+        return out -> inReadOnlyTransaction(out, generator -> {
+            List<T> chunk = nextChunk.apply(null);
+            while (!chunk.isEmpty()) {
+                for (T row : chunk) {
+                    generator.writeObject(mapper.apply(row));
+                }
+                List<T> previous = chunk;
+                release(generator);
+                chunk = nextChunk.apply(previous);
+            }
+        });
+    }
+
+    private void inReadOnlyTransaction(OutputStream out, ArrayBody body) throws IOException {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        try (JsonGenerator generator = objectMapper.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            tx.executeWithoutResult(status -> {
+                try {
+                    body.write(generator);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        }
+    }
+
+    // Pushes what has been written to the client and drops the rows already sent from the persistence context
+    private void release(JsonGenerator generator) throws IOException {
+        generator.flush();
+        entityManager.clear();
+    }
+
+    @FunctionalInterface
+    private interface ArrayBody {
+        void write(JsonGenerator generator) throws IOException;
+    }
+}
@@ -0,0 +1,75 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.event.OrderLifecycleEvent;
+import com.ecobazaarX.EcoBazaarX.model.Order;
+import com.ecobazaarX.EcoBazaarX.model.OrderOutboxEvent;
+import com.ecobazaarX.EcoBazaarX.repository.OrderOutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes order lifecycle events to the outbox table as part of the transaction that changes the order.
+ */
+@Service
+public class OrderEventOutbox {
+
+    private static final TypeReference<List<OrderLifecycleEvent.Line>> LINES = new TypeReference<>() {
+    };
+
+    // Stored rows outlive deployments, so their format does not follow the web layer's Jackson settings
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final OrderOutboxEventRepository repository;
+
+    public OrderEventOutbox(OrderOutboxEventRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Records that the order was placed (previousStatus null) or moved from previousStatus to its current status.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Order order, Order.OrderStatus previousStatus) {
+        List<OrderLifecycleEvent.Line> lines = order.getOrderItems().stream()
+                .map(item -> new OrderLifecycleEvent.Line(item.getProduct().getProductId(), item.getQuantity(), item.getPrice()))
+                .toList();
+
+        OrderOutboxEvent event = new OrderOutboxEvent();
+        event.setOrderId(order.getOrderId());
+        event.setBuyerEmail(order.getUser().getEmail());
+        event.setPreviousStatus(previousStatus);
+        event.setStatus(order.getStatus());
+        event.setTotalPrice(order.getTotalPrice());
+        event.setLinesJson(write(lines));
+        event.setOccurredAt(LocalDateTime.now());
+        repository.save(event);
+    }
+
+    OrderLifecycleEvent toEvent(OrderOutboxEvent row) {
+        return new OrderLifecycleEvent(row.getId(), row.getOrderId(), row.getBuyerEmail(), row.getPreviousStatus(),
+                row.getStatus(), row.getTotalPrice(), read(row.getLinesJson()), row.getOccurredAt());
+    }
+
+    private String write(List<OrderLifecycleEvent.Line> lines) {
+        try {
+            return objectMapper.writeValueAsString(lines);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order event lines", e);
+        }
+    }
+
+    private List<OrderLifecycleEvent.Line> read(String json) {
+        try {
+            return objectMapper.readValue(json, LINES);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read order event lines", e);
+        }
+    }
+}
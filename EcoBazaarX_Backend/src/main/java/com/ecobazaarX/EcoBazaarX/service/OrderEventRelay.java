@@ -0,0 +1,131 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.event.OrderLifecycleEvent;
+import com.ecobazaarX.EcoBazaarX.model.OrderOutboxEvent;
+import com.ecobazaarX.EcoBazaarX.repository.OrderOutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Dispatches the order outbox to in-process subscribers ({@code @EventListener} methods for {@link OrderLifecycleEvent}).
+ * A short transaction claims a batch of events, oldest first, for a lease; subscribers then run outside any
+ * transaction, so no row locks are held while they work, and the dispatched events are deleted afterwards.
+ * If a subscriber throws, the events from that one on are released and dispatched again on the next run; if the
+ * instance dies, its claims lapse. Delivery is at least once, and since only an order's oldest waiting event can be
+ * claimed, one order's events always arrive in the order they happened.
+ */
+@Slf4j
+@Service
+public class OrderEventRelay {
+
+    private final OrderOutboxEventRepository repository;
+    private final OrderEventOutbox outbox;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration claimLease;
+    private final Timer deliveryLag;
+    private final Counter dispatched;
+    // Occurred-at of the oldest event still waiting, as of the last run; null when the outbox was empty
+    private volatile LocalDateTime oldestPending;
+
+    public OrderEventRelay(OrderOutboxEventRepository repository,
+                           OrderEventOutbox outbox,
+                           ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${ecobazaarx.order-outbox.batch-size:200}") int batchSize,
+                           @Value("${ecobazaarx.order-outbox.claim-lease-ms:60000}") long claimLeaseMillis) {
+        this.repository = repository;
+        this.outbox = outbox;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.claimLease = Duration.ofMillis(claimLeaseMillis);
+        this.deliveryLag = Timer.builder("orders.outbox.delivery.lag")
+                .description("Time from an order change committing to its event being dispatched")
+                .register(meterRegistry);
+        this.dispatched = Counter.builder("orders.outbox.dispatched")
+                .description("Order events dispatched to subscribers")
+                .register(meterRegistry);
+        Gauge.builder("orders.outbox.lag.seconds", this, OrderEventRelay::lagSeconds)
+                .description("Age of the oldest order event not yet dispatched")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Dispatches everything that is waiting, batch by batch; an order's next event becomes claimable once the one
+     * before it has been dispatched, so this runs until a claim comes back empty.
+     */
+    @Scheduled(fixedDelayString = "${ecobazaarx.order-outbox.relay-interval-ms:500}")
+    public void relay() {
+        try {
+            int count;
+            do {
+                count = dispatchBatch();
+            } while (count > 0);
+        } catch (RuntimeException e) {
+            log.warn("Order event dispatch failed; the batch will be retried", e);
+        } finally {
+            oldestPending = repository.findFirstByOrderByIdAsc().map(OrderOutboxEvent::getOccurredAt).orElse(null);
+        }
+    }
+
+    private int dispatchBatch() {
+        LocalDateTime claimedAt = LocalDateTime.now();
+        List<OrderOutboxEvent> batch = transactionTemplate.execute(status -> {
+            List<OrderOutboxEvent> claimed = repository.findClaimable(claimedAt, PageRequest.of(0, batchSize));
+            claimed.forEach(row -> row.setClaimedUntil(claimedAt.plus(claimLease)));
+            return claimed;
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        int delivered = 0;
+        try {
+            for (OrderOutboxEvent row : batch) {
+                eventPublisher.publishEvent(outbox.toEvent(row));
+                delivered++;
+            }
+        } finally {
+            settle(batch, delivered);
+        }
+        return delivered;
+    }
+
+    // Deletes what was delivered and hands the rest back for the next run
+    private void settle(List<OrderOutboxEvent> batch, int delivered) {
+        List<Long> done = batch.subList(0, delivered).stream().map(OrderOutboxEvent::getId).toList();
+        List<Long> undelivered = batch.subList(delivered, batch.size()).stream().map(OrderOutboxEvent::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!done.isEmpty()) repository.deleteAllByIdInBatch(done);
+            if (!undelivered.isEmpty()) repository.releaseClaims(undelivered);
+        });
+        // Recorded once the deletes have committed, so a retried event is not counted twice
+        LocalDateTime now = LocalDateTime.now();
+        for (OrderOutboxEvent row : batch.subList(0, delivered)) {
+            deliveryLag.record(Duration.between(row.getOccurredAt(), now));
+        }
+        dispatched.increment(delivered);
+    }
+
+    double lagSeconds() {
+        LocalDateTime oldest = oldestPending;
+        return oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0;
+    }
+}
@@ -0,0 +1,196 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderDTO;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderRequest;
+import com.ecobazaarX.EcoBazaarX.model.IdempotencyRecord;
+import com.ecobazaarX.EcoBazaarX.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Order creation keyed by a client-supplied Idempotency-Key.
+ * The first request with a key runs {@link OrderService#createOrder}; its response is stored with the key
+ * in the same transaction as the order, and kept in memory for fast replays. Retries get the stored response
+ * without touching stock again, and duplicates arriving while the first is still running wait for its result
+ * instead of running themselves.
+ */
+@Slf4j
+@Service
+public class OrderIdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    public record Result(OrderDTO order, boolean replayed) {
+    }
+
+    // The key was already used for a different request body
+    public static class KeyReusedException extends RuntimeException {
+        public KeyReusedException(String message) {
+            super(message);
+        }
+    }
+
+    private record Completed(String requestHash, OrderDTO order) {
+    }
+
+    private final OrderService orderService;
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Cache<String, Completed> recent;
+    private final ConcurrentMap<String, CompletableFuture<Completed>> inFlight = new ConcurrentHashMap<>();
+
+    public OrderIdempotencyService(OrderService orderService,
+                                   IdempotencyRecordRepository repository,
+                                   ObjectMapper objectMapper,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${ecobazaarx.idempotency.ttl:24h}") Duration ttl,
+                                   @Value("${ecobazaarx.idempotency.max-cached:100000}") long maxCached) {
+        this.orderService = orderService;
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(maxCached)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Result createOrder(OrderRequest orderRequest, String userEmail, String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters.");
+        }
+        String requestHash = hash(orderRequest);
+        String scope = userEmail + '\n' + idempotencyKey;
+
+        Completed cached = recent.getIfPresent(scope);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        CompletableFuture<Completed> mine = new CompletableFuture<>();
+        CompletableFuture<Completed> running = inFlight.putIfAbsent(scope, mine);
+        if (running != null) {
+            return replay(await(running), requestHash);
+        }
+        try {
+            Optional<Completed> stored = load(userEmail, idempotencyKey);
+            Completed completed = stored.orElseGet(() -> execute(orderRequest, userEmail, idempotencyKey, requestHash));
+            recent.put(scope, completed);
+            mine.complete(completed);
+            return stored.isPresent() ? replay(completed, requestHash) : new Result(completed.order(), false);
+        } catch (RuntimeException e) {
+            // Failures are not remembered: the client may retry with the same key
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(scope, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ecobazaarx.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Integer purged = transactionTemplate.execute(status -> repository.deleteExpired(LocalDateTime.now()));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private Completed execute(OrderRequest orderRequest, String userEmail, String idempotencyKey, String requestHash) {
+        try {
+            return transactionTemplate.execute(status -> {
+                // An expired key that has not been purged yet may be reused. The delete is flushed right away:
+                // Hibernate would otherwise run the insert below first and trip over the unique key
+                repository.findByUserEmailAndIdempotencyKey(userEmail, idempotencyKey).ifPresent(expired -> {
+                    repository.delete(expired);
+                    repository.flush();
+                });
+
+                OrderDTO order = orderService.createOrder(orderRequest, userEmail);
+                IdempotencyRecord record = new IdempotencyRecord();
+                record.setUserEmail(userEmail);
+                record.setIdempotencyKey(idempotencyKey);
+                record.setRequestHash(requestHash);
+                record.setResponseJson(toJson(order));
+                record.setExpiresAt(LocalDateTime.now().plus(ttl));
+                // Flushed here so a concurrent insert of the same key from another instance fails this transaction
+                repository.saveAndFlush(record);
+                return new Completed(requestHash, order);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance stored the key first; this attempt's order was rolled back with the insert
+            return load(userEmail, idempotencyKey).orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<Completed> load(String userEmail, String idempotencyKey) {
+        return repository.findByUserEmailAndIdempotencyKey(userEmail, idempotencyKey)
+                .filter(record -> record.getExpiresAt().isAfter(LocalDateTime.now()))
+                .map(record -> new Completed(record.getRequestHash(), fromJson(record.getResponseJson())));
+    }
+
+    private static Result replay(Completed completed, String requestHash) {
+        if (!completed.requestHash().equals(requestHash)) {
+            throw new KeyReusedException("Idempotency-Key was already used for a different order request.");
+        }
+        return new Result(completed.order(), true);
+    }
+
+    private static Completed await(CompletableFuture<Completed> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String hash(OrderRequest orderRequest) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(orderRequest));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not hash order request", e);
+        }
+    }
+
+    private String toJson(OrderDTO order) {
+        try {
+            return objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order response", e);
+        }
+    }
+
+    private OrderDTO fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, OrderDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored order response", e);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderIntakeStatusDTO;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderRequest;
+import com.ecobazaarX.EcoBazaarX.model.OrderIntake;
+import com.ecobazaarX.EcoBazaarX.repository.OrderIntakeRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous order intake for sale peaks.
+ * A submission is validated, written to the order_intakes table, put on a bounded queue and acknowledged with a
+ * handle, so the request thread does one small insert instead of placing the order. A few writer threads drain
+ * the queue and place up to batch-size orders per transaction through {@link OrderService#createOrders}, recording
+ * each outcome in that same transaction. When the queue is full, submissions are refused instead of piling up.
+ * Intakes left queued by an instance that went down are taken over once their claim lapses, and their status can
+ * be polled on any instance.
+ */
+@Slf4j
+@Service
+public class OrderIntakeService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    // Thrown when the queue is full; the client should retry later
+    public static class IntakeFullException extends RuntimeException {
+        public IntakeFullException() {
+            super("Order intake is at capacity.");
+        }
+    }
+
+    private record Intake(String handle, OrderRequest request, String userEmail) {
+    }
+
+    // Stored rows outlive deployments, so their format does not follow the web layer's Jackson settings
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final OrderService orderService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final OrderIntakeRepository intakeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Intake> queue;
+    private final int writers;
+    private final int batchSize;
+    private final Duration claimLease;
+    private final Duration statusTtl;
+    private final Timer batchTimer;
+    private final List<Thread> writerThreads = new ArrayList<>();
+    private volatile boolean running;
+
+    public OrderIntakeService(OrderService orderService,
+                              CatalogSnapshotService catalogSnapshotService,
+                              OrderIntakeRepository intakeRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${ecobazaarx.order-intake.queue-capacity:2000}") int queueCapacity,
+                              @Value("${ecobazaarx.order-intake.writers:2}") int writers,
+                              @Value("${ecobazaarx.order-intake.batch-size:25}") int batchSize,
+                              @Value("${ecobazaarx.order-intake.claim-lease:5m}") Duration claimLease,
+                              @Value("${ecobazaarx.order-intake.status-ttl:30m}") Duration statusTtl) {
+        this.orderService = orderService;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.intakeRepository = intakeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writers = writers;
+        this.batchSize = batchSize;
+        this.claimLease = claimLease;
+        this.statusTtl = statusTtl;
+        this.batchTimer = Timer.builder("orders.intake.batch")
+                .description("Time to place one batch of queued orders")
+                .register(meterRegistry);
+        Gauge.builder("orders.intake.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < writers; i++) {
+            Thread thread = new Thread(this::drain, "order-intake-writer-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            writerThreads.add(thread);
+        }
+    }
+
+    /**
+     * Stops accepting submissions and lets the writers place what is already queued.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread thread : writerThreads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    /**
+     * Validates, records and queues an order. Once this returns, the order is durable.
+     *
+     * @throws IllegalArgumentException if the request is malformed or names products that are not for sale.
+     * @throws IntakeFullException      if the queue is full.
+     */
+    public OrderIntakeStatusDTO submit(OrderRequest orderRequest, String userEmail) {
+        validate(orderRequest);
+        if (!running || queue.remainingCapacity() == 0) {
+            throw new IntakeFullException();
+        }
+        Intake intake = new Intake(UUID.randomUUID().toString(), orderRequest, userEmail);
+
+        OrderIntake row = new OrderIntake();
+        row.setHandle(intake.handle());
+        row.setUserEmail(userEmail);
+        row.setRequestJson(write(orderRequest));
+        row.setStatus(OrderIntakeStatusDTO.Status.QUEUED);
+        row.setCreatedAt(LocalDateTime.now());
+        // Held by this instance from the start, so no other one takes it over while it waits in our queue
+        row.setClaimedUntil(row.getCreatedAt().plus(claimLease));
+        intakeRepository.save(row);
+
+        if (!queue.offer(intake)) {
+            intakeRepository.deleteById(intake.handle());
+            throw new IntakeFullException();
+        }
+        return OrderIntakeStatusDTO.builder().handle(intake.handle()).status(OrderIntakeStatusDTO.Status.QUEUED).build();
+    }
+
+    /**
+     * @return The state of a submission, if the handle is known and belongs to this user.
+     */
+    public Optional<OrderIntakeStatusDTO> getStatus(String handle, String userEmail) {
+        return intakeRepository.findById(handle)
+                .filter(row -> row.getUserEmail().equals(userEmail))
+                .map(row -> OrderIntakeStatusDTO.builder()
+                        .handle(row.getHandle())
+                        .status(row.getStatus())
+                        .order(row.getOrderId() == null ? null
+                                : orderService.getOrderForUser(row.getOrderId(), userEmail).orElse(null))
+                        .error(row.getError())
+                        .build());
+    }
+
+    /**
+     * Takes over queued intakes whose claim has lapsed (their instance went down before placing them)
+     * and drops finished intakes once their status has outlived status-ttl.
+     * With the queue full, nothing is taken over this time, but the cleanup still runs.
+     */
+    @Scheduled(fixedDelayString = "${ecobazaarx.order-intake.recovery-interval-ms:30000}")
+    public void recover() {
+        if (!running) return;
+        LocalDateTime now = LocalDateTime.now();
+        int room = queue.remainingCapacity();
+        if (room > 0) {
+            takeOver(now, room);
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                intakeRepository.deleteFinishedBefore(OrderIntakeStatusDTO.Status.QUEUED, now.minus(statusTtl)));
+    }
+
+    private void takeOver(LocalDateTime now, int room) {
+        List<OrderIntake> abandoned = intakeRepository.findAbandoned(OrderIntakeStatusDTO.Status.QUEUED, now,
+                PageRequest.of(0, room));
+        int taken = 0;
+        for (OrderIntake row : abandoned) {
+            Integer claimed = transactionTemplate.execute(status -> intakeRepository.claim(
+                    row.getHandle(), OrderIntakeStatusDTO.Status.QUEUED, now, now.plus(claimLease)));
+            if (claimed != null && claimed == 1) {
+                if (!queue.offer(new Intake(row.getHandle(), read(row.getRequestJson()), row.getUserEmail()))) {
+                    // Our claim lapses again and the next run retries
+                    break;
+                }
+                taken++;
+            }
+        }
+        if (taken > 0) {
+            log.info("Order intake took over {} queued orders left by another instance", taken);
+        }
+    }
+
+    private void validate(OrderRequest orderRequest) {
+        if (orderRequest.getOrderItems() == null || orderRequest.getOrderItems().isEmpty()) {
+            throw new IllegalArgumentException("Order has no items.");
+        }
+        if (orderRequest.getShippingAddress() == null) {
+            throw new IllegalArgumentException("Shipping address is required.");
+        }
+        CatalogSnapshot catalog = catalogSnapshotService.current();
+        for (OrderRequest.CartItemDto item : orderRequest.getOrderItems()) {
+            if (item.getProductId() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Every item needs a product ID and a positive quantity.");
+            }
+            // Cheap early rejection against the in-memory catalog; stock itself is checked when the order is placed
+            if (catalog != null && catalog.get(item.getProductId()) == null) {
+                throw new IllegalArgumentException("Product is not for sale: " + item.getProductId());
+            }
+        }
+    }
+
+    private void drain() {
+        List<Intake> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Intake first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                batchTimer.record(() -> place(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // The intakes stay QUEUED and are taken over again once their claim lapses
+                log.error("Order intake writer failed on a batch of {}", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void place(List<Intake> batch) {
+        try {
+            placeAndRecord(batch);
+        } catch (RuntimeException e) {
+            // Something other than a business rule broke the shared transaction; place the orders one by one
+            log.warn("Batch of {} orders rolled back, retrying individually", batch.size(), e);
+            for (Intake intake : batch) {
+                try {
+                    placeAndRecord(List.of(intake));
+                } catch (RuntimeException single) {
+                    if (isRejection(single)) {
+                        fail(intake, single.getMessage());
+                    } else {
+                        // E.g. a deadlock, lock timeout or lost connection: the client was promised this order, so it
+                        // stays QUEUED and is taken over again once its claim lapses
+                        log.warn("Order intake {} stays queued after {}", intake.handle(), single.toString());
+                    }
+                }
+            }
+        }
+    }
+
+    // Places the batch and records every outcome in one transaction, so an intake is placed at most once:
+    // its row stays locked until the outcome commits, and a row no longer QUEUED is skipped
+    private void placeAndRecord(List<Intake> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, OrderIntake> rows = intakeRepository.findByHandleInAndStatusForUpdate(
+                            batch.stream().map(Intake::handle).toList(), OrderIntakeStatusDTO.Status.QUEUED)
+                    .stream()
+                    .collect(Collectors.toMap(OrderIntake::getHandle, Function.identity()));
+            List<Intake> pending = batch.stream().filter(intake -> rows.containsKey(intake.handle())).toList();
+            if (pending.isEmpty()) return;
+
+            List<OrderService.PlacementResult> results = orderService.createOrders(pending.stream()
+                    .map(intake -> new OrderService.OrderSubmission(intake.request(), intake.userEmail()))
+                    .toList());
+            for (int i = 0; i < pending.size(); i++) {
+                OrderIntake row = rows.get(pending.get(i).handle());
+                OrderService.PlacementResult result = results.get(i);
+                if (result.order() != null) {
+                    row.setStatus(OrderIntakeStatusDTO.Status.PLACED);
+                    row.setOrderId(result.order().getOrderId());
+                } else {
+                    row.setStatus(OrderIntakeStatusDTO.Status.FAILED);
+                    row.setError(truncate(result.error()));
+                }
+            }
+        });
+    }
+
+    // The order itself cannot be placed (unknown product, not enough stock, ...); trying again would not help
+    private static boolean isRejection(RuntimeException e) {
+        return e instanceof IllegalArgumentException || e instanceof IllegalStateException
+                || e instanceof EntityNotFoundException;
+    }
+
+    private void fail(Intake intake, String error) {
+        transactionTemplate.executeWithoutResult(status ->
+                intakeRepository.findByHandleInAndStatusForUpdate(List.of(intake.handle()), OrderIntakeStatusDTO.Status.QUEUED)
+                        .forEach(row -> {
+                            row.setStatus(OrderIntakeStatusDTO.Status.FAILED);
+                            row.setError(truncate(error == null ? "Order could not be placed." : error));
+                        }));
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private String write(OrderRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order request", e);
+        }
+    }
+
+    private OrderRequest read(String json) {
+        try {
+            return objectMapper.readValue(json, OrderRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read order request", e);
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.ecobazaarX.EcoBazaarX.service;
 
+import com.ecobazaarX.EcoBazaarX.dto.CursorPage;
+import com.ecobazaarX.EcoBazaarX.dto.KeysetCursor;
+import com.ecobazaarX.EcoBazaarX.dto.sellerdto.OrderStatusUpdateResultDTO;
 import com.ecobazaarX.EcoBazaarX.dto.sellerdto.SellerOrderDTO;
 import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderDTO;
 import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderRequest;
+import com.ecobazaarX.EcoBazaarX.event.ProductChangedEvent;
 import com.ecobazaarX.EcoBazaarX.mapper.OrderMapper;
 import com.ecobazaarX.EcoBazaarX.mapper.SellerOrderMapper;
 import com.ecobazaarX.EcoBazaarX.model.*;
@@ -11,16 +15,39 @@ import com.ecobazaarX.EcoBazaarX.repository.ProductRepository;
 import com.ecobazaarX.EcoBazaarX.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
+    static final int HISTORY_CHUNK_SIZE = 200;
+    static final int BULK_STATUS_CHUNK_SIZE = 50;
+    public static final int MAX_BULK_STATUS_ORDERS = 500;
+    static final int BULK_STATUS_ATTEMPTS = 3;
+    public static final int DEFAULT_HISTORY_PAGE_SIZE = 20;
+    public static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -30,10 +57,72 @@ public class OrderService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private JsonArrayStreamer jsonArrayStreamer;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private OrderEventOutbox orderEventOutbox;
+
+    @Autowired
+    private CarbonCalculatorService carbonCalculatorService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // --- Buyer Methods ---
 
+    // One order of a batch, and what became of it
+    public record OrderSubmission(OrderRequest request, String userEmail) {
+    }
+
+    public record PlacementResult(OrderDTO order, String error) {
+    }
+
     @Transactional
     public OrderDTO createOrder(OrderRequest orderRequest, String userEmail) {
+        Order order = placeOrder(orderRequest, userEmail);
+        // Ids are assigned on save but the rows are written, and createdAt stamped, only on flush
+        orderRepository.flush();
+        return OrderMapper.toDTO(order);
+    }
+
+    /**
+     * Places several orders in one transaction, so a batch costs one commit instead of one per order.
+     * An order that cannot be placed (unknown product, not enough stock, ...) hands back the stock it had
+     * already taken and is reported as failed; the rest of the batch is unaffected.
+     * Results are in submission order and returned only after the transaction has committed.
+     */
+    @Transactional
+    public List<PlacementResult> createOrders(List<OrderSubmission> submissions) {
+        List<Order> placed = new ArrayList<>(submissions.size());
+        List<String> errors = new ArrayList<>(submissions.size());
+        for (OrderSubmission submission : submissions) {
+            try {
+                placed.add(placeOrder(submission.request(), submission.userEmail()));
+                errors.add(null);
+            } catch (EntityNotFoundException | IllegalArgumentException | IllegalStateException e) {
+                placed.add(null);
+                errors.add(e.getMessage());
+            }
+        }
+        // One flush for the whole batch, so its orders and items go out as a few JDBC batches
+        orderRepository.flush();
+
+        List<PlacementResult> results = new ArrayList<>(submissions.size());
+        for (int i = 0; i < placed.size(); i++) {
+            Order order = placed.get(i);
+            results.add(new PlacementResult(order == null ? null : OrderMapper.toDTO(order), errors.get(i)));
+        }
+        return results;
+    }
+
+    private Order placeOrder(OrderRequest orderRequest, String userEmail) {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with email: " + userEmail));
 
@@ -42,13 +131,24 @@ public class OrderService {
         order.setShippingAddress(orderRequest.getShippingAddress());
         order.setStatus(Order.OrderStatus.PENDING_APPROVAL);
 
-        List<OrderItem> orderItems = orderRequest.getOrderItems().stream().map(itemDto -> {
-            Product product = productRepository.findById(itemDto.getProductId())
-                    .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + itemDto.getProductId()));
-            if (product.getStock() < itemDto.getQuantity()) {
-                throw new IllegalStateException("Not enough stock for product: " + product.getName());
+        // Total quantity per product in ascending id order: each product is decremented once, and carts that
+        // share products lock their rows in the same sequence, so they queue instead of deadlocking
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (OrderRequest.CartItemDto itemDto : orderRequest.getOrderItems()) {
+            if (itemDto.getQuantity() <= 0) {
+                // A negative quantity would turn the decrement into an increment
+                throw new IllegalArgumentException("Quantity must be positive for product ID: " + itemDto.getProductId());
             }
-            product.setStock(product.getStock() - itemDto.getQuantity());
+            quantities.merge(itemDto.getProductId(), itemDto.getQuantity(), Integer::sum);
+        }
+        reserveStock(quantities);
+
+        // One query for the whole cart, after the decrements so the loaded stock is current
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+
+        List<OrderItem> orderItems = orderRequest.getOrderItems().stream().map(itemDto -> {
+            Product product = products.get(itemDto.getProductId());
             OrderItem orderItem = new OrderItem();
             orderItem.setProduct(product);
             orderItem.setQuantity(itemDto.getQuantity());
@@ -63,9 +163,11 @@ public class OrderService {
 
         order.setOrderItems(orderItems);
         order.setTotalPrice(totalPrice);
+        order.setTransportEmission(carbonCalculatorService.estimateTransportEmission(order));
 
         Order savedOrder = orderRepository.save(order);
-        return OrderMapper.toDTO(savedOrder);
+        orderEventOutbox.record(savedOrder, null);
+        return savedOrder;
     }
 
     public List<OrderDTO> getOrdersForUser(String userEmail) {
@@ -75,9 +177,31 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
 
+    // One of the buyer's orders with its items, e.g. to report the outcome of an asynchronous submission
+    public Optional<OrderDTO> getOrderForUser(Long orderId, String userEmail) {
+        return orderRepository.findDetailedOrdersByIdIn(List.of(orderId)).stream()
+                .filter(order -> order.getUser().getEmail().equals(userEmail))
+                .findFirst()
+                .map(OrderMapper::toDTO);
+    }
+
+    /**
+     * Returns one page of the buyer's orders, newest first, with a cursor for the next page.
+     *
+     * @param cursor Token from the previous page's nextCursor, or null for the first page.
+     * @param size   Requested page size; clamped to [1, MAX_HISTORY_PAGE_SIZE].
+     * @throws IllegalArgumentException for a malformed cursor
+     */
+    public CursorPage<OrderDTO> getOrderPageForUser(String userEmail, String cursor, Integer size) {
+        return historyPage(cursor, size,
+                page -> orderRepository.findOrderIdsByUserEmail(userEmail, page),
+                (after, page) -> orderRepository.findOrderIdsByUserEmailAfter(userEmail, after.createdAt(), after.id(), page),
+                OrderMapper::toDTO);
+    }
+
     @Transactional
     public OrderDTO cancelOrder(Long orderId, String userEmail) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new EntityNotFoundException("Order not found with ID: " + orderId));
         if (!order.getUser().getEmail().equals(userEmail)) {
             throw new SecurityException("User does not have permission to cancel this order.");
@@ -86,50 +210,219 @@ public class OrderService {
         if (currentStatus != Order.OrderStatus.PENDING_APPROVAL && currentStatus != Order.OrderStatus.APPROVED) {
             throw new IllegalStateException("Order cannot be cancelled. Status: " + currentStatus);
         }
-        for (OrderItem item : order.getOrderItems()) {
-            Product product = item.getProduct();
-            product.setStock(product.getStock() + item.getQuantity());
-        }
+        restoreStock(order);
         order.setStatus(Order.OrderStatus.CANCELLED);
         Order savedOrder = orderRepository.save(order);
+        orderEventOutbox.record(savedOrder, currentStatus);
         return OrderMapper.toDTO(savedOrder);
     }
 
     // --- Seller Methods ---
 
     /**
-     * Fetches all active (not delivered or cancelled) orders for the seller dashboard.
+     * Fetches the active (not delivered or cancelled) orders that contain the seller's products, for the seller dashboard.
      */
-    public List<SellerOrderDTO> getAllOrdersForSeller() {
-        // ✅ UPDATED: Calls the new repository method for active orders.
-        return orderRepository.findAllActiveDetailedOrders().stream()
-                .map(SellerOrderMapper::toSellerDTO)
+    public List<SellerOrderDTO> getAllOrdersForSeller(String sellerEmail) {
+        return orderRepository.findActiveDetailedOrdersForSeller(sellerEmail).stream()
+                .map(order -> SellerOrderMapper.toSellerDTO(order, sellerEmail))
                 .collect(Collectors.toList());
     }
-    public List<SellerOrderDTO> getOrderHistoryForSeller() {
-        return orderRepository.findAllOrdersForHistory().stream()
-                .map(SellerOrderMapper::toSellerDTO)
-                .collect(Collectors.toList());
+
+    /**
+     * Streams the history of orders containing the seller's products as a JSON array of SellerOrderDTO, newest first.
+     * Orders are read in keyset-ordered chunks so only one chunk is ever in memory.
+     */
+    public StreamingResponseBody streamOrderHistoryForSeller(String sellerEmail) {
+        return jsonArrayStreamer.streamChunks(previous -> nextHistoryChunk(sellerEmail, previous),
+                (Order order) -> SellerOrderMapper.toSellerDTO(order, sellerEmail));
     }
+
     /**
-     * Updates the status of an order according to strict business logic.
+     * Returns one page of the history of orders containing the seller's products, newest first.
+     *
+     * @throws IllegalArgumentException for a malformed cursor
      */
+    public CursorPage<SellerOrderDTO> getOrderHistoryPageForSeller(String sellerEmail, String cursor, Integer size) {
+        return historyPage(cursor, size,
+                page -> orderRepository.findHistoryOrderIdsForSeller(sellerEmail, page),
+                (after, page) -> orderRepository.findHistoryOrderIdsForSellerAfter(sellerEmail, after.createdAt(), after.id(), page),
+                (Order order) -> SellerOrderMapper.toSellerDTO(order, sellerEmail));
+    }
+
+    // Pages order ids in SQL first, then fetches items and products for just that page: collection fetch joins
+    // cannot be limited in SQL, but an IN list of at most one page of ids can
+    private <T> CursorPage<T> historyPage(String cursor, Integer size,
+                                          Function<Pageable, List<Long>> firstIds,
+                                          BiFunction<KeysetCursor, Pageable, List<Long>> idsAfter,
+                                          Function<Order, T> mapper) {
+        int pageSize = size == null ? DEFAULT_HISTORY_PAGE_SIZE : Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        KeysetCursor after = (cursor == null || cursor.isBlank()) ? null : KeysetCursor.decode(cursor);
+
+        // One extra id tells whether another page exists without a COUNT query
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<Long> ids = after == null ? firstIds.apply(page) : idsAfter.apply(after, page);
+        boolean hasMore = ids.size() > pageSize;
+        List<Order> orders = detailedInOrder(hasMore ? ids.subList(0, pageSize) : ids);
 
+        String nextCursor = null;
+        if (hasMore && !orders.isEmpty()) {
+            Order last = orders.get(orders.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getOrderId()).encode();
+        }
+        return CursorPage.<T>builder()
+                .items(orders.stream().map(mapper).toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private List<Order> nextHistoryChunk(String sellerEmail, List<Order> previous) {
+        PageRequest chunk = PageRequest.of(0, HISTORY_CHUNK_SIZE);
+        List<Long> ids;
+        if (previous == null) {
+            ids = orderRepository.findHistoryOrderIdsForSeller(sellerEmail, chunk);
+        } else {
+            Order last = previous.get(previous.size() - 1);
+            ids = orderRepository.findHistoryOrderIdsForSellerAfter(sellerEmail, last.getCreatedAt(), last.getOrderId(), chunk);
+        }
+        return detailedInOrder(ids);
+    }
+
+    // Loads the given orders with their buyer, items and products, keeping the order of the ids
+    private List<Order> detailedInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Order> byId = orderRepository.findDetailedOrdersByIdIn(ids).stream()
+                .collect(Collectors.toMap(Order::getOrderId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Updates the status of one of the seller's orders according to strict business logic.
+     * An order holding none of the seller's products is treated as not found,
+     * and one that also holds other sellers' items cannot be cancelled by a seller.
+     *
+     * @return The order as the seller sees it: only their own items and their total.
+     */
     @Transactional
-    public SellerOrderDTO updateOrderStatus(Long orderId, String newStatusStr) {
-        Order order = orderRepository.findById(orderId)
+    public SellerOrderDTO updateOrderStatus(Long orderId, String newStatusStr, String sellerEmail) {
+        Order order = orderRepository.findByIdForUpdate(orderId)
+                .filter(o -> holdsProductOf(o, sellerEmail))
                 .orElseThrow(() -> new EntityNotFoundException("Order not found with ID: " + orderId));
 
         Order.OrderStatus currentStatus = order.getStatus();
-        Order.OrderStatus newStatus;
+        Order.OrderStatus newStatus = parseStatus(newStatusStr);
+        checkTransition(currentStatus, newStatus);
+        checkSellerMayApply(order, newStatus, sellerEmail);
 
+        // If the order is being cancelled by the seller, restore stock.
+        if (newStatus == Order.OrderStatus.CANCELLED) {
+            restoreStock(order);
+        }
+
+        order.setStatus(newStatus);
+        Order updatedOrder = orderRepository.save(order);
+        orderEventOutbox.record(updatedOrder, currentStatus);
+        return SellerOrderMapper.toSellerDTO(updatedOrder, sellerEmail);
+    }
+
+    /**
+     * Moves several of the seller's orders to the same status, e.g. approving or shipping a day's orders at once.
+     * Each chunk of BULK_STATUS_CHUNK_SIZE orders is loaded with one query and committed in one transaction;
+     * stock of the chunk's cancelled orders is put back with one increment per product.
+     * Every order is checked against the same state machine as {@link #updateOrderStatus}; one that cannot move,
+     * holds none of the seller's products, or would be cancelled while holding other sellers' items,
+     * is reported as failed without affecting the others.
+     * If another change to one of the chunk's orders commits first, the chunk rolls back and is applied again
+     * against the new statuses, so an order is never cancelled (and restocked) twice.
+     *
+     * @return One result per distinct order id, in request order.
+     * @throws IllegalArgumentException for an unknown status or more than MAX_BULK_STATUS_ORDERS orders
+     */
+    public List<OrderStatusUpdateResultDTO> updateOrderStatuses(List<Long> orderIds, String newStatusStr, String sellerEmail) {
+        Order.OrderStatus newStatus = parseStatus(newStatusStr);
+        List<Long> ids = List.copyOf(new LinkedHashSet<>(orderIds));
+        if (ids.size() > MAX_BULK_STATUS_ORDERS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_STATUS_ORDERS + " orders can be updated at once.");
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<OrderStatusUpdateResultDTO> results = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += BULK_STATUS_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_STATUS_CHUNK_SIZE, ids.size()));
+            try {
+                results.addAll(applyStatusWithRetry(transactionTemplate, chunk, newStatus, sellerEmail));
+            } catch (RuntimeException e) {
+                // The chunk rolled back as a whole; earlier chunks stay committed
+                for (Long orderId : chunk) {
+                    results.add(OrderStatusUpdateResultDTO.builder().orderId(orderId).error(e.getMessage()).build());
+                }
+            }
+        }
+        return results;
+    }
+
+    private List<OrderStatusUpdateResultDTO> applyStatusWithRetry(TransactionTemplate transactionTemplate, List<Long> chunk,
+                                                                  Order.OrderStatus newStatus, String sellerEmail) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> applyStatus(chunk, newStatus, sellerEmail));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == BULK_STATUS_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private List<OrderStatusUpdateResultDTO> applyStatus(List<Long> orderIds, Order.OrderStatus newStatus, String sellerEmail) {
+        Map<Long, Order> byId = orderRepository.findDetailedOrdersByIdIn(orderIds).stream()
+                .collect(Collectors.toMap(Order::getOrderId, Function.identity()));
+
+        List<OrderStatusUpdateResultDTO> results = new ArrayList<>(orderIds.size());
+        Map<Long, Integer> restock = new TreeMap<>();
+        for (Long orderId : orderIds) {
+            Order order = byId.get(orderId);
+            if (order == null || !holdsProductOf(order, sellerEmail)) {
+                results.add(OrderStatusUpdateResultDTO.builder().orderId(orderId)
+                        .error("Order not found with ID: " + orderId).build());
+                continue;
+            }
+            Order.OrderStatus currentStatus = order.getStatus();
+            try {
+                checkTransition(currentStatus, newStatus);
+                checkSellerMayApply(order, newStatus, sellerEmail);
+            } catch (IllegalStateException e) {
+                results.add(OrderStatusUpdateResultDTO.builder().orderId(orderId).error(e.getMessage()).build());
+                continue;
+            }
+            if (newStatus == Order.OrderStatus.CANCELLED) {
+                for (OrderItem item : order.getOrderItems()) {
+                    restock.merge(item.getProduct().getProductId(), item.getQuantity(), Integer::sum);
+                }
+            }
+            order.setStatus(newStatus);
+            orderEventOutbox.record(order, currentStatus);
+            results.add(OrderStatusUpdateResultDTO.builder().orderId(orderId).updated(true)
+                    .order(SellerOrderMapper.toSellerDTO(order, sellerEmail)).build());
+        }
+        // The status changes themselves go out as one JDBC batch when the chunk commits
+        returnStock(restock);
+        return results;
+    }
+
+    private static Order.OrderStatus parseStatus(String newStatusStr) {
         try {
-            newStatus = Order.OrderStatus.valueOf(newStatusStr.toUpperCase());
-        } catch (IllegalArgumentException e) {
+            return Order.OrderStatus.valueOf(newStatusStr.toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
             throw new IllegalArgumentException("Invalid status value: " + newStatusStr);
         }
+    }
 
-        // ✅ CRITICAL FIX: State machine for order status transitions
+    // ✅ CRITICAL FIX: State machine for order status transitions
+    private static void checkTransition(Order.OrderStatus currentStatus, Order.OrderStatus newStatus) {
         switch (currentStatus) {
             case PENDING_APPROVAL:
                 if (newStatus != Order.OrderStatus.APPROVED && newStatus != Order.OrderStatus.CANCELLED) {
@@ -151,18 +444,66 @@ public class OrderService {
                 // Final states: no transitions are allowed from these states.
                 throw new IllegalStateException("Order is already in a final state and cannot be changed.");
         }
+    }
 
-        // If the order is being cancelled by the seller, restore stock.
-        if (newStatus == Order.OrderStatus.CANCELLED) {
-            for (OrderItem item : order.getOrderItems()) {
-                Product product = item.getProduct();
-                product.setStock(product.getStock() + item.getQuantity());
+    // Cancelling ends the sale for everyone on the order and restocks all of its products,
+    // so a seller may only cancel orders made up entirely of their own items
+    private static void checkSellerMayApply(Order order, Order.OrderStatus newStatus, String sellerEmail) {
+        if (newStatus == Order.OrderStatus.CANCELLED && !order.getOrderItems().stream()
+                .allMatch(item -> sellerEmail.equals(item.getProduct().getSeller().getEmail()))) {
+            throw new IllegalStateException("Order also holds other sellers' items; only the buyer can cancel it.");
+        }
+    }
+
+    private static boolean holdsProductOf(Order order, String sellerEmail) {
+        return order.getOrderItems().stream()
+                .anyMatch(item -> sellerEmail.equals(item.getProduct().getSeller().getEmail()));
+    }
+
+    // Takes stock for every product with a single conditional UPDATE each (or from the in-memory ledger when enabled);
+    // nothing is read first, so there is no window to oversell in. If one product falls short, the stock already
+    // taken is handed back before failing, so the order leaves no trace even when its transaction goes on to commit.
+    private void reserveStock(Map<Long, Integer> quantities) {
+        Map<Long, Integer> taken = new TreeMap<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Long productId = entry.getKey();
+            boolean reserved = stockLedger.isEnabled()
+                    ? stockLedger.reserve(productId, entry.getValue())
+                    : productRepository.decrementStock(productId, entry.getValue()) == 1;
+            if (!reserved) {
+                returnStock(taken);
+                Product product = productRepository.findById(productId)
+                        .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + productId));
+                throw new IllegalStateException("Not enough stock for product: " + product.getName());
             }
+            taken.put(productId, entry.getValue());
         }
+        stockChanged(taken.keySet());
+    }
 
-        order.setStatus(newStatus);
-        Order updatedOrder = orderRepository.save(order);
-        return SellerOrderMapper.toSellerDTO(updatedOrder);
+    // Puts a cancelled order's stock back, one atomic increment per product in ascending id order
+    private void restoreStock(Order order) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            quantities.merge(item.getProduct().getProductId(), item.getQuantity(), Integer::sum);
+        }
+        returnStock(quantities);
+    }
+
+    private void returnStock(Map<Long, Integer> quantities) {
+        if (stockLedger.isEnabled()) {
+            quantities.forEach(stockLedger::release);
+        } else {
+            quantities.forEach(productRepository::incrementStock);
+            stockChanged(quantities.keySet());
+        }
     }
-}
 
+    // Catalog views list stock too; with the ledger enabled its flush announces the change instead
+    private void stockChanged(Collection<Long> productIds) {
+        if (stockLedger.isEnabled()) return;
+        for (Long productId : productIds) {
+            eventPublisher.publishEvent(new ProductChangedEvent(productId, ProductChangedEvent.ChangeType.STOCK));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductDetailDTO;
+import com.ecobazaarX.EcoBazaarX.event.OrderLifecycleEvent;
+import com.ecobazaarX.EcoBazaarX.event.ProductChangedEvent;
+import com.ecobazaarX.EcoBazaarX.model.Order;
+import com.ecobazaarX.EcoBazaarX.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Public product pages, cached in a size-bounded Caffeine (W-TinyLFU) cache.
+ * A miss is loaded through the cache itself, so concurrent requests for the same cold product
+ * wait for one database query instead of each issuing their own. Unknown or inactive ids are
+ * cached too, as empty entries, so they cannot be used to hammer the database either.
+ */
+@Service
+public class ProductDetailService {
+
+    // Weight of a cached "not found"
+    private static final int EMPTY_WEIGHT = 64;
+
+    private final ProductRepository productRepository;
+    private final Cache<Long, Optional<ProductDetailDTO>> cache;
+
+    public ProductDetailService(ProductRepository productRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${ecobazaarx.product-detail-cache.max-bytes:16777216}") long maxBytes,
+                                @Value("${ecobazaarx.product-detail-cache.ttl:5m}") Duration ttl) {
+        this.productRepository = productRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long id, Optional<ProductDetailDTO> detail) -> detail.map(ProductDetailDTO::estimatedSize).orElse(EMPTY_WEIGHT))
+                // Placed orders invalidate through the order outbox; this bounds staleness should that lag behind
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "product.detail");
+    }
+
+    public Optional<ProductDetailDTO> getProduct(Long productId) {
+        return cache.get(productId, productRepository::findActiveDetail);
+    }
+
+    /**
+     * Drops the cached page once a product write has committed.
+     * An in-flight load for the same id finishes before the entry is removed, so it cannot resurrect old data.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        cache.invalidate(event.getProductId());
+    }
+
+    // For bulk writes that bypass ProductChangedEvent, such as carbon recomputation
+    public void invalidate(Collection<Long> productIds) {
+        cache.invalidateAll(productIds);
+    }
+
+    // Placing an order takes stock and adds units sold; cancelling it (the only way stock comes back) restocks
+    @EventListener
+    public void onOrderEvent(OrderLifecycleEvent event) {
+        if (event.isPlacement() || event.getStatus() == Order.OrderStatus.CANCELLED) {
+            event.getLines().forEach(line -> cache.invalidate(line.productId()));
+        }
+    }
+}
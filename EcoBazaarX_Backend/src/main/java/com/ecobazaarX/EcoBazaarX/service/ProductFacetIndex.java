@@ -0,0 +1,322 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap index over the active catalog for multi-select faceted filtering.
+ * <p>
+ * Each product owns an ordinal; every facet value (category, zero-waste flag, price band,
+ * carbon band) keeps a bitmap of the ordinals that carry it. Filters are bitmap intersections of
+ * per-facet unions and facet counts are intersection cardinalities, so neither touches the products.
+ * Ordinals follow product id order, which is creation order, and a product keeps its ordinal while it is
+ * inactive, so a reactivated product returns to its place. Results are walked newest first by scanning the
+ * result bitmap from its highest bit down; a product first seen out of order (say, reactivated after a
+ * reload) is slotted in by shifting the ordinals above it, which is rare enough to do under the write lock.
+ * <p>
+ * The bitmaps are {@link BitSet}s: ordinals are contiguous over the products seen since the last reload,
+ * so one bit per product is already compact, without the container bookkeeping a Roaring bitmap needs.
+ * A full reload builds a new index rather than clearing this one.
+ */
+public class ProductFacetIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String ZERO_WASTE = "zeroWaste";
+    public static final String PRICE = "price";
+    public static final String CARBON = "carbon";
+
+    public record Query(Set<String> categories, Boolean zeroWaste, Set<String> priceBands, Set<String> carbonBands) {
+    }
+
+    public record Result(int total, List<Long> productIds, Long nextAfter, Map<String, Map<String, Integer>> facets) {
+    }
+
+    private final double[] priceBounds;
+    private final double[] carbonBounds;
+    private final String[] priceLabels;
+    private final String[] carbonLabels;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> ordinalByProduct = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final BitSet zeroWaste = new BitSet();
+    private final Map<String, BitSet> byCategory = new TreeMap<>();
+    private final BitSet[] byPrice;
+    private final BitSet[] byCarbon;
+
+    // Per-ordinal facet values, needed to clear old bits when a product changes
+    private long[] productIds = new long[1024];
+    private String[] categories = new String[1024];
+    private byte[] priceBands = new byte[1024];
+    private byte[] carbonBands = new byte[1024];
+    private int nextOrdinal;
+
+    /**
+     * @param priceBounds  Ascending upper bounds of the price bands; the last band is open-ended.
+     * @param carbonBounds Ascending upper bounds of the carbon bands (kg CO2); the last band is open-ended.
+     */
+    public ProductFacetIndex(double[] priceBounds, double[] carbonBounds) {
+        this.priceBounds = priceBounds.clone();
+        this.carbonBounds = carbonBounds.clone();
+        this.priceLabels = labels(priceBounds);
+        this.carbonLabels = labels(carbonBounds);
+        this.byPrice = bitmaps(priceBounds.length + 1);
+        this.byCarbon = bitmaps(carbonBounds.length + 1);
+    }
+
+    public void upsert(long productId, String category, boolean isZeroWaste, BigDecimal price, Double carbonEmission) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = ordinalByProduct.get(productId);
+            int ordinal;
+            if (existing != null) {
+                ordinal = existing;
+                clearBits(ordinal);
+            } else {
+                ordinal = insertionPoint(productId);
+                ensureCapacity(nextOrdinal);
+                if (ordinal < nextOrdinal) {
+                    shiftUp(ordinal);
+                }
+                nextOrdinal++;
+                ordinalByProduct.put(productId, ordinal);
+                productIds[ordinal] = productId;
+            }
+
+            live.set(ordinal);
+            categories[ordinal] = category;
+            if (category != null) {
+                byCategory.computeIfAbsent(category, c -> new BitSet()).set(ordinal);
+            }
+            if (isZeroWaste) {
+                zeroWaste.set(ordinal);
+            }
+            priceBands[ordinal] = (byte) band(priceBounds, price == null ? null : price.doubleValue());
+            if (priceBands[ordinal] >= 0) byPrice[priceBands[ordinal]].set(ordinal);
+            carbonBands[ordinal] = (byte) band(carbonBounds, carbonEmission);
+            if (carbonBands[ordinal] >= 0) byCarbon[carbonBands[ordinal]].set(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The ordinal stays reserved for the product, in case it becomes active again
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalByProduct.get(productId);
+            if (ordinal != null && live.get(ordinal)) {
+                clearBits(ordinal);
+                categories[ordinal] = null;
+                priceBands[ordinal] = -1;
+                carbonBands[ordinal] = -1;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Filters the catalog and counts every facet value under the other active filters
+     * (multi-select semantics: picking a category does not zero out the other categories' counts).
+     *
+     * @param after Product id of the last item of the previous page, or null for the first page.
+     * @param limit Maximum number of product ids to return, newest first.
+     */
+    public Result query(Query query, Long after, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet categoryFilter = categoryFilter(query.categories());
+            Boolean zeroWasteFilter = query.zeroWaste();
+            BitSet priceFilter = bandFilter(query.priceBands(), byPrice, priceLabels);
+            BitSet carbonFilter = bandFilter(query.carbonBands(), byCarbon, carbonLabels);
+
+            // Three working bitmaps per query, reused for every count
+            BitSet matches = new BitSet(nextOrdinal);
+            BitSet base = new BitSet(nextOrdinal);
+            BitSet scratch = new BitSet(nextOrdinal);
+            intersect(matches, categoryFilter, zeroWasteFilter, priceFilter, carbonFilter);
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            intersect(base, null, zeroWasteFilter, priceFilter, carbonFilter);
+            Map<String, Integer> categoryCounts = new LinkedHashMap<>();
+            byCategory.forEach((value, bits) -> categoryCounts.put(value, andCardinality(base, bits, scratch)));
+            facets.put(CATEGORY, categoryCounts);
+
+            intersect(base, categoryFilter, null, priceFilter, carbonFilter);
+            int zeroWasteCount = andCardinality(base, zeroWaste, scratch);
+            Map<String, Integer> zeroWasteCounts = new LinkedHashMap<>();
+            zeroWasteCounts.put("true", zeroWasteCount);
+            zeroWasteCounts.put("false", base.cardinality() - zeroWasteCount);
+            facets.put(ZERO_WASTE, zeroWasteCounts);
+
+            intersect(base, categoryFilter, zeroWasteFilter, null, carbonFilter);
+            facets.put(PRICE, bandCounts(base, byPrice, priceLabels, scratch));
+            intersect(base, categoryFilter, zeroWasteFilter, priceFilter, null);
+            facets.put(CARBON, bandCounts(base, byCarbon, carbonLabels, scratch));
+
+            List<Long> ids = new ArrayList<>(Math.max(0, Math.min(limit, 256)));
+            int start = nextOrdinal - 1;
+            if (after != null) {
+                Integer afterOrdinal = ordinalByProduct.get(after);
+                // A product this index never saw still has a place in id order
+                start = (afterOrdinal != null ? afterOrdinal : insertionPoint(after)) - 1;
+            }
+            int ordinal = start < 0 ? -1 : matches.previousSetBit(start);
+            while (ordinal >= 0 && ids.size() < limit) {
+                ids.add(productIds[ordinal]);
+                ordinal = matches.previousSetBit(ordinal - 1);
+            }
+            Long nextAfter = (ordinal >= 0 && !ids.isEmpty()) ? ids.get(ids.size() - 1) : null;
+
+            return new Result(matches.cardinality(), ids, nextAfter, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<String> priceBandLabels() {
+        return List.of(priceLabels);
+    }
+
+    public List<String> carbonBandLabels() {
+        return List.of(carbonLabels);
+    }
+
+    // Union of the selected categories, or null when the facet is not filtered
+    private BitSet categoryFilter(Set<String> values) {
+        if (values == null || values.isEmpty()) return null;
+        BitSet result = new BitSet();
+        for (String value : values) {
+            BitSet bits = byCategory.get(value);
+            if (bits != null) result.or(bits);
+        }
+        return result;
+    }
+
+    private static BitSet bandFilter(Set<String> labels, BitSet[] bands, String[] bandLabels) {
+        if (labels == null || labels.isEmpty()) return null;
+        BitSet result = new BitSet();
+        for (int i = 0; i < bandLabels.length; i++) {
+            if (labels.contains(bandLabels[i])) result.or(bands[i]);
+        }
+        return result;
+    }
+
+    // Overwrites target with the live products passing every given filter; null filters are skipped
+    private void intersect(BitSet target, BitSet categories, Boolean wantZeroWaste, BitSet prices, BitSet carbon) {
+        target.clear();
+        target.or(live);
+        if (categories != null) target.and(categories);
+        if (wantZeroWaste != null) {
+            if (wantZeroWaste) {
+                target.and(zeroWaste);
+            } else {
+                target.andNot(zeroWaste);
+            }
+        }
+        if (prices != null) target.and(prices);
+        if (carbon != null) target.and(carbon);
+    }
+
+    private static Map<String, Integer> bandCounts(BitSet base, BitSet[] bands, String[] labels, BitSet scratch) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int i = 0; i < bands.length; i++) {
+            counts.put(labels[i], andCardinality(base, bands[i], scratch));
+        }
+        return counts;
+    }
+
+    private static int andCardinality(BitSet a, BitSet b, BitSet scratch) {
+        scratch.clear();
+        scratch.or(a);
+        scratch.and(b);
+        return scratch.cardinality();
+    }
+
+    // Ordinal a product with this id gets (or would get) in id order
+    private int insertionPoint(long productId) {
+        int pos = Arrays.binarySearch(productIds, 0, nextOrdinal, productId);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+
+    // Moves every ordinal from 'from' up by one to make room for a product that arrived out of id order
+    private void shiftUp(int from) {
+        System.arraycopy(productIds, from, productIds, from + 1, nextOrdinal - from);
+        System.arraycopy(categories, from, categories, from + 1, nextOrdinal - from);
+        System.arraycopy(priceBands, from, priceBands, from + 1, nextOrdinal - from);
+        System.arraycopy(carbonBands, from, carbonBands, from + 1, nextOrdinal - from);
+        shiftUp(live, from);
+        shiftUp(zeroWaste, from);
+        byCategory.values().forEach(bits -> shiftUp(bits, from));
+        Arrays.stream(byPrice).forEach(bits -> shiftUp(bits, from));
+        Arrays.stream(byCarbon).forEach(bits -> shiftUp(bits, from));
+        ordinalByProduct.replaceAll((productId, ordinal) -> ordinal >= from ? ordinal + 1 : ordinal);
+    }
+
+    private void shiftUp(BitSet bits, int from) {
+        BitSet moved = bits.get(from, nextOrdinal);
+        bits.clear(from, nextOrdinal + 1);
+        for (int i = moved.nextSetBit(0); i >= 0; i = moved.nextSetBit(i + 1)) {
+            bits.set(from + 1 + i);
+        }
+    }
+
+    private void clearBits(int ordinal) {
+        live.clear(ordinal);
+        zeroWaste.clear(ordinal);
+        String category = categories[ordinal];
+        if (category != null) {
+            BitSet bits = byCategory.get(category);
+            bits.clear(ordinal);
+            if (bits.isEmpty()) byCategory.remove(category);
+        }
+        if (priceBands[ordinal] >= 0) byPrice[priceBands[ordinal]].clear(ordinal);
+        if (carbonBands[ordinal] >= 0) byCarbon[carbonBands[ordinal]].clear(ordinal);
+    }
+
+    private void ensureCapacity(int ordinal) {
+        if (ordinal < productIds.length) return;
+        int size = productIds.length * 2;
+        productIds = Arrays.copyOf(productIds, size);
+        categories = Arrays.copyOf(categories, size);
+        priceBands = Arrays.copyOf(priceBands, size);
+        carbonBands = Arrays.copyOf(carbonBands, size);
+    }
+
+    // Index of the band containing value, or -1 when the value is unknown
+    private static int band(double[] bounds, Double value) {
+        if (value == null) return -1;
+        for (int i = 0; i < bounds.length; i++) {
+            if (value < bounds[i]) return i;
+        }
+        return bounds.length;
+    }
+
+    private static String[] labels(double[] bounds) {
+        String[] labels = new String[bounds.length + 1];
+        String lower = "0";
+        for (int i = 0; i < bounds.length; i++) {
+            String upper = BigDecimal.valueOf(bounds[i]).stripTrailingZeros().toPlainString();
+            labels[i] = lower + "-" + upper;
+            lower = upper;
+        }
+        labels[bounds.length] = lower + "+";
+        return labels;
+    }
+
+    private static BitSet[] bitmaps(int count) {
+        BitSet[] bitmaps = new BitSet[count];
+        for (int i = 0; i < count; i++) bitmaps[i] = new BitSet();
+        return bitmaps;
+    }
+}
@@ -0,0 +1,84 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductFacetResultDTO;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductSummaryDTO;
+import com.ecobazaarX.EcoBazaarX.event.CatalogChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Faceted filtering over category, zero-waste, price band and carbon band.
+ * Backed by {@link ProductFacetIndex}, which follows the catalog snapshot product by product;
+ * a full reload builds a new index and swaps it in, so queries never see a half-built one.
+ */
+@Service
+public class ProductFacetService {
+
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final double[] priceBounds;
+    private final double[] carbonBounds;
+    private volatile ProductFacetIndex index;
+
+    public ProductFacetService(CatalogSnapshotService catalogSnapshotService,
+                               @Value("${ecobazaarx.facets.price-bounds:250,500,1000,2500}") double[] priceBounds,
+                               @Value("${ecobazaarx.facets.carbon-bounds:1,2.5,5,10}") double[] carbonBounds) {
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.priceBounds = priceBounds;
+        this.carbonBounds = carbonBounds;
+        this.index = new ProductFacetIndex(priceBounds, carbonBounds);
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.isStockOnly()) {
+            return;
+        }
+        if (event.isFullReload()) {
+            ProductFacetIndex rebuilt = new ProductFacetIndex(priceBounds, carbonBounds);
+            // In id order, so every product is appended rather than slotted in
+            List<ProductSummaryDTO> products = new ArrayList<>(event.getSnapshot().getProducts());
+            products.sort(Comparator.comparing(ProductSummaryDTO::getProductId));
+            for (ProductSummaryDTO p : products) {
+                index(rebuilt, p);
+            }
+            index = rebuilt;
+        } else if (event.getCurrent() != null) {
+            index(index, event.getCurrent());
+        } else {
+            index.remove(event.getProductId());
+        }
+    }
+
+    public ProductFacetResultDTO filter(Set<String> categories, Boolean zeroWaste, Set<String> priceBands,
+                                        Set<String> carbonBands, Long after, Integer limit) {
+        int pageSize = PublicProductService.clampPageSize(limit);
+        ProductFacetIndex.Result result = index.query(
+                new ProductFacetIndex.Query(categories, zeroWaste, priceBands, carbonBands), after, pageSize);
+
+        List<ProductSummaryDTO> items = new ArrayList<>(result.productIds().size());
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot != null) {
+            for (Long id : result.productIds()) {
+                ProductSummaryDTO product = snapshot.get(id);
+                if (product != null) items.add(product);
+            }
+        }
+
+        return ProductFacetResultDTO.builder()
+                .total(result.total())
+                .items(items)
+                .nextAfter(result.nextAfter())
+                .facets(result.facets())
+                .build();
+    }
+
+    private static void index(ProductFacetIndex target, ProductSummaryDTO p) {
+        target.upsert(p.getProductId(), p.getCategory(), p.isZeroWasteProduct(), p.getPrice(), p.getCarbonEmission());
+    }
+}
@@ -0,0 +1,365 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Purpose-built inverted index over product name, category and description with BM25 ranking.
+ * <p>
+ * Every indexed version of a product gets a fresh internal ordinal; updating a product tombstones
+ * its old ordinal and appends a new one, so writes never rewrite existing posting lists.
+ * Tombstoned entries are skipped at query time and leave the document frequencies as soon as they are tombstoned,
+ * so BM25 weights only ever reflect live products; once they exceed a quarter of the live documents they are
+ * purged and the live ordinals renumbered densely, so ordinals stay bounded by the number of live products.
+ * Reads share a read lock; the (rare) writes take the write lock. A full rebuild fills a new index and swaps it in.
+ */
+public class ProductSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float CATEGORY_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "the", "this", "to", "with");
+
+    public record Hit(long productId, float score) {
+    }
+
+    public record SearchResult(List<Hit> hits, int totalHits) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinalByProduct = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    private long[] productIds = new long[1024];
+    private float[] docLengths = new float[1024];
+    // The posting lists each ordinal appears in, so tombstoning it can take it out of their live counts
+    private Postings[][] docPostings = new Postings[1024][];
+    private int nextOrdinal;
+    private int deletedCount;
+    private double totalLength;
+
+    /**
+     * Indexes a product, replacing any previously indexed version of it.
+     */
+    public void upsert(long productId, String name, String description, String category) {
+        Map<String, Float> terms = new LinkedHashMap<>();
+        float length = 0;
+        length += collect(terms, name, NAME_WEIGHT);
+        length += collect(terms, category, CATEGORY_WEIGHT);
+        length += collect(terms, description, DESCRIPTION_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+
+            int ordinal = nextOrdinal++;
+            if (ordinal == productIds.length) {
+                productIds = Arrays.copyOf(productIds, ordinal * 2);
+                docLengths = Arrays.copyOf(docLengths, ordinal * 2);
+                docPostings = Arrays.copyOf(docPostings, ordinal * 2);
+            }
+            productIds[ordinal] = productId;
+            docLengths[ordinal] = length;
+            totalLength += length;
+            ordinalByProduct.put(productId, ordinal);
+
+            Postings[] lists = new Postings[terms.size()];
+            int i = 0;
+            for (Map.Entry<String, Float> term : terms.entrySet()) {
+                Postings list = postings.computeIfAbsent(term.getKey(), t -> new Postings());
+                list.add(ordinal, term.getValue());
+                lists[i++] = list;
+            }
+            docPostings[ordinal] = lists;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalByProduct.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks live products against the query terms (OR semantics, BM25 scoring).
+     *
+     * @param query Free text; tokenized the same way as indexed fields.
+     * @param limit Maximum number of hits to return.
+     */
+    public SearchResult search(String query, int limit) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty() || limit <= 0) {
+            return new SearchResult(List.of(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            int liveDocs = ordinalByProduct.size();
+            if (liveDocs == 0) {
+                return new SearchResult(List.of(), 0);
+            }
+            float avgLength = (float) (totalLength / liveDocs);
+
+            List<Postings> lists = new ArrayList<>(terms.size());
+            int candidates = 0;
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list != null && list.live > 0) {
+                    lists.add(list);
+                    candidates += list.live;
+                }
+            }
+            // Sized to what the query can match, not to the whole index
+            Scores scores = new Scores(Math.min(candidates, nextOrdinal), nextOrdinal);
+
+            for (Postings list : lists) {
+                int df = list.live;
+                float idf = (float) Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int ordinal = list.ordinals[i];
+                    if (deleted.get(ordinal)) continue;
+
+                    float tf = list.frequencies[i];
+                    float norm = K1 * (1 - B + B * docLengths[ordinal] / avgLength);
+                    scores.add(ordinal, idf * (tf * (K1 + 1)) / (tf + norm));
+                }
+            }
+
+            // Min-heap of the best 'limit' slots seen so far
+            int matches = scores.size();
+            PriorityQueue<Integer> top = new PriorityQueue<>(Math.min(limit, Math.max(1, matches)),
+                    (a, b) -> Float.compare(scores.valueAt(a), scores.valueAt(b)));
+            for (int i = 0; i < matches; i++) {
+                int slot = scores.slotOf(i);
+                if (top.size() < limit) {
+                    top.add(slot);
+                } else if (scores.valueAt(slot) > scores.valueAt(top.peek())) {
+                    top.poll();
+                    top.add(slot);
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                int slot = top.poll();
+                hits.add(new Hit(productIds[scores.ordinalAt(slot)], scores.valueAt(slot)));
+            }
+            Collections.reverse(hits);
+            return new SearchResult(hits, matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lower-cases, splits on anything that is not a letter or digit, drops stop words
+     * and folds simple English plurals ("bottles" -> "bottle", "batteries" -> "battery").
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (current.length() > 0) {
+                String token = stem(current.toString());
+                if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                current.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    private static String stem(String token) {
+        if (token.length() > 4 && token.endsWith("ies")) {
+            return token.substring(0, token.length() - 3) + "y";
+        }
+        if (token.length() > 3 && token.endsWith("s") && !token.endsWith("ss")) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+
+    private static float collect(Map<String, Float> terms, String text, float weight) {
+        List<String> tokens = tokenize(text);
+        for (String token : tokens) {
+            terms.merge(token, weight, Float::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    private void removeLocked(long productId) {
+        Integer ordinal = ordinalByProduct.remove(productId);
+        if (ordinal == null) return;
+
+        deleted.set(ordinal);
+        deletedCount++;
+        totalLength -= docLengths[ordinal];
+        for (Postings list : docPostings[ordinal]) {
+            list.live--;
+        }
+        docPostings[ordinal] = null;
+        if (deletedCount > Math.max(1024, ordinalByProduct.size() / 4)) {
+            purgeDeleted();
+        }
+    }
+
+    // Drops tombstoned ordinals from every posting list, and renumbers the live ones from zero so the per-ordinal arrays shrink back to the live documents
+    private void purgeDeleted() {
+        int[] renumbered = new int[nextOrdinal];
+        int live = 0;
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            if (deleted.get(ordinal)) {
+                renumbered[ordinal] = -1;
+            } else {
+                renumbered[ordinal] = live;
+                productIds[live] = productIds[ordinal];
+                docLengths[live] = docLengths[ordinal];
+                docPostings[live] = docPostings[ordinal];
+                live++;
+            }
+        }
+        postings.values().removeIf(list -> {
+            list.retainLive(renumbered);
+            return list.size == 0;
+        });
+        ordinalByProduct.replaceAll((productId, ordinal) -> renumbered[ordinal]);
+
+        int capacity = Math.max(1024, Integer.highestOneBit(Math.max(1, live)) * 2);
+        productIds = Arrays.copyOf(productIds, capacity);
+        docLengths = Arrays.copyOf(docLengths, capacity);
+        docPostings = Arrays.copyOf(docPostings, capacity);
+        nextOrdinal = live;
+        deleted.clear();
+        deletedCount = 0;
+    }
+
+    // Accumulated score per matched ordinal, remembering insertion order. Open addressing over the matches;
+    // when they cover a large share of the index, a plain array indexed by ordinal is smaller and faster.
+    private static final class Scores {
+        private final int[] ordinals;
+        private final float[] values;
+        private final int[] inserted;
+        private final int mask;
+        private int size;
+
+        Scores(int expected, int ordinalCount) {
+            inserted = new int[Math.max(8, expected)];
+            if (expected * 4L >= ordinalCount) {
+                ordinals = null;
+                values = new float[ordinalCount];
+                mask = 0;
+                return;
+            }
+            int capacity = Integer.highestOneBit(Math.max(8, expected) * 2 - 1) << 1;
+            ordinals = new int[capacity];
+            Arrays.fill(ordinals, -1);
+            values = new float[capacity];
+            mask = capacity - 1;
+        }
+
+        void add(int ordinal, float score) {
+            if (ordinals == null) {
+                // Every score is positive, so zero means not seen yet
+                if (values[ordinal] == 0) {
+                    inserted[size++] = ordinal;
+                }
+                values[ordinal] += score;
+                return;
+            }
+            int slot = (ordinal * 0x9E3779B9) >>> 1 & mask;
+            while (ordinals[slot] != ordinal) {
+                if (ordinals[slot] == -1) {
+                    ordinals[slot] = ordinal;
+                    inserted[size++] = slot;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            values[slot] += score;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int slotOf(int i) {
+            return inserted[i];
+        }
+
+        int ordinalAt(int slot) {
+            return ordinals == null ? slot : ordinals[slot];
+        }
+
+        float valueAt(int slot) {
+            return values[slot];
+        }
+    }
+
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private float[] frequencies = new float[4];
+        private int size;
+        // Entries whose ordinal is not tombstoned: the document frequency
+        private int live;
+
+        void add(int ordinal, float frequency) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            ordinals[size] = ordinal;
+            frequencies[size] = frequency;
+            size++;
+            live++;
+        }
+
+        void retainLive(int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int ordinal = renumbered[ordinals[i]];
+                if (ordinal >= 0) {
+                    ordinals[kept] = ordinal;
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+    }
+}
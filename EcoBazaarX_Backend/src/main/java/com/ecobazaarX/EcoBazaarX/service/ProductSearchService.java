@@ -0,0 +1,71 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductSearchResultDTO;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductSummaryDTO;
+import com.ecobazaarX.EcoBazaarX.event.CatalogChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Relevance-ranked product search backed by {@link ProductSearchIndex}.
+ * The index follows the catalog snapshot: a full reload builds a new index and swaps it in,
+ * so searches never see a half-built one; every other change touches only the product that changed.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductSearchService {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private final CatalogSnapshotService catalogSnapshotService;
+    private volatile ProductSearchIndex index = new ProductSearchIndex();
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.isStockOnly()) {
+            return;
+        }
+        if (event.isFullReload()) {
+            ProductSearchIndex rebuilt = new ProductSearchIndex();
+            for (ProductSummaryDTO p : event.getSnapshot().getProducts()) {
+                index(rebuilt, p);
+            }
+            index = rebuilt;
+        } else if (event.getCurrent() != null) {
+            index(index, event.getCurrent());
+        } else {
+            index.remove(event.getProductId());
+        }
+    }
+
+    public ProductSearchResultDTO search(String query, Integer limit) {
+        int max = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        ProductSearchIndex.SearchResult result = index.search(query, max);
+
+        List<ProductSummaryDTO> items = new ArrayList<>(result.hits().size());
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot != null) {
+            for (ProductSearchIndex.Hit hit : result.hits()) {
+                ProductSummaryDTO product = snapshot.get(hit.productId());
+                if (product != null) {
+                    items.add(product);
+                }
+            }
+        }
+
+        return ProductSearchResultDTO.builder()
+                .query(query)
+                .totalHits(result.totalHits())
+                .items(items)
+                .build();
+    }
+
+    private static void index(ProductSearchIndex target, ProductSummaryDTO p) {
+        target.upsert(p.getProductId(), p.getName(), p.getDescription(), p.getCategory());
+    }
+}
@@ -1,22 +1,100 @@
 package com.ecobazaarX.EcoBazaarX.service;
 
+import com.ecobazaarX.EcoBazaarX.dto.CursorPage;
+import com.ecobazaarX.EcoBazaarX.dto.KeysetCursor;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductSummaryDTO;
+import com.ecobazaarX.EcoBazaarX.mapper.ProductMapper;
 import com.ecobazaarX.EcoBazaarX.model.Product;
 import com.ecobazaarX.EcoBazaarX.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class PublicProductService {
 
+    public static final int DEFAULT_PAGE_SIZE = 24;
+    public static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    /**
+     * Returns all active products (excluding soft-deleted ones).
+     * Served from the in-memory catalog snapshot; falls back to the database only before it has loaded.
+     */
+    public List<ProductSummaryDTO> getAllProducts() {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot != null) {
+            return snapshot.getProducts();
+        }
+        return productRepository.findActiveSummaries();
+    }
+
     /**
-     * Returns all active products (excluding soft-deleted ones)
+     * Returns one page of active products, newest first.
+     * Seeks past the cursor instead of using OFFSET, so every page costs the same regardless of depth.
+     *
+     * @param cursor    Token from the previous page's nextCursor, or null for the first page.
+     * @param size      Requested page size; clamped to [1, MAX_PAGE_SIZE].
+     * @param category  Optional exact category filter.
+     * @param zeroWaste Optional zero-waste filter.
      */
-    public List<Product> getAllProducts() {
-        return productRepository.findByIsActiveTrue();
+    public CursorPage<ProductSummaryDTO> getProductPage(String cursor, Integer size, String category, Boolean zeroWaste) {
+        int pageSize = clampPageSize(size);
+        KeysetCursor after = (cursor == null || cursor.isBlank()) ? null : KeysetCursor.decode(cursor);
+
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        List<ProductSummaryDTO> rows = snapshot != null
+                ? pageFromSnapshot(snapshot, after, pageSize + 1, category, zeroWaste)
+                : pageFromDatabase(after, pageSize + 1, category, zeroWaste);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ProductSummaryDTO> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ProductSummaryDTO last = items.get(items.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getProductId()).encode();
+        }
+
+        return CursorPage.<ProductSummaryDTO>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private List<ProductSummaryDTO> pageFromSnapshot(CatalogSnapshot snapshot, KeysetCursor after, int limit,
+                                                     String category, Boolean zeroWaste) {
+        List<ProductSummaryDTO> products = snapshot.getProducts();
+        int start = after == null ? 0 : snapshot.indexAfter(after.createdAt(), after.id());
+        List<ProductSummaryDTO> rows = new ArrayList<>(limit);
+        for (int i = start; i < products.size() && rows.size() < limit; i++) {
+            ProductSummaryDTO p = products.get(i);
+            if (category != null && !category.equals(p.getCategory())) continue;
+            if (zeroWaste != null && zeroWaste != p.isZeroWasteProduct()) continue;
+            rows.add(p);
+        }
+        return rows;
+    }
+
+    private List<ProductSummaryDTO> pageFromDatabase(KeysetCursor after, int limit, String category, Boolean zeroWaste) {
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        PageRequest pageRequest = PageRequest.of(0, limit);
+        List<Product> rows = after == null
+                ? productRepository.findActivePage(category, zeroWaste, pageRequest)
+                : productRepository.findActivePageAfter(category, zeroWaste, after.createdAt(), after.id(), pageRequest);
+        return rows.stream().map(ProductMapper::toSummary).toList();
+    }
+
+    static int clampPageSize(Integer size) {
+        if (size == null) return DEFAULT_PAGE_SIZE;
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
     }
 }
@@ -0,0 +1,97 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Great-circle distances between every pair of regions listed in the centroid resource,
+ * computed once at startup into a dense row-major array, so a lookup is a hash probe per region name
+ * plus an array read. Shipping within one region uses a fixed domestic distance instead of zero.
+ */
+@Component
+public class RegionDistanceMatrix {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final double[] distancesKm;
+
+    public RegionDistanceMatrix(@Value("${ecobazaarx.transport.region-centroids:classpath:regions/centroids.csv}") Resource centroids,
+                                @Value("${ecobazaarx.transport.domestic-km:500}") double domesticKm) {
+        List<double[]> coordinates = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(centroids.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                String[] fields = line.split(",");
+                int index = names.size();
+                names.add(fields[0].trim());
+                coordinates.add(new double[]{Math.toRadians(Double.parseDouble(fields[1].trim())),
+                        Math.toRadians(Double.parseDouble(fields[2].trim()))});
+                for (int i = 0; i < fields.length; i++) {
+                    if (i == 1 || i == 2) continue;
+                    if (indexes.putIfAbsent(normalize(fields[i]), index) != null) {
+                        throw new IllegalStateException("Region listed twice: " + fields[i].trim());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read region centroids from " + centroids, e);
+        }
+
+        int n = names.size();
+        distancesKm = new double[n * n];
+        for (int from = 0; from < n; from++) {
+            distancesKm[from * n + from] = domesticKm;
+            for (int to = from + 1; to < n; to++) {
+                double km = haversineKm(coordinates.get(from), coordinates.get(to));
+                distancesKm[from * n + to] = km;
+                distancesKm[to * n + from] = km;
+            }
+        }
+    }
+
+    /**
+     * @return The region's position in the matrix, or -1 if the name (or one of its aliases) is not known.
+     */
+    public int indexOf(String region) {
+        return region == null ? -1 : indexes.getOrDefault(normalize(region), -1);
+    }
+
+    public double distanceKm(int from, int to) {
+        return distancesKm[from * names.size() + to];
+    }
+
+    public String nameOf(int index) {
+        return names.get(index);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    private static double haversineKm(double[] from, double[] to) {
+        double dLat = to[0] - from[0];
+        double dLon = to[1] - from[1];
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(from[0]) * Math.cos(to[0]) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
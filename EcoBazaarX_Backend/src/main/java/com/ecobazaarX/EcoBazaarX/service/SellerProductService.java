@@ -1,5 +1,7 @@
 package com.ecobazaarX.EcoBazaarX.service;
 
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductSummaryDTO;
+import com.ecobazaarX.EcoBazaarX.event.ProductChangedEvent;
 import com.ecobazaarX.EcoBazaarX.model.Product;
 import com.ecobazaarX.EcoBazaarX.model.Seller;
 import com.ecobazaarX.EcoBazaarX.model.UserStatus;
@@ -7,6 +9,7 @@ import com.ecobazaarX.EcoBazaarX.repository.ProductRepository;
 import com.ecobazaarX.EcoBazaarX.repository.SellerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
@@ -28,11 +31,14 @@ public class SellerProductService {
     @Autowired
     private SellerRepository sellerRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Value("${uploads.path}")
     private String uploadDir;
 
     @Transactional
-    public Product addProduct(String name, BigDecimal price, Integer stock, Double carbonEmission, String description, String category, MultipartFile imageFile, String sellerEmail, Boolean isZeroWasteProduct) throws IOException {
+    public Product addProduct(String name, BigDecimal price, Integer stock, Double carbonEmission, Double weightGrams, String material, String packaging, String origin, String description, String category, MultipartFile imageFile, String sellerEmail, Boolean isZeroWasteProduct) throws IOException {
         Seller seller = sellerRepository.findByEmail(sellerEmail)
                 .orElseThrow(() -> new RuntimeException("Seller not found with email: " + sellerEmail));
 
@@ -47,6 +53,10 @@ public class SellerProductService {
         product.setPrice(price);
         product.setStock(stock);
         product.setCarbonEmission(carbonEmission);
+        product.setWeightGrams(weightGrams);
+        product.setMaterial(material);
+        product.setPackaging(packaging);
+        product.setOrigin(origin);
         product.setDescription(description);
         product.setCategory(category);
         product.setImagePath(imagePath);
@@ -54,26 +64,27 @@ public class SellerProductService {
         product.setZeroWasteProduct(isZeroWasteProduct != null ? isZeroWasteProduct : false);
         product.setActive(true);
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(saved.getProductId(), ProductChangedEvent.ChangeType.CREATED));
+        return saved;
     }
 
-    public List<Product> getAllProductsBySellerEmail(String sellerEmail) {
-        return productRepository.findBySeller_Email(sellerEmail);
+    public List<ProductSummaryDTO> getAllProductsBySellerEmail(String sellerEmail) {
+        return productRepository.findSummariesBySellerEmail(sellerEmail);
     }
 
     /**
      * ✅ New method to get the top-selling products for a seller.
-     * This calls a custom query method that you will need to add to your ProductRepository.
+     * Ranks and projects in a single query, so the result carries no lazy associations.
      *
      * @param sellerEmail The email of the seller.
      * @param limit The maximum number of products to return.
      * @return A list of the top-selling products.
      */
     @Transactional(readOnly = true)
-    public List<Product> getTopSellingProducts(String sellerEmail, int limit) {
-        // This relies on a custom repository method to rank products by sales.
+    public List<ProductSummaryDTO> getTopSellingProducts(String sellerEmail, int limit) {
         // PageRequest.of(0, limit) is used to limit the results to the top 'limit' products.
-        return productRepository.findTopSellingProductsBySellerEmail(sellerEmail, PageRequest.of(0, limit));
+        return productRepository.findTopSellingSummariesBySellerEmail(sellerEmail, PageRequest.of(0, limit));
     }
 
 
@@ -93,10 +104,11 @@ public class SellerProductService {
         // Soft delete (mark inactive)
         product.setActive(false);
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(productId, ProductChangedEvent.ChangeType.UPDATED));
     }
 
     @Transactional
-    public Optional<Product> updateProduct(Long id, String name, BigDecimal price, Integer stock, Double carbonEmission, String description, String category, MultipartFile imageFile, String sellerEmail, Boolean isZeroWasteProduct) throws IOException {
+    public Optional<Product> updateProduct(Long id, String name, BigDecimal price, Integer stock, Double carbonEmission, Double weightGrams, String material, String packaging, String origin, String description, String category, MultipartFile imageFile, String sellerEmail, Boolean isZeroWasteProduct) throws IOException {
         return productRepository.findById(id).map(product -> {
             if (!product.getSeller().getEmail().equals(sellerEmail)) {
                 throw new AccessDeniedException("You do not have permission to update this product.");
@@ -106,6 +118,10 @@ public class SellerProductService {
             if (price != null) product.setPrice(price);
             if (stock != null) product.setStock(stock);
             if (carbonEmission != null) product.setCarbonEmission(carbonEmission);
+            if (weightGrams != null) product.setWeightGrams(weightGrams);
+            if (material != null) product.setMaterial(material);
+            if (packaging != null) product.setPackaging(packaging);
+            if (origin != null) product.setOrigin(origin);
             if (description != null) product.setDescription(description);
             if (category != null) product.setCategory(category);
             if (isZeroWasteProduct != null) product.setZeroWasteProduct(isZeroWasteProduct);
@@ -119,7 +135,9 @@ public class SellerProductService {
                 }
             }
 
-            return productRepository.save(product);
+            Product saved = productRepository.save(product);
+            eventPublisher.publishEvent(new ProductChangedEvent(saved.getProductId(), ProductChangedEvent.ChangeType.UPDATED));
+            return saved;
         });
     }
 
@@ -133,7 +151,9 @@ public class SellerProductService {
         }
 
         product.setActive(!product.isActive()); // flip status
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(productId, ProductChangedEvent.ChangeType.UPDATED));
+        return saved;
     }
 
     private String saveImage(MultipartFile imageFile) throws IOException {
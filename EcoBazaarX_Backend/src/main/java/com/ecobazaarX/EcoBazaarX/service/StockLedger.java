@@ -0,0 +1,307 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.event.ProductChangedEvent;
+import com.ecobazaarX.EcoBazaarX.model.StockLedgerEntry;
+import com.ecobazaarX.EcoBazaarX.repository.ProductRepository;
+import com.ecobazaarX.EcoBazaarX.repository.StockLedgerEntryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional in-memory stock engine for drop-style launches (ecobazaarx.stock-ledger.enabled).
+ * Available stock per product lives in memory behind striped locks, so a checkout holds a lock for
+ * nanoseconds instead of holding the product's row lock until its transaction commits.
+ * Every change is recorded as a {@link StockLedgerEntry} in the transaction of the order that caused it, so it
+ * is durable exactly when that order is; periodic flushes move committed entries into the products table.
+ * After a crash, entries that were never flushed are still in the table and are picked up by the next flush.
+ */
+@Slf4j
+@Service
+public class StockLedger {
+
+    private static final int STRIPES = 64;
+    private static final int FLUSH_BATCH_SIZE = 1000;
+    private static final int RESYNC_ATTEMPTS = 100;
+
+    // Guarded by the product's stripe lock.
+    // Invariant outside a commit: available = table stock + committed entries + open.
+    private static final class Slot {
+        int available;
+        // Net in-memory change whose entries are not committed yet
+        int open;
+        // Transactions of this product between beforeCommit and afterCompletion
+        int committing;
+        // Bumped at every afterCompletion, so a resync can tell that a commit overlapped its read
+        long completions;
+
+        Slot(int available) {
+            this.available = available;
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final StockLedgerEntryRepository entryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+    // Two flushes must never apply the same entries
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public StockLedger(ProductRepository productRepository,
+                       StockLedgerEntryRepository entryRepository,
+                       PlatformTransactionManager transactionManager,
+                       ApplicationEventPublisher eventPublisher,
+                       @Value("${ecobazaarx.stock-ledger.enabled:false}") boolean enabled) {
+        this.productRepository = productRepository;
+        this.entryRepository = entryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes stock for a checkout. Inside a transaction, the reservation commits or rolls back together with it.
+     *
+     * @return false if the product is unknown or has less than the requested quantity available.
+     */
+    public boolean reserve(Long productId, int quantity) {
+        Slot slot = slot(productId);
+        if (slot == null) {
+            return false;
+        }
+        ReentrantLock lock = stripe(productId);
+        lock.lock();
+        try {
+            if (slot.available < quantity) {
+                return false;
+            }
+            slot.available -= quantity;
+            slot.open -= quantity;
+        } finally {
+            lock.unlock();
+        }
+        record(productId, slot, -quantity, new Completion() {
+            @Override
+            void completed(boolean committed) {
+                slot.open += quantity;
+                if (!committed) {
+                    slot.available += quantity;
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Hands stock back, e.g. for a cancelled order: immediately, or once the surrounding transaction commits.
+     */
+    public void release(Long productId, int quantity) {
+        // Loaded before the entry is written, so the load can never count the entry a second time
+        Slot slot = slot(productId);
+        if (slot == null) {
+            return;
+        }
+        record(productId, slot, quantity, new Completion() {
+            @Override
+            void completed(boolean committed) {
+                if (committed) {
+                    slot.available += quantity;
+                }
+            }
+        });
+    }
+
+    /**
+     * Moves committed entries into the products table, a batch per transaction.
+     * On failure the entries stay in place and are retried by the next flush.
+     */
+    @Scheduled(fixedDelayString = "${ecobazaarx.stock-ledger.flush-interval-ms:1000}")
+    public void flush() {
+        if (!enabled) return;
+        flushLock.lock();
+        try {
+            int applied;
+            do {
+                applied = transactionTemplate.execute(status -> {
+                    List<StockLedgerEntry> batch = entryRepository.findByOrderByIdAsc(PageRequest.of(0, FLUSH_BATCH_SIZE));
+                    Map<Long, Integer> deltas = new TreeMap<>();
+                    for (StockLedgerEntry entry : batch) {
+                        deltas.merge(entry.getProductId(), entry.getDelta(), Integer::sum);
+                    }
+                    deltas.forEach((productId, delta) -> {
+                        productRepository.incrementStock(productId, delta);
+                        eventPublisher.publishEvent(new ProductChangedEvent(productId, ProductChangedEvent.ChangeType.STOCK));
+                    });
+                    entryRepository.deleteAllInBatch(batch);
+                    return batch.size();
+                });
+            } while (applied == FLUSH_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            log.warn("Stock ledger flush failed; retrying on the next run", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Picks up stock edited directly on the product (e.g. by its seller) once that edit has committed.
+     * Stock moved by the ledger's own flushes is already accounted for.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled || event.getChangeType() == ProductChangedEvent.ChangeType.STOCK) return;
+        Long productId = event.getProductId();
+        Slot slot = slots.get(productId);
+        if (slot == null) return;
+        ReentrantLock lock = stripe(productId);
+        for (int attempt = 0; attempt < RESYNC_ATTEMPTS; attempt++) {
+            long completions;
+            lock.lock();
+            try {
+                completions = slot.committing == 0 ? slot.completions : -1;
+            } finally {
+                lock.unlock();
+            }
+            if (completions >= 0) {
+                Optional<Long> stock = entryRepository.findLedgerStockById(productId);
+                lock.lock();
+                try {
+                    // A commit overlapping the read may or may not be in it; try again rather than guess
+                    if (slot.committing == 0 && slot.completions == completions) {
+                        stock.ifPresent(s -> slot.available = Math.toIntExact(s) + slot.open);
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            pause();
+        }
+        log.warn("Stock ledger could not resync product {} while checkouts kept committing", productId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Runs when the transaction carrying an entry completes; called under the product's stripe lock
+    private abstract static class Completion {
+        abstract void completed(boolean committed);
+    }
+
+    private void record(Long productId, Slot slot, int delta, Completion completion) {
+        ReentrantLock lock = stripe(productId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            committing(lock, slot);
+            boolean committed = false;
+            try {
+                entryRepository.save(new StockLedgerEntry(productId, delta));
+                committed = true;
+            } finally {
+                complete(lock, slot, completion, committed, true);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean committing;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                committing = true;
+                committing(lock, slot);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                complete(lock, slot, completion, status == STATUS_COMMITTED, committing);
+            }
+        });
+        // Joins the caller's transaction, so the entry commits or rolls back with the order
+        entryRepository.save(new StockLedgerEntry(productId, delta));
+    }
+
+    private void committing(ReentrantLock lock, Slot slot) {
+        lock.lock();
+        try {
+            slot.committing++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void complete(ReentrantLock lock, Slot slot, Completion completion, boolean committed, boolean wasCommitting) {
+        lock.lock();
+        try {
+            completion.completed(committed);
+            if (wasCommitting) {
+                slot.committing--;
+            }
+            slot.completions++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The first touch of a product loads its stock, outside the stripe lock; a concurrent first touch may load too,
+    // and whichever slot is stored first wins. Nothing of this product can be committing before its slot exists.
+    private Slot slot(Long productId) {
+        Slot slot = slots.get(productId);
+        if (slot != null) {
+            return slot;
+        }
+        Optional<Long> stock = entryRepository.findLedgerStockById(productId);
+        if (stock.isEmpty()) {
+            return null;
+        }
+        Slot loaded = new Slot(Math.toIntExact(stock.get()));
+        ReentrantLock lock = stripe(productId);
+        lock.lock();
+        try {
+            Slot existing = slots.putIfAbsent(productId, loaded);
+            return existing != null ? existing : loaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock stripe(Long productId) {
+        return stripes[Long.hashCode(productId) & (STRIPES - 1)];
+    }
+
+    private static void pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
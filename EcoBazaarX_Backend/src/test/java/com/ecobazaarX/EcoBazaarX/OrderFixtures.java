@@ -0,0 +1,138 @@
+package com.ecobazaarX.EcoBazaarX;
+
+import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderRequest;
+import com.ecobazaarX.EcoBazaarX.model.Address;
+import com.ecobazaarX.EcoBazaarX.model.Order;
+import com.ecobazaarX.EcoBazaarX.model.OrderItem;
+import com.ecobazaarX.EcoBazaarX.model.Product;
+import com.ecobazaarX.EcoBazaarX.model.Seller;
+import com.ecobazaarX.EcoBazaarX.model.User;
+import jakarta.persistence.EntityManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buyers, sellers, products and orders for JPA tests, persisted through the given entity manager.
+ * Products cost 10 and emit 1 kg; order items are bought at that price.
+ */
+public class OrderFixtures {
+
+	private final EntityManager entityManager;
+
+	public OrderFixtures(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	public User buyer(String email) {
+		User buyer = new User();
+		buyer.setEmail(email);
+		buyer.setUsername(email);
+		buyer.setPassword("x");
+		entityManager.persist(buyer);
+		return buyer;
+	}
+
+	// The seller with this email, created on first use
+	public Seller seller(String email) {
+		return entityManager.createQuery("SELECT s FROM Seller s WHERE s.email = :email", Seller.class)
+				.setParameter("email", email)
+				.getResultStream()
+				.findFirst()
+				.orElseGet(() -> {
+					Seller seller = new Seller();
+					seller.setEmail(email);
+					seller.setBusinessName("Shop " + email);
+					entityManager.persist(seller);
+					return seller;
+				});
+	}
+
+	public Product product(String sellerEmail, int stock) {
+		return product(seller(sellerEmail), "Product of " + sellerEmail, "Kitchen", stock);
+	}
+
+	// Named "Product 0", "Product 1", ...; in the categories Kitchen and Home by turns
+	public List<Product> products(String sellerEmail, int count, int stock) {
+		Seller seller = seller(sellerEmail);
+		List<Product> products = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			products.add(product(seller, "Product " + i, i % 2 == 0 ? "Kitchen" : "Home", stock));
+		}
+		return products;
+	}
+
+	// One unit of each product
+	public Order order(User buyer, Order.OrderStatus status, Product... products) {
+		Order order = newOrder(buyer, status);
+		for (Product product : products) {
+			addItem(order, product, 1);
+		}
+		entityManager.persist(order);
+		return order;
+	}
+
+	public Order order(User buyer, Order.OrderStatus status, Product product, int quantity) {
+		Order order = newOrder(buyer, status);
+		addItem(order, product, quantity);
+		entityManager.persist(order);
+		return order;
+	}
+
+	public static Address address() {
+		Address address = new Address();
+		address.setFirstName("Asha");
+		address.setLastName("Rao");
+		address.setAddress1("1 Green Street");
+		address.setCity("Pune");
+		address.setZip("411001");
+		address.setCountry("India");
+		return address;
+	}
+
+	// A checkout of the given quantity of each product
+	public static OrderRequest request(List<Long> productIds, int quantity) {
+		List<OrderRequest.CartItemDto> items = new ArrayList<>();
+		for (Long id : productIds) {
+			OrderRequest.CartItemDto item = new OrderRequest.CartItemDto();
+			item.setProductId(id);
+			item.setQuantity(quantity);
+			items.add(item);
+		}
+		OrderRequest request = new OrderRequest();
+		request.setOrderItems(items);
+		request.setShippingAddress(address());
+		return request;
+	}
+
+	private Product product(Seller seller, String name, String category, int stock) {
+		Product product = new Product();
+		product.setName(name);
+		product.setCategory(category);
+		product.setPrice(BigDecimal.TEN);
+		product.setStock(stock);
+		product.setCarbonEmission(1.0);
+		product.setSeller(seller);
+		entityManager.persist(product);
+		return product;
+	}
+
+	private static Order newOrder(User buyer, Order.OrderStatus status) {
+		Order order = new Order();
+		order.setUser(buyer);
+		order.setStatus(status);
+		order.setTotalPrice(BigDecimal.TEN);
+		order.setShippingAddress(address());
+		return order;
+	}
+
+	private static void addItem(Order order, Product product, int quantity) {
+		OrderItem item = new OrderItem();
+		item.setOrder(order);
+		item.setProduct(product);
+		item.setQuantity(quantity);
+		item.setPrice(BigDecimal.TEN);
+		order.getOrderItems().add(item);
+	}
+}
@@ -0,0 +1,220 @@
+package com.ecobazaarX.EcoBazaarX.controller;
+
+import com.ecobazaarX.EcoBazaarX.dto.CursorPage;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductFacetResultDTO;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductSearchResultDTO;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductSummaryDTO;
+import com.ecobazaarX.EcoBazaarX.event.ProductChangedEvent;
+import com.ecobazaarX.EcoBazaarX.repository.ProductRepository;
+import com.ecobazaarX.EcoBazaarX.service.CatalogPayloadCache;
+import com.ecobazaarX.EcoBazaarX.service.CatalogSnapshotService;
+import com.ecobazaarX.EcoBazaarX.service.ProductFacetService;
+import com.ecobazaarX.EcoBazaarX.service.ProductSearchService;
+import com.ecobazaarX.EcoBazaarX.service.PublicProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PublicProductControllerTest {
+
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+	private final PublicProductService publicProductService = mock(PublicProductService.class);
+	private final ProductSearchService productSearchService = mock(ProductSearchService.class);
+	private final ProductFacetService productFacetService = mock(ProductFacetService.class);
+	private CatalogSnapshotService snapshots;
+	private PublicProductController controller;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		List<ProductSummaryDTO> products = new ArrayList<>();
+		for (long id = 1; id <= 50; id++) {
+			products.add(new ProductSummaryDTO(id, "Bamboo toothbrush " + id, "Compostable handle", 10, "Home", null,
+					0.4, BigDecimal.TEN, LocalDateTime.of(2026, 1, 1, 0, 0).plusMinutes(id), true, true, 1L, "Green Shop"));
+		}
+		when(productRepository.findActiveSummaries()).thenReturn(products);
+		when(publicProductService.getAllProducts()).thenReturn(products);
+		when(publicProductService.getProductPage(any(), any(), any(), any()))
+				.thenReturn(CursorPage.<ProductSummaryDTO>builder().items(products.subList(0, 24)).hasMore(true).build());
+		when(productSearchService.search(any(), any()))
+				.thenReturn(ProductSearchResultDTO.builder().query("bamboo").totalHits(50).items(products.subList(0, 20)).build());
+		when(productFacetService.filter(any(), any(), any(), any(), any(), any()))
+				.thenReturn(ProductFacetResultDTO.builder().total(50).items(products.subList(0, 24)).facets(Map.of()).build());
+
+		snapshots = new CatalogSnapshotService(productRepository,
+				mock(ApplicationEventPublisher.class), new SimpleMeterRegistry());
+		snapshots.reload();
+		CatalogPayloadCache payloads = new CatalogPayloadCache(new ObjectMapper().registerModule(new JavaTimeModule()),
+				new SimpleMeterRegistry(), 1 << 20);
+
+		controller = new PublicProductController();
+		ReflectionTestUtils.setField(controller, "publicProductService", publicProductService);
+		ReflectionTestUtils.setField(controller, "productSearchService", productSearchService);
+		ReflectionTestUtils.setField(controller, "productFacetService", productFacetService);
+		ReflectionTestUtils.setField(controller, "catalogSnapshotService", snapshots);
+		ReflectionTestUtils.setField(controller, "catalogPayloadCache", payloads);
+		mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+	}
+
+	@Test
+	void gzipAndIdentityBodiesCarryDifferentTags() throws Exception {
+		MvcResult gzip = mockMvc.perform(get("/api/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+				.andReturn();
+		MvcResult identity = mockMvc.perform(get("/api/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, br"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+				.andReturn();
+
+		String gzipTag = gzip.getResponse().getHeader(HttpHeaders.ETAG);
+		String identityTag = identity.getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(identityTag, gzipTag);
+		assertTrue(gzipTag.endsWith("-gzip\""));
+		assertTrue(identity.getResponse().getContentAsString().startsWith("[{"));
+		// Both variants come from one cache entry, built once
+		verify(publicProductService, times(1)).getAllProducts();
+	}
+
+	@Test
+	void unchangedCatalogIsAnswered304WithVary() throws Exception {
+		String tag = mockMvc.perform(get("/api/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/api/products")
+						.header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+						.header(HttpHeaders.IF_NONE_MATCH, tag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, tag))
+				.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+				.andExpect(content().bytes(new byte[0]));
+
+		// The same tag does not validate the identity representation
+		mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, tag))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void everyCatalogListingAnswers304UntilTheCatalogChanges() throws Exception {
+		for (String uri : List.of("/api/products/page?size=24", "/api/products/search?q=bamboo", "/api/products/facets?category=Home")) {
+			MvcResult first = mockMvc.perform(get(uri))
+					.andExpect(status().isOk())
+					.andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+					.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+					.andReturn();
+			String tag = first.getResponse().getHeader(HttpHeaders.ETAG);
+			String lastModified = first.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+			mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, tag))
+					.andExpect(status().isNotModified())
+					.andExpect(header().string(HttpHeaders.ETAG, tag))
+					.andExpect(content().bytes(new byte[0]));
+			mockMvc.perform(get(uri).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+					.andExpect(status().isNotModified())
+					.andExpect(header().string(HttpHeaders.LAST_MODIFIED, lastModified));
+			// The tag decides when both are sent, however recent the date
+			mockMvc.perform(get(uri)
+							.header(HttpHeaders.IF_NONE_MATCH, "\"catalog-0-0\"")
+							.header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+					.andExpect(status().isOk());
+
+			int stock = snapshots.current().get(1L).getStock() - 1;
+			ProductRepository.StockLevel level = mock(ProductRepository.StockLevel.class);
+			when(level.getProductId()).thenReturn(1L);
+			when(level.getStock()).thenReturn(stock);
+			when(productRepository.findStockByIdIn(any())).thenReturn(List.of(level));
+			snapshots.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.ChangeType.STOCK));
+			snapshots.applyStockChanges();
+			mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, tag))
+					.andExpect(status().isOk())
+					.andExpect(header().string(HttpHeaders.ETAG, not(tag)));
+		}
+
+		// 304s are answered before the listing is built; each body was built once per catalog version
+		verify(publicProductService, times(2)).getProductPage(null, 24, null, null);
+		verify(productSearchService, times(2)).search("bamboo", null);
+		verify(productFacetService, times(2)).filter(Set.of("Home"), null, null, null, null, null);
+	}
+
+	@Test
+	void malformedPageCursorIsABadRequest() throws Exception {
+		PublicProductService pages = new PublicProductService();
+		ReflectionTestUtils.setField(pages, "catalogSnapshotService", snapshots);
+		ReflectionTestUtils.setField(controller, "publicProductService", pages);
+
+		String next = JsonPath.read(mockMvc.perform(get("/api/products/page").param("size", "20"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString(), "$.nextCursor");
+		mockMvc.perform(get("/api/products/page").param("cursor", next))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items[0].productId").value(30));
+
+		mockMvc.perform(get("/api/products/page").param("cursor", "not-a-cursor"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/products/page").param("cursor", next.substring(1)))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void acceptEncodingHonoursQValues() {
+		assertTrue(PublicProductController.acceptsGzip("gzip"));
+		assertTrue(PublicProductController.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+		assertTrue(PublicProductController.acceptsGzip("*"));
+		assertFalse(PublicProductController.acceptsGzip(null));
+		assertFalse(PublicProductController.acceptsGzip("gzip;q=0"));
+		assertFalse(PublicProductController.acceptsGzip("gzip;q=0.000, *"));
+		assertFalse(PublicProductController.acceptsGzip("identity, *;q=0"));
+		assertFalse(PublicProductController.acceptsGzip("deflate, br"));
+	}
+
+	@Test
+	void cacheKeyIgnoresParameterOrder() {
+		MockHttpServletRequest first = new MockHttpServletRequest();
+		first.addParameter("zeroWaste", "true");
+		first.addParameter("category", "Home", "Bags");
+		MockHttpServletRequest second = new MockHttpServletRequest();
+		second.addParameter("category", "Bags", "Home");
+		second.addParameter("zeroWaste", "true");
+		second.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+		String key = PublicProductController.cacheKey("facets", new ServletWebRequest(first));
+		assertEquals("facets&category=Bags,Home&zeroWaste=true", key);
+		assertEquals(key, PublicProductController.cacheKey("facets", new ServletWebRequest(second)));
+		assertNotEquals(key, PublicProductController.cacheKey("page", new ServletWebRequest(first)));
+	}
+}
@@ -0,0 +1,108 @@
+package com.ecobazaarX.EcoBazaarX.repository;
+
+import com.ecobazaarX.EcoBazaarX.OrderFixtures;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductDetailDTO;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductSummaryDTO;
+import com.ecobazaarX.EcoBazaarX.model.Order;
+import com.ecobazaarX.EcoBazaarX.model.Product;
+import com.ecobazaarX.EcoBazaarX.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Listing queries must cost one statement no matter how many products they return.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+class ProductSummaryQueryTest {
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	private OrderFixtures fixtures;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new OrderFixtures(entityManager);
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void sellerListingIsOneQueryRegardlessOfSize() throws Exception {
+		fixtures.products("small@shop.test", 1, 10);
+		fixtures.products("large@shop.test", 40, 10);
+		entityManager.flush();
+
+		assertEquals(1, statementsFor(() -> productRepository.findSummariesBySellerEmail("small@shop.test")));
+		assertEquals(1, statementsFor(() -> productRepository.findSummariesBySellerEmail("large@shop.test")));
+		assertEquals(1, statementsFor(() -> productRepository.findActiveSummaries()));
+		assertEquals(1, statementsFor(() ->
+				productRepository.findTopSellingSummariesBySellerEmail("large@shop.test", PageRequest.of(0, 5))));
+	}
+
+	@Test
+	void topSellingIsRankedByUnitsSold() {
+		List<Product> products = fixtures.products("rank@shop.test", 3, 10);
+		User buyer = fixtures.buyer("buyer@shop.test");
+		fixtures.order(buyer, Order.OrderStatus.PENDING_APPROVAL, products.get(0), 1);
+		fixtures.order(buyer, Order.OrderStatus.PENDING_APPROVAL, products.get(2), 5);
+		entityManager.flush();
+		entityManager.clear();
+
+		List<ProductSummaryDTO> top = productRepository.findTopSellingSummariesBySellerEmail("rank@shop.test", PageRequest.of(0, 5));
+
+		assertEquals(List.of(products.get(2).getProductId(), products.get(0).getProductId()),
+				top.stream().map(ProductSummaryDTO::getProductId).toList());
+	}
+
+	@Test
+	void detailCarriesUnitsSoldAndSkipsInactiveProducts() {
+		List<Product> products = fixtures.products("detail@shop.test", 2, 10);
+		User buyer = fixtures.buyer("detail-buyer@shop.test");
+		fixtures.order(buyer, Order.OrderStatus.PENDING_APPROVAL, products.get(0), 2);
+		fixtures.order(buyer, Order.OrderStatus.PENDING_APPROVAL, products.get(0), 3);
+		products.get(1).setActive(false);
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics.clear();
+		ProductDetailDTO detail = productRepository.findActiveDetail(products.get(0).getProductId()).orElseThrow();
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(5, detail.getUnitsSold());
+		assertEquals("Shop detail@shop.test", detail.getProduct().getSeller().getBusinessName());
+		assertTrue(productRepository.findActiveDetail(products.get(1).getProductId()).isEmpty());
+	}
+
+	private long statementsFor(Supplier<List<ProductSummaryDTO>> listing) throws Exception {
+		entityManager.clear();
+		statistics.clear();
+		List<ProductSummaryDTO> result = listing.get();
+		// Serializing must not trigger any further loading either
+		new ObjectMapper().registerModule(new JavaTimeModule()).writeValueAsString(result);
+		return statistics.getPrepareStatementCount();
+	}
+}
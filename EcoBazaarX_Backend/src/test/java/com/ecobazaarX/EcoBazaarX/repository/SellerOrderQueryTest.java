@@ -0,0 +1,95 @@
+package com.ecobazaarX.EcoBazaarX.repository;
+
+import com.ecobazaarX.EcoBazaarX.OrderFixtures;
+import com.ecobazaarX.EcoBazaarX.dto.sellerdto.SellerOrderDTO;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderItemDTO;
+import com.ecobazaarX.EcoBazaarX.mapper.SellerOrderMapper;
+import com.ecobazaarX.EcoBazaarX.model.Order;
+import com.ecobazaarX.EcoBazaarX.model.Product;
+import com.ecobazaarX.EcoBazaarX.model.Seller;
+import com.ecobazaarX.EcoBazaarX.model.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Seller order queries must only ever see orders that hold the seller's own products.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+class SellerOrderQueryTest {
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	private OrderFixtures fixtures;
+
+	private User buyer;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new OrderFixtures(entityManager);
+		buyer = fixtures.buyer("buyer@shop.test");
+	}
+
+	@Test
+	void activeOrdersAreScopedToTheSeller() {
+		Product small = fixtures.product("small@shop.test", 10);
+		Product large = fixtures.product("large@shop.test", 10);
+		Order mixed = fixtures.order(buyer, Order.OrderStatus.PENDING_APPROVAL, small, large);
+		fixtures.order(buyer, Order.OrderStatus.APPROVED, large);
+		fixtures.order(buyer, Order.OrderStatus.DELIVERED, small);
+		entityManager.flush();
+		entityManager.clear();
+
+		List<Order> active = orderRepository.findActiveDetailedOrdersForSeller("small@shop.test");
+
+		assertEquals(List.of(mixed.getOrderId()), active.stream().map(Order::getOrderId).toList());
+		// The mixed order also holds the large shop's item, which the small shop must not see
+		SellerOrderDTO seen = SellerOrderMapper.toSellerDTO(active.get(0), "small@shop.test");
+		assertEquals(List.of(small.getProductId()),
+				seen.getOrderItems().stream().map(OrderItemDTO::getProductId).toList());
+		assertEquals(0, BigDecimal.TEN.compareTo(seen.getTotalPrice()));
+		assertEquals(2, orderRepository.findActiveDetailedOrdersForSeller("large@shop.test").size());
+		assertEquals(0, orderRepository.findActiveDetailedOrdersForSeller("nobody@shop.test").size());
+	}
+
+	@Test
+	void historyPagesThroughOnlyTheSellersOrders() {
+		Product small = fixtures.product("small@shop.test", 10);
+		Product large = fixtures.product("large@shop.test", 10);
+		List<Long> expected = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			expected.add(0, fixtures.order(buyer, Order.OrderStatus.DELIVERED, small, small).getOrderId());
+			fixtures.order(buyer, Order.OrderStatus.DELIVERED, large);
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		PageRequest page = PageRequest.of(0, 2);
+		List<Long> seen = new ArrayList<>(orderRepository.findHistoryOrderIdsForSeller("small@shop.test", page));
+		while (true) {
+			Order last = entityManager.find(Order.class, seen.get(seen.size() - 1));
+			List<Long> next = orderRepository.findHistoryOrderIdsForSellerAfter(
+					"small@shop.test", last.getCreatedAt(), last.getOrderId(), page);
+			if (next.isEmpty()) break;
+			seen.addAll(next);
+		}
+
+		// Newest first; an order holding two of the seller's items still appears once
+		assertEquals(expected, seen);
+	}
+}
@@ -0,0 +1,159 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.sellerdto.CarbonBatchResultDTO;
+import com.ecobazaarX.EcoBazaarX.model.EmissionFactor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Batch results come back in input order, one per request line, with failures reported per line.
+ */
+class CarbonBatchCalculatorTest {
+
+	private static final int LINE_LIMIT = 200;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final EmissionFactorService emissionFactorService = mock(EmissionFactorService.class);
+	private final CarbonBatchCalculator calculator = newCalculator(CarbonBatchCalculator.CHUNK_SIZE * 3);
+
+	CarbonBatchCalculatorTest() {
+		when(emissionFactorService.current()).thenReturn(EmissionFactorTable.of(1, List.of(
+				factor(1L, "MATERIAL", "Cotton", "Global", 5.0),
+				factor(2L, "MATERIAL", "Cotton", "India", 4.0),
+				factor(3L, "PACKAGING", "Cardboard", "Global", 1.0))));
+	}
+
+	@Test
+	void resultsKeepInputOrderAcrossChunks() throws Exception {
+		int count = CarbonBatchCalculator.CHUNK_SIZE * 2 + 7;
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			body.append(request(i, i % 2 == 0 ? "India" : "Peru")).append('\n');
+		}
+
+		List<CarbonBatchResultDTO> results = run(body.toString());
+
+		assertEquals(count, results.size());
+		for (int i = 0; i < count; i++) {
+			CarbonBatchResultDTO result = results.get(i);
+			assertEquals(i, result.getIndex());
+			double expected = Math.round((i % 2 == 0 ? 5.0 : 6.0) * i / 1000 * 100.0) / 100.0;
+			assertEquals(expected, result.getCarbonEmission());
+		}
+		// The whole batch is calculated against one factor table
+		verify(emissionFactorService, times(1)).current();
+	}
+
+	@Test
+	void badLinesFailOnTheirOwn() throws Exception {
+		String body = request(1000, "India") + "\n"
+				+ "{\"material\":\"Unobtainium\",\"weight\":10,\"packaging\":\"Cardboard\"}\n"
+				+ "\n"
+				+ "{not json\n"
+				+ request(2000, "Global");
+
+		List<CarbonBatchResultDTO> results = run(body);
+
+		assertEquals(4, results.size());
+		assertEquals(5.0, results.get(0).getCarbonEmission());
+		assertNull(results.get(0).getError());
+		assertEquals("Emission factor not found for material: Unobtainium", results.get(1).getError());
+		assertNull(results.get(1).getCarbonEmission());
+		assertTrue(results.get(2).getError().startsWith("Malformed request"));
+		assertEquals(3, results.get(3).getIndex());
+		assertEquals(12.0, results.get(3).getCarbonEmission());
+	}
+
+	@Test
+	void oversizedBatchesAreRefused() throws Exception {
+		assertThrows(CarbonBatchCalculator.EmptyBatchException.class,
+				() -> calculator.calculate(new ByteArrayInputStream("\n \n".getBytes(StandardCharsets.UTF_8))));
+		String longLine = request(1000, "India" + "x".repeat(LINE_LIMIT));
+		assertThrows(CarbonBatchCalculator.BatchTooLargeException.class,
+				() -> run(request(1000, "India") + "\n" + longLine));
+
+		// Past the first chunk, results have started; the batch ends with a line naming the limit
+		int limit = CarbonBatchCalculator.CHUNK_SIZE + 1;
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < limit + 5; i++) {
+			body.append(request(1000, "India")).append("\r\n");
+		}
+		List<CarbonBatchResultDTO> results = run(newCalculator(limit), body.toString());
+		assertEquals(limit + 1, results.size());
+		assertEquals(5.0, results.get(limit - 1).getCarbonEmission());
+		assertEquals(limit, results.get(limit).getIndex());
+		assertEquals("A batch holds at most " + limit + " requests.", results.get(limit).getError());
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+	void benchmarkBatchThroughput() throws Exception {
+		int count = 1_000_000;
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			body.append(request(i % 5000, i % 3 == 0 ? "India" : "Peru")).append('\n');
+		}
+		byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+		CarbonBatchCalculator calculator = newCalculator(count);
+		for (int round = 0; round < 3; round++) {
+			long start = System.nanoTime();
+			calculator.calculate(new ByteArrayInputStream(bytes), OutputStream.nullOutputStream());
+			double seconds = (System.nanoTime() - start) / 1e9;
+			System.out.printf("%d calculations in %.2f s: %.0f per second%n", count, seconds, count / seconds);
+		}
+	}
+
+	private List<CarbonBatchResultDTO> run(String body) throws Exception {
+		return run(calculator, body);
+	}
+
+	private List<CarbonBatchResultDTO> run(CarbonBatchCalculator calculator, String body) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		calculator.calculate(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+		List<CarbonBatchResultDTO> results = new ArrayList<>();
+		for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+			results.add(objectMapper.readValue(line, CarbonBatchResultDTO.class));
+		}
+		return results;
+	}
+
+	private CarbonBatchCalculator newCalculator(int maxItems) {
+		return new CarbonBatchCalculator(
+				new CarbonCalculatorService(emissionFactorService,
+						new RegionDistanceMatrix(new ClassPathResource("regions/centroids.csv"), 500)),
+				emissionFactorService, objectMapper, maxItems, LINE_LIMIT, 4);
+	}
+
+	private static String request(double weight, String origin) {
+		return "{\"material\":\"Cotton\",\"weight\":" + weight + ",\"origin\":\"" + origin
+				+ "\",\"packaging\":\"Cardboard\"}";
+	}
+
+	private static EmissionFactor factor(Long id, String type, String name, String region, double value) {
+		EmissionFactor factor = new EmissionFactor();
+		factor.setId(id);
+		factor.setFactorType(type);
+		factor.setName(name);
+		factor.setRegion(region);
+		factor.setValue(value);
+		return factor;
+	}
+}
@@ -0,0 +1,103 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.sellerdto.CarbonCalculationRequest;
+import com.ecobazaarX.EcoBazaarX.model.EmissionFactor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Equal requests are calculated once per factor table version; failures are calculated again every time.
+ */
+class CarbonCalculationCacheTest {
+
+	private final EmissionFactorService emissionFactorService = mock(EmissionFactorService.class);
+	private final CarbonCalculatorService calculator = mock(CarbonCalculatorService.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final CarbonCalculationCache cache =
+			new CarbonCalculationCache(calculator, emissionFactorService, meterRegistry, 1000, Duration.ofHours(1));
+	private final EmissionFactorTable first = table(1);
+
+	CarbonCalculationCacheTest() {
+		when(emissionFactorService.current()).thenReturn(first);
+		when(calculator.calculateFootprint(any(), any())).thenReturn(1.5);
+	}
+
+	@Test
+	void repeatedRequestIsCalculatedOnce() {
+		assertEquals(1.5, cache.calculateFootprint(request("Cotton", " cardboard", "India", 250)));
+		assertEquals(1.5, cache.calculateFootprint(request("cotton ", "Cardboard", "INDIA", 250)));
+		cache.calculateFootprint(request("Cotton", "Cardboard", "India", 500));
+
+		verify(calculator, times(2)).calculateFootprint(any(), any());
+		assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "carbon.calculation").tag("result", "hit")
+				.functionCounter().count());
+	}
+
+	@Test
+	void newFactorTableMissesEveryEarlierResult() {
+		CarbonCalculationRequest request = request("Cotton", "Cardboard", "India", 250);
+		cache.calculateFootprint(request);
+		EmissionFactorTable second = table(2);
+		when(emissionFactorService.current()).thenReturn(second);
+		when(calculator.calculateFootprint(any(), any())).thenReturn(2.5);
+
+		assertEquals(2.5, cache.calculateFootprint(request));
+		assertEquals(2.5, cache.calculateFootprint(request));
+		verify(calculator).calculateFootprint(request, second);
+	}
+
+	@Test
+	void callerWithAnOlderTableKeepsTheNewerEntries() {
+		CarbonCalculationRequest request = request("Cotton", "Cardboard", "India", 250);
+		EmissionFactorTable second = table(2);
+		when(emissionFactorService.current()).thenReturn(second, first, second);
+
+		cache.calculateFootprint(request);
+		// Read the table just before the reload swapped it
+		cache.calculateFootprint(request);
+		cache.calculateFootprint(request);
+
+		verify(calculator, times(1)).calculateFootprint(request, second);
+		verify(calculator, times(1)).calculateFootprint(request, first);
+	}
+
+	@Test
+	void failedCalculationIsNotCached() {
+		CarbonCalculationRequest request = request("Unobtainium", "Cardboard", "India", 250);
+		when(calculator.calculateFootprint(request, first)).thenThrow(new RuntimeException("Emission factor not found"));
+
+		assertThrows(RuntimeException.class, () -> cache.calculateFootprint(request));
+		assertThrows(RuntimeException.class, () -> cache.calculateFootprint(request));
+		verify(calculator, times(2)).calculateFootprint(request, first);
+	}
+
+	private static CarbonCalculationRequest request(String material, String packaging, String origin, double weight) {
+		CarbonCalculationRequest request = new CarbonCalculationRequest();
+		request.setMaterial(material);
+		request.setPackaging(packaging);
+		request.setOrigin(origin);
+		request.setWeight(weight);
+		return request;
+	}
+
+	private static EmissionFactorTable table(long version) {
+		EmissionFactor factor = new EmissionFactor();
+		factor.setId(1L);
+		factor.setFactorType("MATERIAL");
+		factor.setName("Cotton");
+		factor.setRegion("Global");
+		factor.setValue(5.0);
+		return EmissionFactorTable.of(version, List.of(factor));
+	}
+}
@@ -0,0 +1,149 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.sellerdto.CarbonCalculationRequest;
+import com.ecobazaarX.EcoBazaarX.model.Address;
+import com.ecobazaarX.EcoBazaarX.model.EmissionFactor;
+import com.ecobazaarX.EcoBazaarX.model.Order;
+import com.ecobazaarX.EcoBazaarX.model.OrderItem;
+import com.ecobazaarX.EcoBazaarX.model.Product;
+import com.ecobazaarX.EcoBazaarX.model.Seller;
+import com.ecobazaarX.EcoBazaarX.repository.EmissionFactorRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The transport leg adds freight factor x tonnes x great-circle distance between the region centroids.
+ */
+class CarbonCalculatorServiceTest {
+
+	private final EmissionFactorService emissionFactorService = mock(EmissionFactorService.class);
+	private final RegionDistanceMatrix distances =
+			new RegionDistanceMatrix(new ClassPathResource("regions/centroids.csv"), 500);
+	private final CarbonCalculatorService calculator = new CarbonCalculatorService(emissionFactorService, distances);
+
+	CarbonCalculatorServiceTest() {
+		when(emissionFactorService.current()).thenReturn(EmissionFactorTable.of(1, List.of(
+				factor(1L, "MATERIAL", "Cotton", "Global", 5.0),
+				factor(2L, "PACKAGING", "Cardboard", "Global", 1.0),
+				factor(3L, "TRANSPORT", "Freight", "Global", 0.1),
+				factor(4L, "TRANSPORT", "Freight", "India", 0.2))));
+	}
+
+	@Test
+	void distancesAreSymmetricAndKnownByAlias() {
+		int india = distances.indexOf("India");
+		int usa = distances.indexOf(" usa ");
+		assertEquals("United States", distances.nameOf(usa));
+		assertEquals(distances.distanceKm(india, usa), distances.distanceKm(usa, india));
+		// Centroid to centroid, about 13,500 km
+		assertEquals(13_500, distances.distanceKm(india, usa), 300);
+		assertEquals(500, distances.distanceKm(india, india));
+		assertEquals(-1, distances.indexOf("Atlantis"));
+	}
+
+	@Test
+	void destinationAddsTheTransportLeg() {
+		CarbonCalculationRequest request = request("Germany", null);
+		assertEquals(12.0, calculator.calculateFootprint(request));
+
+		request.setDestination("France");
+		double km = distances.distanceKm(distances.indexOf("Germany"), distances.indexOf("France"));
+		assertEquals(Math.round((12.0 + 0.1 * 0.002 * km) * 100.0) / 100.0, calculator.calculateFootprint(request));
+
+		request.setDestination("Atlantis");
+		assertThrows(RuntimeException.class, () -> calculator.calculateFootprint(request));
+	}
+
+	@Test
+	void orderTransportSumsItemsWithKnownWeightAndRegion() {
+		Order order = order("Germany",
+				item("India", 1000.0, 2),
+				item("Germany", 500.0, 1),
+				item("India", null, 5),
+				item("Atlantis", 1000.0, 1));
+
+		double expected = 0.2 * 0.002 * distances.distanceKm(distances.indexOf("India"), distances.indexOf("Germany"))
+				+ 0.1 * 0.0005 * 500;
+		assertEquals(Math.round(expected * 100.0) / 100.0, calculator.estimateTransportEmission(order));
+
+		assertNull(calculator.estimateTransportEmission(order("Atlantis", item("India", 1000.0, 1))));
+		assertNull(calculator.estimateTransportEmission(order("Germany", item("India", null, 1))));
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+	void benchmarkOrderTransportEstimate() {
+		Order order = order("United Kingdom",
+				item("India", 800.0, 1), item("China", 250.0, 3), item("Vietnam", 1200.0, 2), item("UK", 400.0, 1));
+		// A plain subclass, as a Mockito stub call would cost more than the estimate being measured
+		EmissionFactorTable table = emissionFactorService.current();
+		CarbonCalculatorService calculator = new CarbonCalculatorService(
+				new EmissionFactorService(mock(EmissionFactorRepository.class), new SimpleMeterRegistry()) {
+					@Override
+					public EmissionFactorTable current() {
+						return table;
+					}
+				}, distances);
+		for (int round = 0; round < 5; round++) {
+			int orders = 1_000_000;
+			double sink = 0;
+			long start = System.nanoTime();
+			for (int i = 0; i < orders; i++) {
+				sink += calculator.estimateTransportEmission(order);
+			}
+			System.out.printf("transport estimate for a 4-item order: %d ns (%.0f)%n",
+					(System.nanoTime() - start) / orders, sink);
+		}
+	}
+
+	private static CarbonCalculationRequest request(String origin, String destination) {
+		CarbonCalculationRequest request = new CarbonCalculationRequest();
+		request.setMaterial("Cotton");
+		request.setPackaging("Cardboard");
+		request.setWeight(2000);
+		request.setOrigin(origin);
+		request.setDestination(destination);
+		return request;
+	}
+
+	private static Order order(String country, OrderItem... items) {
+		Order order = new Order();
+		Address address = new Address();
+		address.setCountry(country);
+		order.setShippingAddress(address);
+		order.setOrderItems(List.of(items));
+		return order;
+	}
+
+	private static OrderItem item(String sellerRegion, Double weightGrams, int quantity) {
+		Seller seller = new Seller();
+		seller.setRegion(sellerRegion);
+		Product product = new Product();
+		product.setSeller(seller);
+		product.setWeightGrams(weightGrams);
+		OrderItem item = new OrderItem();
+		item.setProduct(product);
+		item.setQuantity(quantity);
+		return item;
+	}
+
+	private static EmissionFactor factor(Long id, String type, String name, String region, double value) {
+		EmissionFactor factor = new EmissionFactor();
+		factor.setId(id);
+		factor.setFactorType(type);
+		factor.setName(name);
+		factor.setRegion(region);
+		factor.setValue(value);
+		return factor;
+	}
+}
@@ -0,0 +1,218 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.admindto.CarbonRecomputeJobDto;
+import com.ecobazaarX.EcoBazaarX.dto.admindto.EmissionFactorUpdateResultDto;
+import com.ecobazaarX.EcoBazaarX.model.CarbonRecomputeJob;
+import com.ecobazaarX.EcoBazaarX.model.EmissionFactor;
+import com.ecobazaarX.EcoBazaarX.model.Product;
+import com.ecobazaarX.EcoBazaarX.model.Seller;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Correcting a factor recalculates the stored footprint of exactly the products using it, chunk by chunk,
+ * a job picks up from its checkpoint, and a product edited meanwhile keeps the footprint stored with the edit.
+ */
+@DataJpaTest(properties = "ecobazaarx.carbon-recompute.chunk-size=2")
+@ActiveProfiles("h2")
+@Import({CarbonRecomputeService.class, AdminEmissionFactorService.class, CarbonCalculatorService.class,
+		EmissionFactorService.class, RegionDistanceMatrix.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CarbonRecomputeServiceTest {
+
+	@MockitoBean
+	private ProductDetailService productDetailService;
+
+	@MockitoBean
+	private CatalogSnapshotService catalogSnapshotService;
+
+	@MockitoSpyBean
+	private CarbonCalculatorService carbonCalculatorService;
+
+	@Autowired
+	private CarbonRecomputeService carbonRecomputeService;
+
+	@Autowired
+	private AdminEmissionFactorService adminEmissionFactorService;
+
+	@Autowired
+	private EmissionFactorService emissionFactorService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void correctedFactorIsAppliedToTheProductsUsingIt() throws Exception {
+		Long hemp = persistFactor("MATERIAL", "Hemp", 2.0);
+		persistFactor("MATERIAL", "Linen", 3.0);
+		persistFactor("PACKAGING", "Box", 1.0);
+		List<Long> products = persistProducts("hemp@seller.test",
+				product("Hemp", "Box", 1000.0),
+				product("Hemp", "Box", 500.0),
+				product("Hemp", "Crate", 1000.0),
+				product("Linen", "Box", 1000.0),
+				product("Hemp", "Box", null));
+		emissionFactorService.reload();
+
+		EmissionFactorUpdateResultDto result = adminEmissionFactorService.updateFactor(hemp, 4.0);
+		CarbonRecomputeJobDto job = awaitFinished(result.getRecomputeJobId());
+
+		assertEquals(CarbonRecomputeJob.Status.COMPLETED, job.getStatus());
+		assertEquals(3, job.getProcessed());
+		assertEquals(2, job.getUpdated());
+		// No PACKAGING factor for Crate
+		assertEquals(1, job.getFailed());
+		assertEquals(List.of(5.0, 2.5, 9.9, 9.9, 9.9), emissions(products));
+		verify(productDetailService, atLeastOnce()).invalidate(anyCollection());
+		verify(catalogSnapshotService, atLeastOnce()).reload();
+	}
+
+	@Test
+	void jobResumesAfterItsCheckpointAndStopsOnceSuperseded() {
+		persistFactor("MATERIAL", "Wool", 1.0);
+		persistFactor("PACKAGING", "Bag", 0.0);
+		List<Long> products = persistProducts("wool@seller.test",
+				product("Wool", "Bag", 1000.0),
+				product("Wool", "Bag", 1000.0),
+				product("Wool", "Bag", 1000.0));
+		emissionFactorService.reload();
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+		Long resumed = tx.execute(status -> carbonRecomputeService.schedule("MATERIAL", "Wool").getId());
+		// As if a restart interrupted the job after the first product
+		jdbcTemplate.update("UPDATE carbon_recompute_jobs SET last_product_id = ?, processed = 1 WHERE id = ?",
+				products.get(0), resumed);
+		carbonRecomputeService.run(resumed);
+
+		assertEquals(List.of(9.9, 1.0, 1.0), emissions(products));
+		assertEquals(3, carbonRecomputeService.getJob(resumed).orElseThrow().getProcessed());
+
+		jdbcTemplate.update("UPDATE products SET carbon_emission = 9.9 WHERE product_id IN (?, ?)",
+				products.get(1), products.get(2));
+		Long superseded = tx.execute(status -> carbonRecomputeService.schedule("MATERIAL", "Wool").getId());
+		Long latest = tx.execute(status -> carbonRecomputeService.schedule("MATERIAL", "Wool").getId());
+		carbonRecomputeService.run(superseded);
+
+		assertEquals(CarbonRecomputeJob.Status.SUPERSEDED, carbonRecomputeService.getJob(superseded).orElseThrow().getStatus());
+		assertEquals(List.of(9.9, 9.9, 9.9), emissions(products));
+
+		carbonRecomputeService.run(latest);
+		assertEquals(List.of(1.0, 1.0, 1.0), emissions(products));
+	}
+
+	@Test
+	void productEditedDuringTheChunkKeepsItsOwnFootprint() {
+		persistFactor("MATERIAL", "Jute", 1.0);
+		persistFactor("PACKAGING", "Sack", 0.0);
+		List<Long> products = persistProducts("jute@seller.test",
+				product("Jute", "Sack", 1000.0),
+				product("Jute", "Sack", 1000.0));
+		emissionFactorService.reload();
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		TransactionTemplate seller = new TransactionTemplate(transactionManager);
+		seller.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		// The seller changes the first product's weight, and its footprint with it, after the chunk was read
+		doAnswer(invocation -> {
+			seller.executeWithoutResult(status -> jdbcTemplate.update(
+					"UPDATE products SET weight_grams = 2000, carbon_emission = 2.0 WHERE product_id = ?", products.get(0)));
+			return invocation.callRealMethod();
+		}).doCallRealMethod().when(carbonCalculatorService).calculateFootprint(any(), any());
+
+		Long jobId = tx.execute(status -> carbonRecomputeService.schedule("MATERIAL", "Jute").getId());
+		carbonRecomputeService.run(jobId);
+
+		assertEquals(List.of(2.0, 1.0), emissions(products));
+		CarbonRecomputeJobDto job = carbonRecomputeService.getJob(jobId).orElseThrow();
+		assertEquals(2, job.getProcessed());
+		assertEquals(1, job.getUpdated());
+		verify(productDetailService).invalidate(List.of(products.get(1)));
+	}
+
+	private CarbonRecomputeJobDto awaitFinished(Long jobId) throws InterruptedException {
+		assertNotNull(jobId);
+		for (int i = 0; i < 100; i++) {
+			CarbonRecomputeJobDto job = carbonRecomputeService.getJob(jobId).orElseThrow();
+			if (job.getStatus() != CarbonRecomputeJob.Status.RUNNING) {
+				return job;
+			}
+			Thread.sleep(50);
+		}
+		throw new AssertionError("Job " + jobId + " did not finish");
+	}
+
+	private List<Double> emissions(List<Long> productIds) {
+		return productIds.stream()
+				.map(id -> jdbcTemplate.queryForObject("SELECT carbon_emission FROM products WHERE product_id = ?", Double.class, id))
+				.toList();
+	}
+
+	private Long persistFactor(String type, String name, double value) {
+		return new TransactionTemplate(transactionManager).execute(status -> {
+			EmissionFactor factor = new EmissionFactor();
+			factor.setFactorType(type);
+			factor.setName(name);
+			factor.setRegion("Global");
+			factor.setValue(value);
+			entityManager.persist(factor);
+			return factor.getId();
+		});
+	}
+
+	private List<Long> persistProducts(String sellerEmail, Product... products) {
+		return new TransactionTemplate(transactionManager).execute(status -> {
+			Seller seller = new Seller();
+			seller.setEmail(sellerEmail);
+			seller.setBusinessName("Shop " + sellerEmail);
+			entityManager.persist(seller);
+			for (Product product : products) {
+				product.setSeller(seller);
+				entityManager.persist(product);
+			}
+			return Arrays.stream(products).map(Product::getProductId).toList();
+		});
+	}
+
+	private static Product product(String material, String packaging, Double weightGrams) {
+		Product product = new Product();
+		product.setName(material + " product");
+		product.setCategory("Clothing");
+		product.setPrice(BigDecimal.TEN);
+		product.setStock(10);
+		product.setCarbonEmission(9.9);
+		product.setMaterial(material);
+		product.setPackaging(packaging);
+		product.setWeightGrams(weightGrams);
+		return product;
+	}
+}
@@ -0,0 +1,156 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductSummaryDTO;
+import com.ecobazaarX.EcoBazaarX.event.CatalogChangedEvent;
+import com.ecobazaarX.EcoBazaarX.event.ProductChangedEvent;
+import com.ecobazaarX.EcoBazaarX.model.Product;
+import com.ecobazaarX.EcoBazaarX.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogSnapshotServiceTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 1, 12, 0);
+
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+	private final CatalogSnapshotService service =
+			new CatalogSnapshotService(productRepository, eventPublisher, new SimpleMeterRegistry());
+
+	@Test
+	void reloadBuildsNewestFirstSnapshot() {
+		when(productRepository.findActiveSummaries()).thenReturn(List.of(summary(1L, 5, NOW.minusDays(1)), summary(2L, 5, NOW)));
+		service.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.ChangeType.UPDATED));
+		verify(eventPublisher, never()).publishEvent(any(Object.class));
+
+		service.reload();
+
+		CatalogSnapshot snapshot = service.current();
+		assertEquals(List.of(2L, 1L), snapshot.getProducts().stream().map(ProductSummaryDTO::getProductId).toList());
+		verify(eventPublisher).publishEvent(any(CatalogChangedEvent.class));
+	}
+
+	@Test
+	void productChangesSwapInNewSnapshotWithNewTag() {
+		when(productRepository.findActiveSummaries()).thenReturn(List.of(summary(1L, 5, NOW), summary(2L, 5, NOW)));
+		service.reload();
+		CatalogSnapshot loaded = service.current();
+		String loadedTag = service.etag(loaded);
+
+		Product edited = product(1L, true);
+		when(productRepository.findById(1L)).thenReturn(Optional.of(edited));
+		service.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.ChangeType.UPDATED));
+		assertEquals("Edited", service.current().get(1L).getName());
+		assertEquals("Product 1", loaded.get(1L).getName());
+		assertNotEquals(loadedTag, service.etag(service.current()));
+
+		when(productRepository.findById(1L)).thenReturn(Optional.of(product(1L, false)));
+		service.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.ChangeType.UPDATED));
+		assertNull(service.current().get(1L));
+
+		service.onProductChanged(new ProductChangedEvent(2L, ProductChangedEvent.ChangeType.DELETED));
+		assertEquals(0, service.current().size());
+	}
+
+	@Test
+	void stockChangesAreReadFromTheTable() {
+		ProductSummaryDTO listed = summary(1L, 5, NOW);
+		when(productRepository.findActiveSummaries()).thenReturn(List.of(listed));
+		service.reload();
+		CatalogSnapshot loaded = service.current();
+
+		// The entity cached by the checkout's persistence context still holds the old stock
+		when(productRepository.findById(1L)).thenReturn(Optional.of(product(1L, true)));
+		when(productRepository.findStockByIdIn(any())).thenReturn(List.of(stock(1L, 2)));
+		service.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.ChangeType.STOCK));
+		assertSame(loaded, service.current());
+		service.applyStockChanges();
+
+		assertEquals(2, service.current().get(1L).getStock());
+		assertEquals(listed.withStock(2), service.current().get(1L));
+		assertNotEquals(service.etag(loaded), service.etag(service.current()));
+		assertSame(listed, loaded.get(1L));
+	}
+
+	@Test
+	void stockChangesAreAppliedAsOneSnapshotPerRun() {
+		when(productRepository.findActiveSummaries()).thenReturn(List.of(summary(1L, 5, NOW), summary(2L, 5, NOW.minusDays(1))));
+		service.reload();
+		CatalogSnapshot loaded = service.current();
+		when(productRepository.findStockByIdIn(any())).thenReturn(List.of(stock(1L, 3), stock(2L, 5)));
+
+		for (int i = 0; i < 50; i++) {
+			service.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.ChangeType.STOCK));
+			service.onProductChanged(new ProductChangedEvent(2L, ProductChangedEvent.ChangeType.STOCK));
+		}
+		service.applyStockChanges();
+
+		CatalogSnapshot next = service.current();
+		assertEquals(loaded.getVersion() + 1, next.getVersion());
+		assertEquals(3, next.get(1L).getStock());
+		assertSame(loaded.get(2L), next.get(2L));
+		assertEquals(List.of(1L, 2L), next.getProducts().stream().map(ProductSummaryDTO::getProductId).toList());
+		verify(productRepository, times(1)).findStockByIdIn(any());
+		ArgumentCaptor<CatalogChangedEvent> event = ArgumentCaptor.forClass(CatalogChangedEvent.class);
+		verify(eventPublisher, times(2)).publishEvent(event.capture());
+		assertTrue(event.getValue().isStockOnly());
+		assertFalse(event.getValue().isFullReload());
+
+		// Nothing noted, or nothing that differs: the snapshot and its tag stay
+		service.applyStockChanges();
+		service.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.ChangeType.STOCK));
+		service.applyStockChanges();
+		assertSame(next, service.current());
+	}
+
+	private static ProductRepository.StockLevel stock(Long id, int stock) {
+		return new ProductRepository.StockLevel() {
+			@Override
+			public Long getProductId() {
+				return id;
+			}
+
+			@Override
+			public Integer getStock() {
+				return stock;
+			}
+		};
+	}
+
+	private static ProductSummaryDTO summary(Long id, int stock, LocalDateTime createdAt) {
+		return new ProductSummaryDTO(id, "Product " + id, null, stock, "Home", null, 1.0, BigDecimal.TEN, createdAt,
+				false, true, 1L, "Green Shop");
+	}
+
+	private static Product product(Long id, boolean active) {
+		Product product = new Product();
+		product.setProductId(id);
+		product.setName("Edited");
+		product.setCategory("Home");
+		product.setPrice(BigDecimal.TEN);
+		product.setStock(5);
+		product.setCreatedAt(NOW);
+		product.setActive(active);
+		return product;
+	}
+}
@@ -0,0 +1,66 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.model.EmissionFactor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.OptionalDouble;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lookups resolve exactly as the per-call database queries did: regional factor first, then the Global one.
+ */
+class EmissionFactorTableTest {
+
+	private final EmissionFactorTable table = EmissionFactorTable.of(1, List.of(
+			factor(1L, "MATERIAL", "Cotton", "Global", 5.0),
+			factor(2L, "MATERIAL", "Cotton", "India", 4.0),
+			factor(3L, "MATERIAL", "Bamboo", "Global", 1.5),
+			factor(4L, "PACKAGING", "Cardboard", "Global", 0.7),
+			factor(5L, "MATERIAL", "Cotton", "india", 9.0),
+			factor(6L, "MATERIAL", "Jute", "India", 2.0)));
+
+	@Test
+	void regionalFactorWinsOverGlobal() {
+		assertEquals(OptionalDouble.of(4.0), table.find("MATERIAL", "Cotton", "India"));
+		// Matching ignores case and blanks; the older of two rows that only differ in case wins
+		assertEquals(OptionalDouble.of(4.0), table.find("material", " cotton ", "INDIA"));
+	}
+
+	@Test
+	void missingRegionFallsBackToGlobal() {
+		assertEquals(OptionalDouble.of(1.5), table.find("MATERIAL", "Bamboo", "India"));
+		assertEquals(OptionalDouble.of(5.0), table.find("MATERIAL", "Cotton", "Atlantis"));
+		assertEquals(OptionalDouble.of(5.0), table.find("MATERIAL", "Cotton", null));
+		assertEquals(OptionalDouble.of(0.7), table.find("PACKAGING", "Cardboard", "Global"));
+	}
+
+	@Test
+	void unknownFactorIsEmpty() {
+		assertFalse(table.find("MATERIAL", "Jute", "Kenya").isPresent());
+		assertFalse(table.find("PACKAGING", "Cotton", "Global").isPresent());
+		assertTrue(table.find("MATERIAL", "Jute", "India").isPresent());
+	}
+
+	@Test
+	void tablesWithTheSameFactorsAreEqualWhateverTheirVersion() {
+		EmissionFactorTable reloaded = EmissionFactorTable.of(2, List.of(
+				factor(1L, "MATERIAL", "Bamboo", "Global", 1.5)));
+		assertTrue(reloaded.sameFactorsAs(EmissionFactorTable.of(3, List.of(
+				factor(7L, "material", "bamboo", "global", 1.5)))));
+		assertFalse(reloaded.sameFactorsAs(table));
+	}
+
+	private static EmissionFactor factor(Long id, String type, String name, String region, double value) {
+		EmissionFactor factor = new EmissionFactor();
+		factor.setId(id);
+		factor.setFactorType(type);
+		factor.setName(name);
+		factor.setRegion(region);
+		factor.setValue(value);
+		return factor;
+	}
+}
@@ -0,0 +1,42 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GreenerAlternativesIndexTest {
+
+	private final GreenerAlternativesIndex index = new GreenerAlternativesIndex();
+
+	@Test
+	void returnsLowerCarbonProductsWithinPriceBandLowestFirst() {
+		index.rebuild(List.of(
+				new GreenerAlternativesIndex.Item(1L, "Kitchen", new BigDecimal("100"), 5.0),
+				new GreenerAlternativesIndex.Item(2L, "Kitchen", new BigDecimal("110"), 3.0),
+				new GreenerAlternativesIndex.Item(3L, "Kitchen", new BigDecimal("95"), 1.0),
+				new GreenerAlternativesIndex.Item(4L, "Kitchen", new BigDecimal("300"), 0.5),
+				new GreenerAlternativesIndex.Item(5L, "Home", new BigDecimal("100"), 0.1),
+				new GreenerAlternativesIndex.Item(6L, "Kitchen", new BigDecimal("100"), 5.0)));
+
+		assertEquals(List.of(3L, 2L), index.greenerThan(1L, "Kitchen", 5.0, 100, 0.2, 10));
+		assertEquals(List.of(3L), index.greenerThan(1L, "Kitchen", 5.0, 100, 0.2, 1));
+		assertEquals(List.of(), index.greenerThan(3L, "Kitchen", 1.0, 95, 0.2, 10));
+	}
+
+	@Test
+	void followsUpdatesAndRemovals() {
+		index.upsert(1L, "Kitchen", new BigDecimal("100"), 5.0);
+		index.upsert(2L, "Kitchen", new BigDecimal("100"), 3.0);
+		index.upsert(3L, "Kitchen", new BigDecimal("100"), 4.0);
+		assertEquals(List.of(2L, 3L), index.greenerThan(1L, "Kitchen", 5.0, 100, 0.1, 10));
+
+		index.upsert(2L, "Garden", new BigDecimal("100"), 3.0);
+		index.upsert(3L, "Kitchen", new BigDecimal("100"), 1.0);
+		index.remove(1L);
+		assertEquals(List.of(3L), index.greenerThan(1L, "Kitchen", 5.0, 100, 0.1, 10));
+		assertEquals(List.of(2L), index.greenerThan(9L, "Garden", 4.0, 100, 0.1, 10));
+	}
+}
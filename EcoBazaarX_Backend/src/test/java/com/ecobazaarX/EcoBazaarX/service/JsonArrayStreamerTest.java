@@ -0,0 +1,127 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.OrderFixtures;
+import com.ecobazaarX.EcoBazaarX.model.Order;
+import com.ecobazaarX.EcoBazaarX.model.Product;
+import com.ecobazaarX.EcoBazaarX.model.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Streamed listings must be one well-formed JSON array, reach the client while rows are still being read,
+ * and carry every row exactly once across chunk boundaries.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureJson
+@Import({JsonArrayStreamer.class, OrderService.class, StockLedger.class, OrderEventOutbox.class})
+class JsonArrayStreamerTest {
+
+	@MockitoBean
+	private CarbonCalculatorService carbonCalculatorService;
+
+	@Autowired
+	private JsonArrayStreamer jsonArrayStreamer;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private OrderFixtures fixtures;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new OrderFixtures(entityManager);
+	}
+
+	@Test
+	void rowsAreFlushedWhileTheStreamIsStillOpen() throws Exception {
+		int rows = 2 * JsonArrayStreamer.FLUSH_EVERY + 3;
+		FlushRecordingStream out = new FlushRecordingStream();
+
+		jsonArrayStreamer.stream(() -> IntStream.range(0, rows).boxed(), i -> Map.of("n", i)).writeTo(out);
+
+		JsonNode array = objectMapper.readTree(out.toByteArray());
+		assertEquals(rows, array.size());
+		for (int i = 0; i < rows; i++) {
+			assertEquals(i, array.get(i).get("n").asInt());
+		}
+		// Two flushes of FLUSH_EVERY rows each before the closing bracket was written
+		assertTrue(out.flushedSizes.stream().filter(size -> size > 0 && size < out.size()).count() >= 2,
+				out.flushedSizes::toString);
+	}
+
+	@Test
+	void emptyListingIsAnEmptyArray() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		jsonArrayStreamer.streamChunks(previous -> List.of(), row -> row).writeTo(out);
+
+		assertEquals("[]", out.toString());
+	}
+
+	@Test
+	void sellerHistoryStreamsEveryOrderOnceAcrossChunks() throws Exception {
+		User buyer = fixtures.buyer("buyer@shop.test");
+		Product own = fixtures.product("small@shop.test", 10);
+		Product other = fixtures.product("large@shop.test", 10);
+		List<Long> expected = new ArrayList<>();
+		for (int i = 0; i < 2 * OrderService.HISTORY_CHUNK_SIZE + 1; i++) {
+			Order order = i % 50 == 0
+					? fixtures.order(buyer, Order.OrderStatus.DELIVERED, own, other)
+					: fixtures.order(buyer, Order.OrderStatus.DELIVERED, own);
+			expected.add(0, order.getOrderId());
+			if (i % 10 == 0) {
+				fixtures.order(buyer, Order.OrderStatus.DELIVERED, other);
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		StreamingResponseBody body = orderService.streamOrderHistoryForSeller("small@shop.test");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		body.writeTo(out);
+
+		List<Long> streamed = new ArrayList<>();
+		for (JsonNode order : objectMapper.readTree(out.toByteArray())) {
+			streamed.add(order.get("orderId").asLong());
+			// Mixed orders only show the seller's own item
+			assertEquals(1, order.get("orderItems").size());
+			assertEquals(own.getProductId().longValue(), order.get("orderItems").get(0).get("productId").asLong());
+		}
+		assertEquals(expected, streamed);
+	}
+
+	private static final class FlushRecordingStream extends ByteArrayOutputStream {
+		private final List<Integer> flushedSizes = new ArrayList<>();
+
+		@Override
+		public void flush() {
+			flushedSizes.add(size());
+		}
+	}
+}
@@ -0,0 +1,214 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.sellerdto.OrderStatusUpdateResultDTO;
+import com.ecobazaarX.EcoBazaarX.dto.sellerdto.SellerOrderDTO;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderItemDTO;
+import com.ecobazaarX.EcoBazaarX.model.Order;
+import com.ecobazaarX.EcoBazaarX.model.Product;
+import com.ecobazaarX.EcoBazaarX.model.User;
+import com.ecobazaarX.EcoBazaarX.repository.OrderOutboxEventRepository;
+import com.ecobazaarX.EcoBazaarX.repository.OrderRepository;
+import com.ecobazaarX.EcoBazaarX.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Bulk status updates load each chunk of orders with one query and report every order on its own.
+ * Single and bulk updates alike only reach orders holding the seller's products.
+ */
+class OrderBulkStatusTest extends OrderServiceSliceTest {
+
+	@MockitoSpyBean
+	private OrderEventOutbox orderEventOutbox;
+
+	@Autowired
+	private OrderOutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void eachOrderIsValidatedOnItsOwn() {
+		User buyer = fixtures.buyer("bulk@buyer.test");
+		Product mine = fixtures.product("bulk@seller.test", 10);
+		Product theirs = fixtures.product("other@seller.test", 10);
+		List<Long> pending = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			pending.add(fixtures.order(buyer, Order.OrderStatus.PENDING_APPROVAL, mine).getOrderId());
+		}
+		Long delivered = fixtures.order(buyer, Order.OrderStatus.DELIVERED, mine).getOrderId();
+		Long foreign = fixtures.order(buyer, Order.OrderStatus.PENDING_APPROVAL, theirs).getOrderId();
+		entityManager.flush();
+		entityManager.clear();
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		List<Long> request = new ArrayList<>(pending);
+		request.addAll(List.of(delivered, foreign, Long.MAX_VALUE, pending.get(0)));
+		List<OrderStatusUpdateResultDTO> results = orderService.updateOrderStatuses(request, "approved", "bulk@seller.test");
+
+		assertEquals(1, statistics.getQueryExecutionCount());
+		// Duplicates are reported once, in request order
+		assertEquals(List.of(pending.get(0), pending.get(1), pending.get(2), delivered, foreign, Long.MAX_VALUE),
+				results.stream().map(OrderStatusUpdateResultDTO::getOrderId).toList());
+		assertEquals(List.of(true, true, true, false, false, false),
+				results.stream().map(OrderStatusUpdateResultDTO::isUpdated).toList());
+		assertEquals("APPROVED", results.get(0).getOrder().getStatus());
+		assertEquals("Order is already in a final state and cannot be changed.", results.get(3).getError());
+		// Another seller's order looks the same as one that does not exist
+		assertEquals("Order not found with ID: " + foreign, results.get(4).getError());
+
+		entityManager.flush();
+		entityManager.clear();
+		assertEquals(Order.OrderStatus.APPROVED, orderRepository.findById(pending.get(2)).orElseThrow().getStatus());
+		assertEquals(Order.OrderStatus.PENDING_APPROVAL, orderRepository.findById(foreign).orElseThrow().getStatus());
+	}
+
+	@Test
+	void singleUpdateIsScopedToTheSeller() {
+		User buyer = fixtures.buyer("single@buyer.test");
+		Product mine = fixtures.product("single@seller.test", 10);
+		Product theirs = fixtures.product("other@seller.test", 10);
+		Long mixed = fixtures.order(buyer, Order.OrderStatus.PENDING_APPROVAL, mine, theirs).getOrderId();
+		Long foreign = fixtures.order(buyer, Order.OrderStatus.PENDING_APPROVAL, theirs).getOrderId();
+		entityManager.flush();
+		entityManager.clear();
+
+		assertThrows(EntityNotFoundException.class,
+				() -> orderService.updateOrderStatus(foreign, "APPROVED", "single@seller.test"));
+		SellerOrderDTO approved = orderService.updateOrderStatus(mixed, "APPROVED", "single@seller.test");
+
+		assertEquals("APPROVED", approved.getStatus());
+		assertEquals(List.of(mine.getProductId()),
+				approved.getOrderItems().stream().map(OrderItemDTO::getProductId).toList());
+		assertEquals(0, BigDecimal.TEN.compareTo(approved.getTotalPrice()));
+		entityManager.flush();
+		entityManager.clear();
+		assertEquals(Order.OrderStatus.PENDING_APPROVAL, orderRepository.findById(foreign).orElseThrow().getStatus());
+	}
+
+	@Test
+	void cancellingPutsBackTheStockOfAllOrders() {
+		User buyer = fixtures.buyer("cancel@buyer.test");
+		Product first = fixtures.product("cancel@seller.test", 0);
+		Product second = fixtures.product("cancel@seller.test", 0);
+		List<Long> orders = List.of(
+				fixtures.order(buyer, Order.OrderStatus.PENDING_APPROVAL, first, second).getOrderId(),
+				fixtures.order(buyer, Order.OrderStatus.APPROVED, first).getOrderId(),
+				fixtures.order(buyer, Order.OrderStatus.SHIPPED, first).getOrderId());
+		entityManager.flush();
+		entityManager.clear();
+
+		List<OrderStatusUpdateResultDTO> results = orderService.updateOrderStatuses(orders, "CANCELLED", "cancel@seller.test");
+		entityManager.flush();
+		entityManager.clear();
+
+		assertTrue(results.get(0).isUpdated());
+		assertTrue(results.get(1).isUpdated());
+		assertFalse(results.get(2).isUpdated());
+		// One unit per item of the two cancelled orders; the shipped one keeps its stock
+		assertEquals(2, productRepository.findById(first.getProductId()).orElseThrow().getStock());
+		assertEquals(1, productRepository.findById(second.getProductId()).orElseThrow().getStock());
+	}
+
+	@Test
+	void sellerCannotCancelAnOrderSharedWithAnotherSeller() {
+		User buyer = fixtures.buyer("shared@buyer.test");
+		Product mine = fixtures.product("shared@seller.test", 0);
+		Product theirs = fixtures.product("other@seller.test", 0);
+		Long shared = fixtures.order(buyer, Order.OrderStatus.PENDING_APPROVAL, mine, theirs).getOrderId();
+		Long own = fixtures.order(buyer, Order.OrderStatus.PENDING_APPROVAL, mine).getOrderId();
+		entityManager.flush();
+		entityManager.clear();
+
+		List<OrderStatusUpdateResultDTO> results =
+				orderService.updateOrderStatuses(List.of(shared, own), "CANCELLED", "shared@seller.test");
+		assertThrows(IllegalStateException.class,
+				() -> orderService.updateOrderStatus(shared, "CANCELLED", "other@seller.test"));
+		entityManager.flush();
+		entityManager.clear();
+
+		assertFalse(results.get(0).isUpdated());
+		assertEquals("Order also holds other sellers' items; only the buyer can cancel it.", results.get(0).getError());
+		assertTrue(results.get(1).isUpdated());
+		assertEquals(Order.OrderStatus.PENDING_APPROVAL, orderRepository.findById(shared).orElseThrow().getStatus());
+		// Only the order made up of the seller's own items put stock back
+		assertEquals(1, productRepository.findById(mine.getProductId()).orElseThrow().getStock());
+		assertEquals(0, productRepository.findById(theirs.getProductId()).orElseThrow().getStock());
+		// Moving a shared order along is still open to every seller on it
+		assertTrue(orderService.updateOrderStatuses(List.of(shared), "APPROVED", "shared@seller.test").get(0).isUpdated());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void orderCancelledByItsBuyerMeanwhileIsNotCancelledAgain() {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		Long[] ids = transactionTemplate.execute(status -> {
+			User buyer = fixtures.buyer("race@buyer.test");
+			Product product = fixtures.product("race@seller.test", 0);
+			return new Long[]{fixtures.order(buyer, Order.OrderStatus.PENDING_APPROVAL, product).getOrderId(),
+					product.getProductId()};
+		});
+		Long orderId = ids[0];
+
+		// The bulk update has read the order as pending when the buyer's cancellation commits
+		AtomicBoolean first = new AtomicBoolean(true);
+		// Stubbed inside a transaction, as the outbox only records within one
+		transactionTemplate.executeWithoutResult(status -> doAnswer(invocation -> {
+			if (first.getAndSet(false)) {
+				CompletableFuture.runAsync(() -> orderService.cancelOrder(orderId, "race@buyer.test")).join();
+			}
+			return invocation.callRealMethod();
+		}).when(orderEventOutbox).record(any(), any()));
+
+		List<OrderStatusUpdateResultDTO> results = orderService.updateOrderStatuses(List.of(orderId), "CANCELLED", "race@seller.test");
+
+		assertFalse(results.get(0).isUpdated());
+		assertEquals("Order is already in a final state and cannot be changed.", results.get(0).getError());
+		assertEquals(1, productRepository.findById(ids[1]).orElseThrow().getStock());
+		assertEquals(1, outboxEventRepository.findAll().stream().filter(e -> e.getOrderId().equals(orderId)).count());
+	}
+
+	@Test
+	void unknownStatusOrTooManyOrdersAreRejected() {
+		assertThrows(IllegalArgumentException.class,
+				() -> orderService.updateOrderStatuses(List.of(1L), "LOST", "bulk@seller.test"));
+		List<Long> tooMany = new ArrayList<>();
+		for (long id = 1; id <= OrderService.MAX_BULK_STATUS_ORDERS + 1; id++) {
+			tooMany.add(id);
+		}
+		assertThrows(IllegalArgumentException.class,
+				() -> orderService.updateOrderStatuses(tooMany, "APPROVED", "bulk@seller.test"));
+	}
+}
@@ -0,0 +1,251 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderDTO;
+import com.ecobazaarX.EcoBazaarX.model.Product;
+import com.ecobazaarX.EcoBazaarX.model.User;
+import com.ecobazaarX.EcoBazaarX.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static com.ecobazaarX.EcoBazaarX.OrderFixtures.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checkout must load the whole cart in one statement, however many products it holds,
+ * and must never sell more than is in stock, however many buyers race for it.
+ */
+class OrderCheckoutTest extends OrderServiceSliceTest {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void cartIsLoadedWithOneQuery() {
+		User buyer = fixtures.buyer("cart@buyer.test");
+		List<Product> products = new ArrayList<>();
+		for (int s = 0; s < 3; s++) {
+			products.addAll(fixtures.products("seller" + s + "@cart.test", 10, 100));
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		orderService.createOrder(request(products.stream().map(Product::getProductId).toList(), 1), buyer.getEmail());
+
+		// The buyer lookup plus one SELECT for all 30 products (stock UPDATEs are not counted as queries);
+		// their 3 sellers arrive in one batch
+		assertEquals(2, statistics.getQueryExecutionCount());
+		assertEquals(1, statistics.getCollectionFetchCount() + statistics.getEntityFetchCount());
+	}
+
+	@Test
+	void repeatedProductIsCheckedAgainstItsTotalQuantity() {
+		User buyer = fixtures.buyer("repeat@buyer.test");
+		Product product = fixtures.products("repeat@seller.test", 1, 5).get(0);
+		Long id = product.getProductId();
+		entityManager.flush();
+		entityManager.clear();
+
+		assertThrows(IllegalStateException.class,
+				() -> orderService.createOrder(request(List.of(id, id), 3), buyer.getEmail()));
+
+		OrderDTO order = orderService.createOrder(request(List.of(id, id), 2), buyer.getEmail());
+		assertEquals(0, new BigDecimal("40").compareTo(order.getTotalPrice()));
+		entityManager.clear();
+		assertEquals(1, productRepository.findById(id).orElseThrow().getStock());
+	}
+
+	@Test
+	void cancellationPutsStockBack() {
+		User buyer = fixtures.buyer("cancel@buyer.test");
+		Long id = fixtures.products("cancel@seller.test", 1, 5).get(0).getProductId();
+
+		OrderDTO order = orderService.createOrder(request(List.of(id, id), 2), buyer.getEmail());
+		entityManager.flush();
+		entityManager.clear();
+		orderService.cancelOrder(order.getOrderId(), buyer.getEmail());
+		entityManager.flush();
+		entityManager.clear();
+
+		assertEquals(5, productRepository.findById(id).orElseThrow().getStock());
+	}
+
+	@Test
+	void nonPositiveQuantityIsRejected() {
+		User buyer = fixtures.buyer("negative@buyer.test");
+		Long id = fixtures.products("negative@seller.test", 1, 5).get(0).getProductId();
+
+		assertThrows(IllegalArgumentException.class,
+				() -> orderService.createOrder(request(List.of(id), -3), buyer.getEmail()));
+	}
+
+	/**
+	 * 500 buyers race for the last 100 units of one SKU: exactly 100 checkouts may succeed and stock must end at zero.
+	 */
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void flashSaleNeverOversells() throws Exception {
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		String buyerEmail = "flash@buyer.test";
+		Long sku = tx.execute(status -> {
+			fixtures.buyer(buyerEmail);
+			return fixtures.products("flash@seller.test", 1, 100).get(0).getProductId();
+		});
+
+		int buyers = 500;
+		AtomicInteger succeeded = new AtomicInteger();
+		AtomicInteger soldOut = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(buyers);
+		for (int i = 0; i < buyers; i++) {
+			pool.submit(() -> {
+				start.await();
+				try {
+					orderService.createOrder(request(List.of(sku), 1), buyerEmail);
+					succeeded.incrementAndGet();
+				} catch (IllegalStateException e) {
+					soldOut.incrementAndGet();
+				}
+				return null;
+			});
+		}
+		start.countDown();
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(5, TimeUnit.MINUTES));
+
+		assertEquals(100, succeeded.get());
+		assertEquals(400, soldOut.get());
+		assertEquals(0, productRepository.findById(sku).orElseThrow().getStock());
+	}
+
+	@Test
+	void batchPlacesEachOrderOnItsOwnMerits() {
+		User buyer = fixtures.buyer("batch@buyer.test");
+		List<Product> products = fixtures.products("batch@seller.test", 2, 3);
+		Long first = products.get(0).getProductId();
+		Long second = products.get(1).getProductId();
+		entityManager.flush();
+		entityManager.clear();
+
+		List<OrderService.PlacementResult> results = orderService.createOrders(List.of(
+				new OrderService.OrderSubmission(request(List.of(second), 2), buyer.getEmail()),
+				// Takes 'first', then falls short on 'second': 'first' must be handed back
+				new OrderService.OrderSubmission(request(List.of(first, second), 2), buyer.getEmail()),
+				new OrderService.OrderSubmission(request(List.of(first), 1), buyer.getEmail())));
+		entityManager.flush();
+		entityManager.clear();
+
+		assertNotNull(results.get(0).order());
+		assertEquals("Not enough stock for product: Product 1", results.get(1).error());
+		assertNotNull(results.get(2).order());
+		assertEquals(2, productRepository.findById(first).orElseThrow().getStock());
+		assertEquals(1, productRepository.findById(second).orElseThrow().getStock());
+	}
+
+	@Test
+	void unknownProductIsRejected() {
+		User buyer = fixtures.buyer("unknown@buyer.test");
+		assertThrows(EntityNotFoundException.class,
+				() -> orderService.createOrder(request(List.of(Long.MAX_VALUE), 1), buyer.getEmail()));
+	}
+
+	/**
+	 * Many buyers checking out overlapping carts, listed in random order, on a small set of hot products.
+	 * Compares the former per-item lookup (rows locked in cart order at flush) with the current checkout,
+	 * which takes its row locks through conditional updates in ascending id order.
+	 * Run with -Dbenchmarks=true.
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void benchmarkContendedCheckout() throws Exception {
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		String buyerEmail = "bench@buyer.test";
+		List<Long> hot = tx.execute(status -> {
+			fixtures.buyer(buyerEmail);
+			return fixtures.products("bench@seller.test", 8, 1_000_000).stream().map(Product::getProductId).toList();
+		});
+
+		BiConsumer<List<Long>, Integer> perItem = (ids, quantity) -> tx.executeWithoutResult(status -> {
+			for (Long id : ids) {
+				Product product = productRepository.findById(id).orElseThrow();
+				product.setStock(product.getStock() - quantity);
+			}
+		});
+		BiConsumer<List<Long>, Integer> ordered = (ids, quantity) ->
+				orderService.createOrder(request(ids, quantity), buyerEmail);
+
+		for (int round = 0; round < 2; round++) {
+			report("per-item lookup  ", runCheckouts(hot, perItem));
+			report("ordered updates  ", runCheckouts(hot, ordered));
+		}
+	}
+
+	private record RunResult(int succeeded, int failed, long nanos) {
+	}
+
+	private static RunResult runCheckouts(List<Long> hot, BiConsumer<List<Long>, Integer> checkout) throws InterruptedException {
+		int threads = 8;
+		int perThread = 100;
+		AtomicInteger succeeded = new AtomicInteger();
+		AtomicInteger failed = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		long start = System.nanoTime();
+		for (int t = 0; t < threads; t++) {
+			long seed = t;
+			pool.submit(() -> {
+				Random random = new Random(seed);
+				for (int i = 0; i < perThread; i++) {
+					List<Long> cart = new ArrayList<>(hot);
+					Collections.shuffle(cart, random);
+					try {
+						checkout.accept(cart.subList(0, 4), 1);
+						succeeded.incrementAndGet();
+					} catch (RuntimeException e) {
+						failed.incrementAndGet();
+					}
+				}
+			});
+		}
+		pool.shutdown();
+		pool.awaitTermination(10, TimeUnit.MINUTES);
+		return new RunResult(succeeded.get(), failed.get(), System.nanoTime() - start);
+	}
+
+	private static void report(String label, RunResult result) {
+		double seconds = result.nanos() / 1e9;
+		System.out.printf("%s: %.0f checkouts/s, %d of %d failed (deadlock or lock timeout)%n",
+				label, result.succeeded() / seconds, result.failed(), result.succeeded() + result.failed());
+	}
+}
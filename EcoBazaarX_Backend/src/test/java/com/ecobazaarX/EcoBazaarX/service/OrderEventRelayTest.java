@@ -0,0 +1,133 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderDTO;
+import com.ecobazaarX.EcoBazaarX.event.OrderLifecycleEvent;
+import com.ecobazaarX.EcoBazaarX.model.Order;
+import com.ecobazaarX.EcoBazaarX.repository.OrderOutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.ecobazaarX.EcoBazaarX.OrderFixtures.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Order changes reach subscribers through the outbox: after commit, in order, and again after a failed dispatch.
+ */
+@Import({OrderEventRelay.class, OrderEventRelayTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderEventRelayTest extends OrderServiceSliceTest {
+
+	static class RecordingSubscriber {
+		final List<OrderLifecycleEvent> received = new CopyOnWriteArrayList<>();
+		final AtomicBoolean failNext = new AtomicBoolean();
+
+		@EventListener
+		public void on(OrderLifecycleEvent event) {
+			received.add(event);
+			if (failNext.getAndSet(false)) {
+				throw new IllegalStateException("subscriber failure");
+			}
+		}
+	}
+
+	@TestConfiguration
+	static class Config {
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+		@Bean
+		RecordingSubscriber recordingSubscriber() {
+			return new RecordingSubscriber();
+		}
+	}
+
+	@Autowired
+	private OrderEventRelay relay;
+
+	@Autowired
+	private OrderOutboxEventRepository outboxRepository;
+
+	@Autowired
+	private RecordingSubscriber subscriber;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void lifecycleIsDispatchedInOrderAfterCommit() {
+		Long productId = seed("lifecycle@buyer.test", "lifecycle@seller.test");
+		OrderDTO order = orderService.createOrder(request(List.of(productId), 2), "lifecycle@buyer.test");
+		orderService.cancelOrder(order.getOrderId(), "lifecycle@buyer.test");
+		subscriber.received.clear();
+
+		relay.relay();
+
+		List<OrderLifecycleEvent> events = eventsFor(order.getOrderId());
+		assertEquals(2, events.size());
+		assertNull(events.get(0).getPreviousStatus());
+		assertEquals(Order.OrderStatus.PENDING_APPROVAL, events.get(0).getStatus());
+		assertEquals(List.of(new OrderLifecycleEvent.Line(productId, 2, new BigDecimal("10.00"))),
+				events.get(0).getLines());
+		assertEquals(Order.OrderStatus.PENDING_APPROVAL, events.get(1).getPreviousStatus());
+		assertEquals(Order.OrderStatus.CANCELLED, events.get(1).getStatus());
+		assertEquals(0, outboxRepository.count());
+		assertEquals(0.0, meterRegistry.get("orders.outbox.lag.seconds").gauge().value());
+	}
+
+	@Test
+	void failedDispatchIsRetriedFromTheFailedEvent() {
+		Long productId = seed("retry@buyer.test", "retry@seller.test");
+		OrderDTO first = orderService.createOrder(request(List.of(productId), 1), "retry@buyer.test");
+		OrderDTO second = orderService.createOrder(request(List.of(productId), 1), "retry@buyer.test");
+		subscriber.received.clear();
+
+		subscriber.failNext.set(true);
+		relay.relay();
+		assertEquals(2, outboxRepository.count());
+		// Released, not left claimed until the lease runs out
+		assertTrue(outboxRepository.findAll().stream().allMatch(row -> row.getClaimedUntil() == null));
+
+		subscriber.received.clear();
+		relay.relay();
+
+		assertEquals(List.of(first.getOrderId(), second.getOrderId()),
+				subscriber.received.stream().map(OrderLifecycleEvent::getOrderId).toList());
+		assertEquals(0, outboxRepository.count());
+	}
+
+	private List<OrderLifecycleEvent> eventsFor(Long orderId) {
+		return subscriber.received.stream().filter(event -> event.getOrderId().equals(orderId)).toList();
+	}
+
+	private Long seed(String buyerEmail, String sellerEmail) {
+		Long productId = new TransactionTemplate(transactionManager).execute(status -> {
+			fixtures.buyer(buyerEmail);
+			return fixtures.product(sellerEmail, 10).getProductId();
+		});
+		// Start from an empty outbox, whatever earlier tests left behind
+		relay.relay();
+		return productId;
+	}
+}
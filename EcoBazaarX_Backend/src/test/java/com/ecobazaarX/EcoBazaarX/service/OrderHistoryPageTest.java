@@ -0,0 +1,97 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.CursorPage;
+import com.ecobazaarX.EcoBazaarX.dto.sellerdto.SellerOrderDTO;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderDTO;
+import com.ecobazaarX.EcoBazaarX.model.Order;
+import com.ecobazaarX.EcoBazaarX.model.Product;
+import com.ecobazaarX.EcoBazaarX.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * History pages must cost the same two statements however long the history is.
+ */
+class OrderHistoryPageTest extends OrderServiceSliceTest {
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void buyerHistoryPagesNewestFirstWithBoundedStatements() {
+		User buyer = fixtures.buyer("pages@buyer.test");
+		User other = fixtures.buyer("other@buyer.test");
+		Product product = fixtures.product("pages@seller.test", 10);
+		List<Long> expected = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			expected.add(0, fixtures.order(buyer, Order.OrderStatus.DELIVERED, product, product).getOrderId());
+			fixtures.order(other, Order.OrderStatus.DELIVERED, product);
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		List<Long> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			entityManager.clear();
+			statistics.clear();
+			CursorPage<OrderDTO> page = orderService.getOrderPageForUser("pages@buyer.test", cursor, 3);
+			assertEquals(2, statistics.getPrepareStatementCount());
+			page.getItems().forEach(order -> {
+				assertEquals(2, order.getOrderItems().size());
+				seen.add(order.getOrderId());
+			});
+			assertEquals(page.isHasMore(), page.getNextCursor() != null);
+			cursor = page.getNextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertEquals(expected, seen);
+		assertEquals(3, pages);
+	}
+
+	@Test
+	void sellerHistoryPageOnlyHoldsTheSellersOrders() {
+		User buyer = fixtures.buyer("seller-pages@buyer.test");
+		Product mine = fixtures.product("mine@seller.test", 10);
+		Product theirs = fixtures.product("theirs@seller.test", 10);
+		Order first = fixtures.order(buyer, Order.OrderStatus.DELIVERED, mine);
+		fixtures.order(buyer, Order.OrderStatus.DELIVERED, theirs);
+		Order second = fixtures.order(buyer, Order.OrderStatus.DELIVERED, theirs, mine);
+		entityManager.flush();
+		entityManager.clear();
+
+		CursorPage<SellerOrderDTO> page = orderService.getOrderHistoryPageForSeller("mine@seller.test", null, 10);
+
+		assertEquals(List.of(second.getOrderId(), first.getOrderId()),
+				page.getItems().stream().map(SellerOrderDTO::getOrderId).toList());
+		assertFalse(page.isHasMore());
+		assertNull(page.getNextCursor());
+	}
+
+	@Test
+	void emptyHistoryAndMalformedCursor() {
+		fixtures.buyer("empty@buyer.test");
+
+		CursorPage<OrderDTO> page = orderService.getOrderPageForUser("empty@buyer.test", null, null);
+
+		assertTrue(page.getItems().isEmpty());
+		assertFalse(page.isHasMore());
+		assertThrows(IllegalArgumentException.class,
+				() -> orderService.getOrderPageForUser("empty@buyer.test", "not-a-cursor", 5));
+	}
+}
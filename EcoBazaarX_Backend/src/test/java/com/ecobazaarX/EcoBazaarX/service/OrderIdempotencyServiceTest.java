@@ -0,0 +1,141 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderDTO;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderRequest;
+import com.ecobazaarX.EcoBazaarX.model.IdempotencyRecord;
+import com.ecobazaarX.EcoBazaarX.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderIdempotencyServiceTest {
+
+	private final OrderService orderService = mock(OrderService.class);
+	private final IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+	private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+	private final OrderIdempotencyService service = newService();
+
+	@Test
+	void concurrentDuplicatesShareOneExecution() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		when(repository.findByUserEmailAndIdempotencyKey("buyer@test", "k1")).thenReturn(Optional.empty());
+		when(orderService.createOrder(any(), eq("buyer@test"))).thenAnswer(invocation -> {
+			release.await();
+			return order(42L);
+		});
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<OrderIdempotencyService.Result>> results = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				results.add(pool.submit(() -> service.createOrder(request(2), "buyer@test", "k1")));
+			}
+			Thread.sleep(100);
+			release.countDown();
+			int executed = 0;
+			for (Future<OrderIdempotencyService.Result> result : results) {
+				assertEquals(42L, result.get().order().getOrderId());
+				if (!result.get().replayed()) executed++;
+			}
+			assertEquals(1, executed);
+		} finally {
+			pool.shutdownNow();
+		}
+		verify(orderService, times(1)).createOrder(any(), eq("buyer@test"));
+	}
+
+	@Test
+	void replayReturnsOriginalAndRejectsDifferentBody() {
+		when(repository.findByUserEmailAndIdempotencyKey("buyer@test", "k2")).thenReturn(Optional.empty());
+		when(orderService.createOrder(any(), eq("buyer@test"))).thenReturn(order(7L));
+
+		assertFalse(service.createOrder(request(1), "buyer@test", "k2").replayed());
+		OrderIdempotencyService.Result retry = service.createOrder(request(1), "buyer@test", "k2");
+		assertTrue(retry.replayed());
+		assertEquals(7L, retry.order().getOrderId());
+		assertThrows(OrderIdempotencyService.KeyReusedException.class,
+				() -> service.createOrder(request(5), "buyer@test", "k2"));
+		verify(orderService, times(1)).createOrder(any(), eq("buyer@test"));
+	}
+
+	@Test
+	void storedKeyIsReplayedAfterRestart() throws Exception {
+		when(repository.findByUserEmailAndIdempotencyKey("buyer@test", "k3")).thenReturn(Optional.empty());
+		when(orderService.createOrder(any(), eq("buyer@test"))).thenReturn(order(9L));
+		service.createOrder(request(1), "buyer@test", "k3");
+
+		// What the first instance stored, as seen by a fresh instance with an empty memory cache
+		OrderIdempotencyService restarted = newService();
+		IdempotencyRecord stored = new IdempotencyRecord();
+		stored.setRequestHash(hashOf(request(1)));
+		stored.setResponseJson(objectMapper.writeValueAsString(order(9L)));
+		stored.setExpiresAt(LocalDateTime.now().plusHours(1));
+		when(repository.findByUserEmailAndIdempotencyKey("buyer@test", "k3")).thenReturn(Optional.of(stored));
+
+		OrderIdempotencyService.Result result = restarted.createOrder(request(1), "buyer@test", "k3");
+		assertTrue(result.replayed());
+		assertEquals(9L, result.order().getOrderId());
+		verify(orderService, times(1)).createOrder(any(), eq("buyer@test"));
+	}
+
+	@Test
+	void failuresAreNotRemembered() {
+		when(repository.findByUserEmailAndIdempotencyKey("buyer@test", "k4")).thenReturn(Optional.empty());
+		when(orderService.createOrder(any(), eq("buyer@test")))
+				.thenThrow(new IllegalStateException("Not enough stock"))
+				.thenReturn(order(11L));
+
+		assertThrows(IllegalStateException.class, () -> service.createOrder(request(1), "buyer@test", "k4"));
+		assertFalse(service.createOrder(request(1), "buyer@test", "k4").replayed());
+		verify(repository, never()).delete(any());
+	}
+
+	private OrderIdempotencyService newService() {
+		return new OrderIdempotencyService(orderService, repository, objectMapper,
+				mock(PlatformTransactionManager.class), Duration.ofHours(1), 1000);
+	}
+
+	private String hashOf(OrderRequest request) throws Exception {
+		byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+		return HexFormat.of().formatHex(digest);
+	}
+
+	private static OrderDTO order(long id) {
+		return OrderDTO.builder().orderId(id).status("PENDING_APPROVAL").totalPrice(BigDecimal.TEN).orderItems(List.of()).build();
+	}
+
+	private static OrderRequest request(int quantity) {
+		OrderRequest.CartItemDto item = new OrderRequest.CartItemDto();
+		item.setProductId(1L);
+		item.setQuantity(quantity);
+		OrderRequest request = new OrderRequest();
+		request.setOrderItems(List.of(item));
+		return request;
+	}
+}
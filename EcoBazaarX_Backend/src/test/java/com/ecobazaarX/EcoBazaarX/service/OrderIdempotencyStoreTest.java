@@ -0,0 +1,65 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.model.IdempotencyRecord;
+import com.ecobazaarX.EcoBazaarX.model.Product;
+import com.ecobazaarX.EcoBazaarX.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.ecobazaarX.EcoBazaarX.OrderFixtures.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Idempotency keys stored on H2: an expired key that has not been purged yet can be used again.
+ */
+@AutoConfigureJson
+@Import(OrderIdempotencyService.class)
+class OrderIdempotencyStoreTest extends OrderServiceSliceTest {
+
+	@Autowired
+	private OrderIdempotencyService orderIdempotencyService;
+
+	@Autowired
+	private IdempotencyRecordRepository repository;
+
+	@Test
+	void expiredKeyIsReplacedByTheNewOrder() {
+		fixtures.buyer("buyer@shop.test");
+		Product product = fixtures.product("seller@shop.test", 10);
+		IdempotencyRecord expired = new IdempotencyRecord();
+		expired.setUserEmail("buyer@shop.test");
+		expired.setIdempotencyKey("k1");
+		expired.setRequestHash("0".repeat(64));
+		expired.setResponseJson("{}");
+		expired.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+		repository.saveAndFlush(expired);
+
+		OrderIdempotencyService.Result result =
+				orderIdempotencyService.createOrder(request(List.of(product.getProductId()), 1), "buyer@shop.test", "k1");
+
+		assertFalse(result.replayed());
+		IdempotencyRecord stored = repository.findByUserEmailAndIdempotencyKey("buyer@shop.test", "k1").orElseThrow();
+		assertTrue(stored.getExpiresAt().isAfter(LocalDateTime.now()));
+		assertTrue(stored.getResponseJson().contains("\"orderId\":" + result.order().getOrderId()));
+		assertEquals(1, repository.count());
+	}
+
+	@Test
+	void unusableKeyIsRejectedBeforeAnyOrder() {
+		Product product = fixtures.product("seller@shop.test", 10);
+
+		for (String key : List.of(" ", "k".repeat(OrderIdempotencyService.MAX_KEY_LENGTH + 1))) {
+			assertThrows(IllegalArgumentException.class, () ->
+					orderIdempotencyService.createOrder(request(List.of(product.getProductId()), 1), "buyer@shop.test", key));
+		}
+		assertEquals(0, repository.count());
+	}
+}
@@ -0,0 +1,120 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.config.IdGeneratorSeeder;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderDTO;
+import com.ecobazaarX.EcoBazaarX.model.Product;
+import com.ecobazaarX.EcoBazaarX.model.User;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ecobazaarX.EcoBazaarX.OrderFixtures.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * An order is inserted with its items in JDBC batches, not one round trip per row,
+ * and table-generated ids never collide with ids that were handed out before.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.ecobazaarX.EcoBazaarX.service.OrderInsertBatchingTest$InsertCounter")
+@Import(IdGeneratorSeeder.class)
+class OrderInsertBatchingTest extends OrderServiceSliceTest {
+
+	// Sees each statement once when it is prepared; a JDBC batch is prepared once for all of its rows
+	public static class InsertCounter implements StatementInspector {
+		static final AtomicInteger INSERTS = new AtomicInteger();
+
+		@Override
+		public String inspect(String sql) {
+			if (sql.regionMatches(true, 0, "insert", 0, 6)) {
+				INSERTS.incrementAndGet();
+			}
+			return sql;
+		}
+	}
+
+	@Autowired
+	private IdGeneratorSeeder idGeneratorSeeder;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void twentyItemOrderIsInsertedInThreeStatements() {
+		fixtures.buyer("batch@buyer.test");
+		List<Long> ids = productIds("batch@seller.test", 20);
+		entityManager.flush();
+		entityManager.clear();
+
+		InsertCounter.INSERTS.set(0);
+		OrderDTO order = orderService.createOrder(request(ids, 1), "batch@buyer.test");
+		entityManager.flush();
+
+		// One for the order, one batch for its twenty items, one for its outbox event
+		assertEquals(3, InsertCounter.INSERTS.get());
+		assertNotNull(order.getOrderId());
+		assertNotNull(order.getCreatedAt());
+		assertEquals(20L, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM order_items WHERE order_id = ?", Long.class, order.getOrderId()));
+	}
+
+	@Test
+	void seederMovesGeneratorsPastExistingIdsAndNeverBack() {
+		User buyer = fixtures.buyer("legacy@buyer.test");
+		entityManager.flush();
+		// A row written under the old AUTO_INCREMENT ids
+		jdbcTemplate.update("INSERT INTO orders (order_id, user_id, total_amount, status, created_at, "
+				+ "shipping_first_name, shipping_last_name, shipping_address1, shipping_city, shipping_zip, shipping_country) "
+				+ "VALUES (10000, ?, 10, 'DELIVERED', CURRENT_TIMESTAMP, 'Asha', 'Rao', '1 Green Street', 'Pune', '411001', 'India')",
+				buyer.getUserId());
+
+		idGeneratorSeeder.afterSingletonsInstantiated();
+		assertEquals(10001L, nextValue("orders"));
+
+		jdbcTemplate.update("DELETE FROM orders WHERE order_id = 10000");
+		idGeneratorSeeder.afterSingletonsInstantiated();
+		assertEquals(10001L, nextValue("orders"));
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+	void benchmarkBatchedCheckoutInserts() {
+		fixtures.buyer("bench@buyer.test");
+		List<Long> ids = productIds("bench@seller.test", 20);
+		entityManager.flush();
+		entityManager.clear();
+
+		for (int batchSize : new int[]{1, 50, 1, 50}) {
+			entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+			InsertCounter.INSERTS.set(0);
+			int checkouts = 200;
+			long start = System.nanoTime();
+			for (int i = 0; i < checkouts; i++) {
+				orderService.createOrder(request(ids, 1), "bench@buyer.test");
+				entityManager.flush();
+				entityManager.clear();
+			}
+			long micros = (System.nanoTime() - start) / 1_000 / checkouts;
+			System.out.printf("jdbc batch size %d: %d insert statements per 20-item checkout, %d us per checkout%n",
+					batchSize, InsertCounter.INSERTS.get() / checkouts, micros);
+		}
+	}
+
+	private List<Long> productIds(String sellerEmail, int count) {
+		return fixtures.products(sellerEmail, count, 1_000_000).stream().map(Product::getProductId).toList();
+	}
+
+	private long nextValue(String generator) {
+		return jdbcTemplate.queryForObject(
+				"SELECT next_val FROM id_generator WHERE sequence_name = ?", Long.class, generator);
+	}
+}
@@ -0,0 +1,197 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderDTO;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderIntakeStatusDTO;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.OrderRequest;
+import com.ecobazaarX.EcoBazaarX.model.Address;
+import com.ecobazaarX.EcoBazaarX.model.OrderIntake;
+import com.ecobazaarX.EcoBazaarX.repository.OrderIntakeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static com.ecobazaarX.EcoBazaarX.OrderFixtures.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderIntakeServiceTest {
+
+	private final OrderService orderService = mock(OrderService.class);
+	private final CatalogSnapshotService catalogSnapshotService = mock(CatalogSnapshotService.class);
+
+	@Autowired
+	private OrderIntakeRepository intakeRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@AfterEach
+	void cleanUp() {
+		intakeRepository.deleteAll();
+	}
+
+	@Test
+	void fullQueueRefusesSubmissions() {
+		// No writers, so nothing leaves the queue
+		OrderIntakeService intake = newIntake(2, 0, Duration.ofMinutes(5));
+		intake.start();
+
+		intake.submit(request(List.of(1L), 1), "buyer@test");
+		intake.submit(request(List.of(1L), 1), "buyer@test");
+		assertThrows(OrderIntakeService.IntakeFullException.class, () -> intake.submit(request(List.of(1L), 1), "buyer@test"));
+		assertEquals(2, intakeRepository.count());
+	}
+
+	@Test
+	void queuedOrdersArePlacedInBatchesAndReported() throws Exception {
+		placeEverything();
+		OrderIntakeService intake = newIntake(100, 1, Duration.ofMinutes(5));
+		intake.start();
+
+		OrderIntakeStatusDTO queued = intake.submit(request(List.of(1L), 1), "buyer@test");
+		assertEquals(OrderIntakeStatusDTO.Status.QUEUED, queued.getStatus());
+
+		OrderIntakeStatusDTO status = awaitOutcome(intake, queued.getHandle());
+		assertEquals(OrderIntakeStatusDTO.Status.PLACED, status.getStatus());
+		assertEquals(1L, status.getOrder().getOrderId());
+		// Handles are private to the buyer who submitted them
+		assertTrue(intake.getStatus(queued.getHandle(), "someone@else").isEmpty());
+		intake.stop();
+	}
+
+	@Test
+	void acceptedOrderIsPlacedByAnotherInstanceAfterACrash() throws Exception {
+		placeEverything();
+		// Accepted, then the instance goes down before a writer gets to it; its claim has already lapsed
+		OrderIntakeService crashed = newIntake(10, 0, Duration.ZERO);
+		crashed.start();
+		OrderIntakeStatusDTO queued = crashed.submit(request(List.of(1L), 1), "buyer@test");
+
+		OrderIntakeService survivor = newIntake(10, 1, Duration.ofMinutes(5));
+		survivor.start();
+		assertEquals(OrderIntakeStatusDTO.Status.QUEUED,
+				survivor.getStatus(queued.getHandle(), "buyer@test").orElseThrow().getStatus());
+
+		Thread.sleep(5);
+		survivor.recover();
+		assertEquals(OrderIntakeStatusDTO.Status.PLACED, awaitOutcome(survivor, queued.getHandle()).getStatus());
+		// Taking it over again places nothing twice
+		survivor.recover();
+		survivor.stop();
+		verify(orderService, times(1)).createOrders(anyList());
+	}
+
+	@Test
+	void transientFailureLeavesTheOrderQueuedForRecovery() throws Exception {
+		when(orderService.createOrders(anyList())).thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"));
+		OrderIntakeService intake = newIntake(10, 1, Duration.ZERO);
+		intake.start();
+		OrderIntakeStatusDTO queued = intake.submit(request(List.of(1L), 1), "buyer@test");
+
+		// Once as part of the batch, once on its own
+		verify(orderService, timeout(5000).times(2)).createOrders(anyList());
+		intake.stop();
+		assertEquals(OrderIntakeStatusDTO.Status.QUEUED, intake.getStatus(queued.getHandle(), "buyer@test").orElseThrow().getStatus());
+
+		reset(orderService);
+		placeEverything();
+		OrderIntakeService survivor = newIntake(10, 1, Duration.ofMinutes(5));
+		survivor.start();
+		survivor.recover();
+		assertEquals(OrderIntakeStatusDTO.Status.PLACED, awaitOutcome(survivor, queued.getHandle()).getStatus());
+		survivor.stop();
+	}
+
+	@Test
+	void rejectedOrderIsMarkedFailed() throws Exception {
+		when(orderService.createOrders(anyList())).thenThrow(new IllegalStateException("Not enough stock for product: Tote"));
+		OrderIntakeService intake = newIntake(10, 1, Duration.ofMinutes(5));
+		intake.start();
+		OrderIntakeStatusDTO queued = intake.submit(request(List.of(1L), 1), "buyer@test");
+
+		OrderIntakeStatusDTO status = awaitOutcome(intake, queued.getHandle());
+		assertEquals(OrderIntakeStatusDTO.Status.FAILED, status.getStatus());
+		assertEquals("Not enough stock for product: Tote", status.getError());
+		intake.stop();
+	}
+
+	@Test
+	void fullQueueStillCleansUpFinishedIntakes() {
+		OrderIntakeService intake = newIntake(1, 0, Duration.ZERO);
+		intake.start();
+		intake.submit(request(List.of(1L), 1), "buyer@test");
+		OrderIntake finished = new OrderIntake();
+		finished.setHandle("finished");
+		finished.setUserEmail("buyer@test");
+		finished.setRequestJson("{}");
+		finished.setStatus(OrderIntakeStatusDTO.Status.PLACED);
+		finished.setCreatedAt(LocalDateTime.now().minusHours(1));
+		intakeRepository.save(finished);
+
+		intake.recover();
+
+		assertFalse(intakeRepository.existsById("finished"));
+		assertEquals(1, intakeRepository.count());
+	}
+
+	@Test
+	void malformedRequestIsRejectedBeforeQueueing() {
+		OrderIntakeService intake = newIntake(10, 0, Duration.ofMinutes(5));
+		OrderRequest empty = new OrderRequest();
+		empty.setShippingAddress(new Address());
+		assertThrows(IllegalArgumentException.class, () -> intake.submit(empty, "buyer@test"));
+		assertEquals(0, intakeRepository.count());
+	}
+
+	private void placeEverything() {
+		when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+			List<OrderService.OrderSubmission> batch = invocation.getArgument(0);
+			return batch.stream()
+					.map(s -> new OrderService.PlacementResult(OrderDTO.builder().orderId(1L).build(), null))
+					.toList();
+		});
+		when(orderService.getOrderForUser(anyLong(), anyString()))
+				.thenAnswer(invocation -> Optional.of(OrderDTO.builder().orderId(invocation.getArgument(0)).build()));
+	}
+
+	private static OrderIntakeStatusDTO awaitOutcome(OrderIntakeService intake, String handle) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		OrderIntakeStatusDTO status = intake.getStatus(handle, "buyer@test").orElseThrow();
+		while (status.getStatus() == OrderIntakeStatusDTO.Status.QUEUED && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+			status = intake.getStatus(handle, "buyer@test").orElseThrow();
+		}
+		return status;
+	}
+
+	private OrderIntakeService newIntake(int capacity, int writers, Duration claimLease) {
+		return new OrderIntakeService(orderService, catalogSnapshotService, intakeRepository, transactionManager,
+				new SimpleMeterRegistry(), capacity, writers, 10, claimLease, Duration.ofMinutes(30));
+	}
+}
@@ -0,0 +1,39 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.OrderFixtures;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+/**
+ * JPA slice around a real {@link OrderService} on H2, for tests of checkout and order queries.
+ * Subclasses may @Import further beans.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import({OrderService.class, StockLedger.class, OrderEventOutbox.class})
+abstract class OrderServiceSliceTest {
+
+	@MockitoBean
+	protected JsonArrayStreamer jsonArrayStreamer;
+
+	@MockitoBean
+	protected CarbonCalculatorService carbonCalculatorService;
+
+	@Autowired
+	protected OrderService orderService;
+
+	@Autowired
+	protected EntityManager entityManager;
+
+	protected OrderFixtures fixtures;
+
+	@BeforeEach
+	void createFixtures() {
+		fixtures = new OrderFixtures(entityManager);
+	}
+}
@@ -0,0 +1,95 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductDetailDTO;
+import com.ecobazaarX.EcoBazaarX.event.OrderLifecycleEvent;
+import com.ecobazaarX.EcoBazaarX.event.ProductChangedEvent;
+import com.ecobazaarX.EcoBazaarX.model.Order;
+import com.ecobazaarX.EcoBazaarX.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductDetailServiceTest {
+
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+	private final ProductDetailService service =
+			new ProductDetailService(productRepository, new SimpleMeterRegistry(), 1 << 20, Duration.ofMinutes(5));
+
+	@Test
+	void concurrentMissesShareOneQuery() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		when(productRepository.findActiveDetail(7L)).thenAnswer(invocation -> {
+			release.await();
+			return Optional.of(detail(7L));
+		});
+
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		try {
+			List<Future<Optional<ProductDetailDTO>>> results = new ArrayList<>();
+			for (int i = 0; i < 100; i++) {
+				results.add(pool.submit(() -> service.getProduct(7L)));
+			}
+			Thread.sleep(100);
+			release.countDown();
+			for (Future<Optional<ProductDetailDTO>> result : results) {
+				assertEquals(7L, result.get().orElseThrow().getProduct().getProductId());
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		verify(productRepository, times(1)).findActiveDetail(7L);
+	}
+
+	@Test
+	void productWriteInvalidatesEntry() {
+		when(productRepository.findActiveDetail(7L)).thenReturn(Optional.of(detail(7L)));
+
+		service.getProduct(7L);
+		service.getProduct(7L);
+		service.onProductChanged(new ProductChangedEvent(7L, ProductChangedEvent.ChangeType.UPDATED));
+		service.getProduct(7L);
+
+		verify(productRepository, times(2)).findActiveDetail(7L);
+	}
+
+	@Test
+	void placementsAndCancellationsInvalidateTheirProducts() {
+		when(productRepository.findActiveDetail(7L)).thenReturn(Optional.of(detail(7L)));
+		List<OrderLifecycleEvent.Line> lines = List.of(new OrderLifecycleEvent.Line(7L, 1, BigDecimal.TEN));
+
+		service.getProduct(7L);
+		service.onOrderEvent(event(null, Order.OrderStatus.PENDING_APPROVAL, lines));
+		service.getProduct(7L);
+		service.onOrderEvent(event(Order.OrderStatus.PENDING_APPROVAL, Order.OrderStatus.APPROVED, lines));
+		service.getProduct(7L);
+		service.onOrderEvent(event(Order.OrderStatus.APPROVED, Order.OrderStatus.CANCELLED, lines));
+		service.getProduct(7L);
+
+		verify(productRepository, times(3)).findActiveDetail(7L);
+	}
+
+	private static OrderLifecycleEvent event(Order.OrderStatus previous, Order.OrderStatus status,
+											 List<OrderLifecycleEvent.Line> lines) {
+		return new OrderLifecycleEvent(1L, 1L, "buyer@test", previous, status, BigDecimal.TEN, lines, null);
+	}
+
+	private static ProductDetailDTO detail(long id) {
+		return new ProductDetailDTO(id, "Bamboo brush", null, 5, "Home", null, 1.0, BigDecimal.TEN, null,
+				true, true, 1L, "Green Shop", 3L);
+	}
+}
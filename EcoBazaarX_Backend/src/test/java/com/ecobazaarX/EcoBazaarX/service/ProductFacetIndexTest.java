@@ -0,0 +1,87 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProductFacetIndexTest {
+
+	private final ProductFacetIndex index = new ProductFacetIndex(new double[]{250, 500}, new double[]{1, 5});
+
+	@Test
+	void intersectsFiltersAndCountsOtherFacetValues() {
+		index.upsert(1L, "Kitchen", true, new BigDecimal("120"), 0.4);
+		index.upsert(2L, "Kitchen", false, new BigDecimal("300"), 2.0);
+		index.upsert(3L, "Home", true, new BigDecimal("800"), 0.9);
+		index.upsert(4L, "Kitchen", true, new BigDecimal("200"), 7.5);
+
+		ProductFacetIndex.Result result = index.query(
+				new ProductFacetIndex.Query(Set.of("Kitchen"), true, null, Set.of("0-1")), null, 10);
+
+		assertEquals(1, result.total());
+		assertEquals(List.of(1L), result.productIds());
+		// Category counts ignore the category filter itself
+		assertEquals(1, result.facets().get(ProductFacetIndex.CATEGORY).get("Home"));
+		assertEquals(1, result.facets().get(ProductFacetIndex.CATEGORY).get("Kitchen"));
+		assertEquals(1, result.facets().get(ProductFacetIndex.CARBON).get("5+"));
+		assertEquals(List.of("0-250", "250-500", "500+"), index.priceBandLabels());
+	}
+
+	@Test
+	void pagesNewestFirstAndFollowsUpdates() {
+		for (long id = 1; id <= 5; id++) {
+			index.upsert(id, "Home", false, BigDecimal.TEN, 1.5);
+		}
+		index.upsert(3L, "Garden", false, BigDecimal.TEN, 1.5);
+		index.remove(5L);
+
+		ProductFacetIndex.Query home = new ProductFacetIndex.Query(Set.of("Home"), null, null, null);
+		ProductFacetIndex.Result first = index.query(home, null, 2);
+		assertEquals(List.of(4L, 2L), first.productIds());
+		assertEquals(2L, first.nextAfter());
+
+		ProductFacetIndex.Result second = index.query(home, first.nextAfter(), 2);
+		assertEquals(List.of(1L), second.productIds());
+		assertNull(second.nextAfter());
+	}
+
+	@Test
+	void reactivatedProductsKeepTheirPlaceAndStaleCursorsStillPage() {
+		for (long id = 1; id <= 6; id++) {
+			index.upsert(id, "Home", false, BigDecimal.TEN, 1.5);
+		}
+		ProductFacetIndex.Query all = new ProductFacetIndex.Query(null, null, null, null);
+
+		index.remove(5L);
+		index.upsert(5L, "Home", false, BigDecimal.TEN, 1.5);
+		assertEquals(List.of(6L, 5L, 4L), index.query(all, null, 3).productIds());
+
+		// The cursor's product disappears between two pages
+		index.remove(4L);
+		assertEquals(List.of(3L, 2L), index.query(all, 4L, 2).productIds());
+		// Never indexed at all, e.g. removed before the last reload
+		index.remove(2L);
+		assertEquals(List.of(1L), index.query(all, 2L, 2).productIds());
+		assertEquals(List.of(6L, 5L, 3L, 1L), index.query(all, 99L, 10).productIds());
+	}
+
+	@Test
+	void productsArrivingOutOfIdOrderAreSlottedIn() {
+		index.upsert(1L, "Home", true, BigDecimal.TEN, 1.5);
+		index.upsert(4L, "Kitchen", false, new BigDecimal("300"), 7.0);
+		index.upsert(2L, "Kitchen", true, BigDecimal.TEN, 1.5);
+
+		ProductFacetIndex.Result kitchen = index.query(
+				new ProductFacetIndex.Query(Set.of("Kitchen"), null, null, null), null, 10);
+		assertEquals(List.of(4L, 2L), kitchen.productIds());
+		assertEquals(1, kitchen.facets().get(ProductFacetIndex.ZERO_WASTE).get("true"));
+		assertEquals(1, kitchen.facets().get(ProductFacetIndex.PRICE).get("250-500"));
+		assertEquals(List.of(2L, 1L), index.query(
+				new ProductFacetIndex.Query(null, true, null, null), 4L, 10).productIds());
+	}
+}
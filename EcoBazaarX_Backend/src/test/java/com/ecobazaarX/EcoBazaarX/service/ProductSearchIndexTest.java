@@ -0,0 +1,134 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTest {
+
+	@Test
+	void ranksNameMatchesAboveDescriptionMatches() {
+		ProductSearchIndex index = new ProductSearchIndex();
+		index.upsert(1L, "Cotton Tote", "Reusable bag made from bamboo fibre", "Bags");
+		index.upsert(2L, "Bamboo Bottles", "Stainless steel inner", "Kitchen");
+		index.upsert(3L, "Steel Straw", "Comes with a cleaning brush", "Kitchen");
+
+		ProductSearchIndex.SearchResult result = index.search("bamboo bottle", 10);
+
+		assertEquals(2, result.totalHits());
+		assertEquals(2L, result.hits().get(0).productId());
+		assertEquals(1L, result.hits().get(1).productId());
+	}
+
+	@Test
+	void updatesAndRemovalsAreVisibleWithoutRebuild() {
+		ProductSearchIndex index = new ProductSearchIndex();
+		index.upsert(1L, "Jute Rug", "Handwoven", "Home");
+		index.upsert(2L, "Coir Mat", "Natural fibre", "Home");
+
+		index.upsert(1L, "Cork Coaster", "Set of six", "Home");
+		assertEquals(0, index.search("jute", 10).totalHits());
+		assertEquals(1L, index.search("cork", 10).hits().get(0).productId());
+
+		index.remove(2L);
+		assertEquals(0, index.search("coir", 10).totalHits());
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	void resultsSurviveRenumberingAfterManyUpdates() {
+		ProductSearchIndex index = new ProductSearchIndex();
+		index.upsert(1L, "Jute Rug", "Handwoven", "Home");
+		index.upsert(2L, "Coir Mat", "Natural jute fibre", "Home");
+		// Enough tombstones to trigger several purges
+		for (int i = 0; i < 5_000; i++) {
+			index.upsert(3L, "Cork Coaster " + i, "Set of six", "Home");
+		}
+
+		ProductSearchIndex.SearchResult jute = index.search("jute", 10);
+		assertEquals(2, jute.totalHits());
+		assertEquals(List.of(1L, 2L), jute.hits().stream().map(ProductSearchIndex.Hit::productId).toList());
+		assertEquals(3L, index.search("coaster 4999", 10).hits().get(0).productId());
+		assertEquals(0, index.search("4998", 10).totalHits());
+		assertEquals(3, index.size());
+	}
+
+	@Test
+	void tombstonesDoNotCountTowardDocumentFrequencies() {
+		ProductSearchIndex updated = new ProductSearchIndex();
+		ProductSearchIndex fresh = new ProductSearchIndex();
+		for (ProductSearchIndex index : List.of(updated, fresh)) {
+			index.upsert(1L, "Jute Rug", "Handwoven", "Home");
+			index.upsert(2L, "Coir Mat", "Natural fibre", "Home");
+		}
+		// Far fewer tombstones than it takes to purge them, all of them once matching "jute"
+		for (int i = 0; i < 10; i++) {
+			updated.upsert(3L, "Jute Bag " + i, "Sturdy", "Bags");
+		}
+		updated.upsert(3L, "Cork Coaster", "Set of six", "Home");
+		fresh.upsert(3L, "Cork Coaster", "Set of six", "Home");
+
+		ProductSearchIndex.Hit hit = updated.search("jute", 10).hits().get(0);
+		assertEquals(1L, hit.productId());
+		assertEquals(fresh.search("jute", 10).hits().get(0).score(), hit.score());
+		assertEquals(1, updated.search("jute", 10).totalHits());
+	}
+
+	/**
+	 * Run with -Dbenchmarks=true. Indexes one million synthetic products and checks p99 query latency.
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+	void p99SearchLatencyAtOneMillionProductsIsUnder20ms() {
+		Random random = new Random(42);
+		String[] vocabulary = new String[20_000];
+		for (int i = 0; i < vocabulary.length; i++) {
+			vocabulary[i] = "term" + Integer.toString(i, 36);
+		}
+		String[] categories = {"Kitchen", "Home", "Fashion", "Beauty", "Garden", "Stationery", "Toys", "Bags"};
+
+		ProductSearchIndex index = new ProductSearchIndex();
+		int products = 1_000_000;
+		for (int id = 1; id <= products; id++) {
+			index.upsert(id, words(random, vocabulary, 3), words(random, vocabulary, 12),
+					categories[random.nextInt(categories.length)]);
+		}
+
+		int queries = 2_000;
+		long[] nanos = new long[queries];
+		for (int i = 0; i < queries; i++) {
+			String query = words(random, vocabulary, 1 + random.nextInt(3));
+			long start = System.nanoTime();
+			index.search(query, 20);
+			nanos[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(nanos);
+		double p50 = nanos[queries / 2] / 1e6;
+		double p99 = nanos[(int) (queries * 0.99)] / 1e6;
+		System.out.printf("search over %d products: p50=%.2f ms, p99=%.2f ms%n", products, p50, p99);
+
+		assertTrue(p99 < 20.0, "p99 was " + p99 + " ms");
+	}
+
+	// Zipf-like skew so a few terms are very common, as in real product text
+	private static String words(Random random, String[] vocabulary, int count) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			double u = random.nextDouble();
+			int rank = (int) Math.floor(Math.pow(vocabulary.length, u)) - 1;
+			sb.append(vocabulary[Math.max(0, rank)]).append(' ');
+		}
+		return sb.toString();
+	}
+
+	@Test
+	void tokenizerFoldsCaseStopWordsAndPlurals() {
+		assertEquals(List.of("battery", "pack", "bottle"), ProductSearchIndex.tokenize("The Batteries-PACK of bottles"));
+	}
+}
@@ -0,0 +1,156 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.dto.CursorPage;
+import com.ecobazaarX.EcoBazaarX.dto.KeysetCursor;
+import com.ecobazaarX.EcoBazaarX.dto.userdto.ProductSummaryDTO;
+import com.ecobazaarX.EcoBazaarX.event.ProductChangedEvent;
+import com.ecobazaarX.EcoBazaarX.model.Product;
+import com.ecobazaarX.EcoBazaarX.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Keyset pages must neither repeat nor skip products while the catalog changes between requests.
+ */
+class PublicProductServiceTest {
+
+	// Products 1..30, two minutes apart, so a product can be slotted in between two of them
+	private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+	private final CatalogSnapshotService snapshots =
+			new CatalogSnapshotService(productRepository, mock(ApplicationEventPublisher.class), new SimpleMeterRegistry());
+	private final PublicProductService service = new PublicProductService();
+
+	@BeforeEach
+	void setUp() {
+		List<ProductSummaryDTO> products = new ArrayList<>();
+		for (long id = 1; id <= 30; id++) {
+			products.add(summary(id, createdAt(id)));
+		}
+		when(productRepository.findActiveSummaries()).thenReturn(products);
+		ReflectionTestUtils.setField(service, "productRepository", productRepository);
+		ReflectionTestUtils.setField(service, "catalogSnapshotService", snapshots);
+	}
+
+	@Test
+	void malformedCursorsAreRejected() {
+		snapshots.reload();
+
+		for (String cursor : List.of("not a cursor", "Zm9v", new KeysetCursor(START, 1L).encode().substring(4))) {
+			assertThrows(IllegalArgumentException.class, () -> service.getProductPage(cursor, 10, null, null), cursor);
+		}
+		// Blank means the first page
+		assertEquals(30L, service.getProductPage(" ", 10, null, null).getItems().get(0).getProductId());
+	}
+
+	@Test
+	void pageBoundariesHoldWhileProductsAreAddedAndRemoved() {
+		snapshots.reload();
+		CursorPage<ProductSummaryDTO> first = service.getProductPage(null, 10, null, null);
+		assertEquals(ids(30, 21), idsOf(first));
+
+		// Between the two requests: a newer product, one slotted in after the cursor, and the cursor's own row goes
+		add(101L, createdAt(30).plusMinutes(1));
+		add(102L, createdAt(15).plusMinutes(1));
+		add(103L, createdAt(21));
+		snapshots.onProductChanged(new ProductChangedEvent(21L, ProductChangedEvent.ChangeType.DELETED));
+
+		List<Long> seen = new ArrayList<>(idsOf(first));
+		String cursor = first.getNextCursor();
+		while (cursor != null) {
+			CursorPage<ProductSummaryDTO> page = service.getProductPage(cursor, 10, null, null);
+			seen.addAll(idsOf(page));
+			cursor = page.getNextCursor();
+		}
+
+		List<Long> expected = new ArrayList<>(ids(30, 21));
+		// 101 and 103 (same createdAt as the cursor, higher id) sort before the cursor, on the page already served
+		expected.addAll(ids(20, 16));
+		expected.add(102L);
+		expected.addAll(ids(15, 1));
+		assertEquals(expected, seen);
+	}
+
+	@Test
+	void lastPageHasNoCursor() {
+		snapshots.reload();
+
+		CursorPage<ProductSummaryDTO> page = service.getProductPage(null, 20, null, null);
+		assertTrue(page.isHasMore());
+		page = service.getProductPage(page.getNextCursor(), 20, null, null);
+
+		assertEquals(ids(10, 1), idsOf(page));
+		assertFalse(page.isHasMore());
+		assertNull(page.getNextCursor());
+	}
+
+	@Test
+	void beforeTheSnapshotLoadsTheDatabaseSeeksPastTheCursor() {
+		KeysetCursor after = new KeysetCursor(createdAt(21), 21L);
+		when(productRepository.findActivePageAfter(isNull(), isNull(), eq(after.createdAt()), eq(21L), any(PageRequest.class)))
+				.thenReturn(List.of());
+
+		CursorPage<ProductSummaryDTO> page = service.getProductPage(after.encode(), 10, null, null);
+
+		assertTrue(page.getItems().isEmpty());
+		// One extra row tells whether there is another page
+		verify(productRepository).findActivePageAfter(null, null, after.createdAt(), 21L, PageRequest.of(0, 11));
+	}
+
+	private void add(Long id, LocalDateTime createdAt) {
+		Product product = new Product();
+		product.setProductId(id);
+		product.setName("Product " + id);
+		product.setCategory("Home");
+		product.setPrice(BigDecimal.TEN);
+		product.setStock(5);
+		product.setCreatedAt(createdAt);
+		product.setActive(true);
+		when(productRepository.findById(id)).thenReturn(Optional.of(product));
+		snapshots.onProductChanged(new ProductChangedEvent(id, ProductChangedEvent.ChangeType.CREATED));
+	}
+
+	private static LocalDateTime createdAt(long id) {
+		return START.plusMinutes(2 * id);
+	}
+
+	private static List<Long> ids(long from, long downTo) {
+		List<Long> ids = new ArrayList<>();
+		for (long id = from; id >= downTo; id--) {
+			ids.add(id);
+		}
+		return ids;
+	}
+
+	private static List<Long> idsOf(CursorPage<ProductSummaryDTO> page) {
+		return page.getItems().stream().map(ProductSummaryDTO::getProductId).toList();
+	}
+
+	private static ProductSummaryDTO summary(Long id, LocalDateTime createdAt) {
+		return new ProductSummaryDTO(id, "Product " + id, null, 5, "Home", null, 1.0, BigDecimal.TEN, createdAt,
+				false, true, 1L, "Green Shop");
+	}
+}
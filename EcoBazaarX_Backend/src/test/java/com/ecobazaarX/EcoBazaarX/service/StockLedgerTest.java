@@ -0,0 +1,148 @@
+package com.ecobazaarX.EcoBazaarX.service;
+
+import com.ecobazaarX.EcoBazaarX.model.Product;
+import com.ecobazaarX.EcoBazaarX.model.Seller;
+import com.ecobazaarX.EcoBazaarX.repository.ProductRepository;
+import com.ecobazaarX.EcoBazaarX.repository.StockLedgerEntryRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockLedgerTest {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private StockLedgerEntryRepository entryRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void concurrentReservationsNeverOversellAndFlushToTheTable() throws Exception {
+		Long sku = persistProduct("ledger-flash@seller.test", 100);
+		StockLedger ledger = startLedger();
+
+		int buyers = 500;
+		AtomicInteger reserved = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(32);
+		for (int i = 0; i < buyers; i++) {
+			pool.submit(() -> {
+				start.await();
+				if (ledger.reserve(sku, 1)) reserved.incrementAndGet();
+				return null;
+			});
+		}
+		start.countDown();
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+		assertEquals(100, reserved.get());
+
+		ledger.release(sku, 10);
+		assertTrue(ledger.reserve(sku, 10));
+		assertFalse(ledger.reserve(sku, 1));
+
+		ledger.flush();
+		assertEquals(0, productRepository.findStockById(sku).orElseThrow());
+	}
+
+	@Test
+	void unflushedReservationsSurviveACrash() {
+		Long sku = persistProduct("ledger-crash@seller.test", 10);
+		StockLedger beforeCrash = startLedger();
+		assertTrue(beforeCrash.reserve(sku, 3));
+		assertTrue(beforeCrash.reserve(sku, 2));
+		assertEquals(10, productRepository.findStockById(sku).orElseThrow());
+
+		// No flush, no shutdown: a new instance must still see the reservations
+		StockLedger afterRestart = startLedger();
+		assertFalse(afterRestart.reserve(sku, 6));
+		assertTrue(afterRestart.reserve(sku, 5));
+
+		afterRestart.flush();
+		assertEquals(0, productRepository.findStockById(sku).orElseThrow());
+		assertEquals(0, entryRepository.count());
+		startLedger().flush();
+		assertEquals(0, productRepository.findStockById(sku).orElseThrow());
+	}
+
+	@Test
+	void reservationsAndReleasesLastExactlyAsLongAsTheirTransaction() {
+		Long sku = persistProduct("ledger-tx@seller.test", 10);
+		StockLedger ledger = startLedger();
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+		// A checkout that rolls back leaves nothing behind, in memory or after a restart
+		transaction.executeWithoutResult(status -> {
+			assertTrue(ledger.reserve(sku, 4));
+			status.setRollbackOnly();
+		});
+		assertTrue(ledger.reserve(sku, 10));
+		assertFalse(ledger.reserve(sku, 1));
+		ledger.release(sku, 10);
+
+		transaction.executeWithoutResult(status -> assertTrue(ledger.reserve(sku, 4)));
+		// A cancellation commits its restock with it, so a crash right after the commit loses nothing
+		transaction.executeWithoutResult(status -> ledger.release(sku, 4));
+		transaction.executeWithoutResult(status -> {
+			ledger.release(sku, 4);
+			status.setRollbackOnly();
+		});
+
+		StockLedger afterRestart = startLedger();
+		assertFalse(afterRestart.reserve(sku, 11));
+		assertTrue(afterRestart.reserve(sku, 10));
+		ledger.flush();
+		assertEquals(0, productRepository.findStockById(sku).orElseThrow());
+	}
+
+	private StockLedger startLedger() {
+		return new StockLedger(productRepository, entryRepository, transactionManager, eventPublisher, true);
+	}
+
+	private Long persistProduct(String sellerEmail, int stock) {
+		return new TransactionTemplate(transactionManager).execute(status -> {
+			Seller seller = new Seller();
+			seller.setEmail(sellerEmail);
+			seller.setBusinessName("Shop " + sellerEmail);
+			entityManager.persist(seller);
+			Product product = new Product();
+			product.setName("Drop item");
+			product.setCategory("Home");
+			product.setPrice(BigDecimal.TEN);
+			product.setStock(stock);
+			product.setSeller(seller);
+			entityManager.persist(product);
+			return product.getProductId();
+		});
+	}
+}